@@ -55,6 +55,7 @@ import com.oracle.truffle.r.runtime.context.Engine.IncompleteSourceException;
 import com.oracle.truffle.r.runtime.context.Engine.ParseException;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.CharSXPWrapper;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout;
@@ -2751,6 +2752,20 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
         throw implementedAsNode();
     }
 
+    @Override
+    @TruffleBoundary
+    public long FASTR_getBufferableLength(Object x, int type) {
+        boolean expectedType = type == SEXPTYPE.STRSXP.code ? x instanceof RStringVector : type == SEXPTYPE.VECSXP.code && x instanceof RList;
+        if (!expectedType) {
+            return -1;
+        }
+        RAbstractVector vector = (RAbstractVector) x;
+        if (vector.isAltRep() || vector.hasNativeMemoryData() || NativeDataAccess.getNativeWrapper(vector) != null) {
+            return -1;
+        }
+        return vector.getLength();
+    }
+
     @Override
     public Object INTEGER(Object x) {
         throw implementedAsNode();
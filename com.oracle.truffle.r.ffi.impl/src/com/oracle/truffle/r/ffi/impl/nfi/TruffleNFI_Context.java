@@ -36,6 +36,7 @@ import com.oracle.truffle.r.ffi.impl.altrep.AltrepDownCallNodeFactoryImpl;
 import com.oracle.truffle.r.ffi.impl.common.LibPaths;
 import com.oracle.truffle.r.ffi.impl.mixed.TruffleMixed_DLL;
 import com.oracle.truffle.r.ffi.impl.nfi.TruffleNFI_DLL.NFIHandle;
+import com.oracle.truffle.r.ffi.impl.nodes.SetStringEltNodeGen;
 import com.oracle.truffle.r.ffi.impl.upcalls.Callbacks;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RLogger;
@@ -43,6 +44,9 @@ import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
 import com.oracle.truffle.r.runtime.context.RContext.ContextState;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.ffi.AfterDownCallProfiles;
 import com.oracle.truffle.r.runtime.ffi.AltrepRFFI;
 import com.oracle.truffle.r.runtime.ffi.BaseRFFI;
@@ -63,6 +67,7 @@ import com.oracle.truffle.r.runtime.ffi.StatsRFFI;
 import com.oracle.truffle.r.runtime.ffi.ToolsRFFI;
 import com.oracle.truffle.r.runtime.ffi.ZipRFFI;
 import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -211,12 +216,17 @@ public class TruffleNFI_Context extends RFFIContext {
 
     @TruffleBoundary
     private long initCallbacksAddress() {
+        return getThreadLocalAddress("Rinternals_getCallbacksAddress");
+    }
+
+    @TruffleBoundary
+    private long getThreadLocalAddress(String getterName) {
         // get the address of the native thread local
         try {
             InteropLibrary interop = InteropLibrary.getFactory().getUncached();
-            Object getCallbacksAddress = interop.readMember(getLibRHandle(), "Rinternals_getCallbacksAddress");
-            TruffleObject getCallbacksAddressFunction = (TruffleObject) interop.invokeMember(getCallbacksAddress, "bind", "(): sint64");
-            return (long) interop.execute(getCallbacksAddressFunction);
+            Object getter = interop.readMember(getLibRHandle(), getterName);
+            TruffleObject getterFunction = (TruffleObject) interop.invokeMember(getter, "bind", "(): sint64");
+            return (long) interop.execute(getterFunction);
         } catch (InteropException ex) {
             throw RInternalError.shouldNotReachHere(ex);
         }
@@ -263,6 +273,7 @@ public class TruffleNFI_Context extends RFFIContext {
         if (callbacksAddress == 0) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             callbacksAddress = initCallbacksAddress();
+            elementWriteBufferAddress = getThreadLocalAddress("Rinternals_getElementWriteBufferAddress");
             callbacksAddressThread = Thread.currentThread().getId();
         }
         assert callbacks != 0L;
@@ -388,9 +399,91 @@ public class TruffleNFI_Context extends RFFIContext {
         return new Object[]{tokenFromSuper, pushCallbacks()};
     }
 
+    /*
+     * The element write buffer filled by SET_STRING_ELT and SET_VECTOR_ELT in
+     * truffle_nfi/Rinternals.c. The buffer is a native thread local, because the callbacks table
+     * and this context may be used from several threads. The offsets are in longs, the length of
+     * the target at offset 2 is only used by the native code.
+     */
+    private static final int ELEMENT_WRITE_BUFFER_SIZE = 64;
+    private static final int TARGET_OFFSET = 0;
+    private static final int TYPE_OFFSET = 1;
+    private static final int COUNT_OFFSET = 3;
+    private static final int INDICES_OFFSET = 4;
+    private static final int VALUES_OFFSET = INDICES_OFFSET + ELEMENT_WRITE_BUFFER_SIZE;
+
+    /**
+     * The address of the element write buffer of the thread {@link #callbacksAddressThread}.
+     */
+    @CompilationFinal private long elementWriteBufferAddress;
+
+    /**
+     * The addresses of the element write buffers of the other threads. The buffer belongs to the
+     * native thread, so this is shared by all the contexts.
+     */
+    private static final ThreadLocal<Long> threadElementWriteBufferAddress = new ThreadLocal<>();
+
+    private long getElementWriteBuffer() {
+        if (singleThreadOnly && callbacksAddressThread == Thread.currentThread().getId()) {
+            return elementWriteBufferAddress;
+        }
+        return getThreadElementWriteBuffer();
+    }
+
+    @TruffleBoundary
+    private long getThreadElementWriteBuffer() {
+        Long address = threadElementWriteBufferAddress.get();
+        if (address == null) {
+            address = getThreadLocalAddress("Rinternals_getElementWriteBufferAddress");
+            threadElementWriteBufferAddress.set(address);
+        }
+        return address;
+    }
+
+    /**
+     * Applies the element writes recorded by the native code of the current thread since the last
+     * up-call. Returns the exception raised by the first failing write, the remaining writes are
+     * dropped in such case.
+     */
+    private RuntimeException flushElementWrites(long buffer) {
+        long count = NativeMemory.getLong(buffer, COUNT_OFFSET);
+        if (count == 0) {
+            return null;
+        }
+        NativeMemory.putLong(buffer, COUNT_OFFSET, 0);
+        return applyElementWrites(buffer, (int) count);
+    }
+
+    @TruffleBoundary
+    private static RuntimeException applyElementWrites(long buffer, int count) {
+        try {
+            Object target = NativeDataAccess.lookup(NativeMemory.getLong(buffer, TARGET_OFFSET));
+            boolean isString = NativeMemory.getLong(buffer, TYPE_OFFSET) == SEXPTYPE.STRSXP.code;
+            for (int i = 0; i < count; i++) {
+                long index = NativeMemory.getLong(buffer, INDICES_OFFSET + i);
+                long valueAddress = NativeMemory.getLong(buffer, VALUES_OFFSET + i);
+                Object value = valueAddress == 0L ? RNull.instance : NativeDataAccess.lookup(valueAddress);
+                if (isString) {
+                    SetStringEltNodeGen.getUncached().executeObject(target, index, value);
+                } else {
+                    ((RList) target).setElement((int) index, value);
+                }
+            }
+            return null;
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+
     @Override
     public void beforeUpcall(RContext context, boolean canRunGc, Type rffiType) {
         super.beforeUpcall(context, canRunGc, rffiType);
+        RuntimeException flushEx = callbacksAddress == 0L ? null : flushElementWrites(getElementWriteBuffer());
+        if (flushEx != null && getLastUpCallException() == null) {
+            CompilerDirectives.transferToInterpreter();
+            // reported as if the write itself failed: the native code exits after this up-call
+            HandleNFIUpCallExceptionNodeGen.getUncached().execute(flushEx);
+        }
         // up-call is where we are returning from native code to Java, if we run GC now, any
         // unreferenced (and unprotected) R objects should be collected
         context.gcTorture.runGC();
@@ -399,6 +492,15 @@ public class TruffleNFI_Context extends RFFIContext {
     @Override
     public void afterDowncall(Object beforeValue, Type rffiType, AfterDownCallProfiles profiles) {
         Object[] tokens = (Object[]) beforeValue;
+        if (callbacksAddress != 0L) {
+            long buffer = getElementWriteBuffer();
+            RuntimeException flushEx = flushElementWrites(buffer);
+            if (flushEx != null && getLastUpCallException() == null) {
+                setLastUpCallException(flushEx);
+            }
+            // the target may not be alive in the next down-call on this thread
+            NativeMemory.putLong(buffer, TARGET_OFFSET, 0);
+        }
         super.afterDowncall(tokens[0], rffiType, profiles);
         popCallbacks((long) tokens[1]);
         for (Long ptr : transientAllocations.pop()) {
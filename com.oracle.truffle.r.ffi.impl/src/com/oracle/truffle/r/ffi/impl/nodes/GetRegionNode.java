@@ -26,6 +26,9 @@ import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 
 /**
  * Base class for all the get regions nodes: IntegerGetRegionNode, RealGetRegionNode, etc.
@@ -45,4 +48,35 @@ abstract class GetRegionNode extends FFIUpCallNode.Arg4 {
             throw RInternalError.shouldNotReachHere(e);
         }
     }
+
+    /**
+     * Copies the region of a vector backed by a Java array into the native buffer in one go, like
+     * GNU R the number of copied elements is limited by the length of the vector. This way the
+     * vector does not have to be moved to native memory and the elements are not written one by
+     * one through the interop.
+     */
+    protected static long copyRegion(Object array, int arrayLength, long fromIdx, long size, long bufferAddr, ElementType type) {
+        long count = Math.min(size, arrayLength - fromIdx);
+        if (fromIdx < 0 || count <= 0) {
+            return 0;
+        }
+        NativeMemory.copyMemory(array, (int) fromIdx, bufferAddr, type, count);
+        return count;
+    }
+
+    /**
+     * Like {@link #copyRegion}, but for logical vectors, whose bytes are converted to the
+     * {@code int} elements of the native buffer.
+     */
+    protected static long copyLogicalRegion(byte[] array, long fromIdx, long size, long bufferAddr) {
+        long count = Math.min(size, array.length - fromIdx);
+        if (fromIdx < 0 || count <= 0) {
+            return 0;
+        }
+        int from = (int) fromIdx;
+        for (int i = 0; i < count; i++) {
+            NativeMemory.putInt(bufferAddr, i, RRuntime.logical2int(array[from + i]));
+        }
+        return count;
+    }
 }
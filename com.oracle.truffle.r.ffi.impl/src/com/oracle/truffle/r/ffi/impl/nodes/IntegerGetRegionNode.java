@@ -22,15 +22,19 @@
  */
 package com.oracle.truffle.r.ffi.impl.nodes;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.data.RIntArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.ffi.util.NativeArrayWrapper;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 
 @ImportStatic(DSLConfig.class)
 @GenerateUncached
@@ -52,9 +56,15 @@ public abstract class IntegerGetRegionNode extends GetRegionNode {
     protected long doGenericBuffer(RIntVector vec, long fromIdx, long size, Object buffer,
                     @CachedLibrary("vec.getData()") VectorDataLibrary dataLibrary,
                     @CachedLibrary("buffer") InteropLibrary bufferInterop,
-                    @CachedLibrary(limit = "1") InteropLibrary bufferWrapperInterop) {
+                    @CachedLibrary(limit = "1") InteropLibrary bufferWrapperInterop,
+                    @Cached("createBinaryProfile()") ConditionProfile arrayDataProfile) {
         validateArguments(fromIdx, size);
         long bufferAddr = bufferToNative(buffer, bufferInterop);
+        Object data = vec.getData();
+        if (arrayDataProfile.profile(data instanceof RIntArrayVectorData)) {
+            int[] array = ((RIntArrayVectorData) data).getReadonlyIntData();
+            return copyRegion(array, array.length, fromIdx, size, bufferAddr, ElementType.INT);
+        }
         int sizeInt = (int) size;
         Object bufferWrapper = NativeArrayWrapper.createIntWrapper(bufferAddr, sizeInt);
         return dataLibrary.getIntRegion(vec.getData(), (int) fromIdx, sizeInt, bufferWrapper, bufferWrapperInterop);
@@ -22,12 +22,15 @@
  */
 package com.oracle.truffle.r.ffi.impl.nodes;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.data.RLogicalArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.ffi.util.NativeArrayWrapper;
@@ -51,9 +54,14 @@ public abstract class LogicalGetRegionNode extends GetRegionNode {
     protected long doGenericBuffer(RLogicalVector vec, long fromIdx, long size, Object buffer,
                     @CachedLibrary("vec.getData()") VectorDataLibrary dataLibrary,
                     @CachedLibrary("buffer") InteropLibrary bufferInterop,
-                    @CachedLibrary(limit = "1") InteropLibrary bufferWrapperInterop) {
+                    @CachedLibrary(limit = "1") InteropLibrary bufferWrapperInterop,
+                    @Cached("createBinaryProfile()") ConditionProfile arrayDataProfile) {
         validateArguments(fromIdx, size);
         long bufferAddr = bufferToNative(buffer, bufferInterop);
+        Object data = vec.getData();
+        if (arrayDataProfile.profile(data instanceof RLogicalArrayVectorData)) {
+            return copyLogicalRegion(((RLogicalArrayVectorData) data).getReadonlyLogicalData(), fromIdx, size, bufferAddr);
+        }
         Object bufferWrapper = NativeArrayWrapper.createIntWrapper(bufferAddr, (int) size);
         return dataLibrary.getLogicalRegion(vec.getData(), (int) fromIdx, (int) size, bufferWrapper, bufferWrapperInterop);
     }
@@ -22,15 +22,19 @@
  */
 package com.oracle.truffle.r.ffi.impl.nodes;
 
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.ffi.util.NativeArrayWrapper;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 
 @ImportStatic(DSLConfig.class)
 @GenerateUncached
@@ -51,9 +55,15 @@ public abstract class RealGetRegionNode extends GetRegionNode {
     protected long doGenericBuffer(RDoubleVector vec, long fromIdx, long size, Object buffer,
                     @CachedLibrary("vec.getData()") VectorDataLibrary dataLibrary,
                     @CachedLibrary("buffer") InteropLibrary bufferInterop,
-                    @CachedLibrary(limit = "1") InteropLibrary bufferWrapperInterop) {
+                    @CachedLibrary(limit = "1") InteropLibrary bufferWrapperInterop,
+                    @Cached("createBinaryProfile()") ConditionProfile arrayDataProfile) {
         validateArguments(fromIdx, size);
         long bufferAddr = bufferToNative(buffer, bufferInterop);
+        Object data = vec.getData();
+        if (arrayDataProfile.profile(data instanceof RDoubleArrayVectorData)) {
+            double[] array = ((RDoubleArrayVectorData) data).getReadonlyDoubleData();
+            return copyRegion(array, array.length, fromIdx, size, bufferAddr, ElementType.DOUBLE);
+        }
         Object bufferWrapper = NativeArrayWrapper.createDoubleWrapper(bufferAddr, (int) size);
         return dataLibrary.getDoubleRegion(vec.getData(), (int) fromIdx, (int) size, bufferWrapper, bufferWrapperInterop);
     }
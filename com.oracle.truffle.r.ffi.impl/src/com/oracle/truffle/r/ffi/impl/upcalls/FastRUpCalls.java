@@ -53,4 +53,12 @@ public interface FastRUpCalls {
     @RFFICpointer
     @RFFIUpCallNode(FASTR_DATAPTRNode.class)
     Object FASTR_DATAPTR(Object x);
+
+    /**
+     * Returns the length of {@code x} if the writes of its elements done by {@code SET_STRING_ELT}
+     * ({@code type} is {@code STRSXP}) or {@code SET_VECTOR_ELT} ({@code type} is {@code VECSXP})
+     * can be collected in the native element write buffer and applied later, or {@code -1} if every
+     * write must be an up-call, e.g., because a pointer to the data of {@code x} was handed out.
+     */
+    long FASTR_getBufferableLength(Object x, int type);
 }
@@ -25,8 +25,13 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.missingValue
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.nullValue;
 import static com.oracle.truffle.r.runtime.nmath.MathConstants.DBL_MIN;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.data.nodes.attributes.GetFixedAttributeNode;
 import com.oracle.truffle.r.runtime.data.nodes.attributes.SetAttributeNode;
 import com.oracle.truffle.r.runtime.data.nodes.attributes.SpecialAttributesFunctions.GetDimAttributeNode;
@@ -35,20 +40,24 @@ import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RStringVector;
-import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
-import com.oracle.truffle.r.runtime.data.nodes.VectorAccess.RandomIterator;
-import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
 
-    private static final NACheck naCheck = NACheck.create();
+    /**
+     * The number of rows of each block of the parallel computation.
+     */
+    private static final int ROW_BLOCK = 64;
 
     @Child private GetFixedAttributeNode getNamesAttrNode = GetFixedAttributeNode.createNames();
 
+    private final ConditionProfile parallelProfile = ConditionProfile.createBinaryProfile();
+
     static {
         Casts casts = new Casts(Cdist.class);
         casts.arg(0).mustBe(nullValue().not(), RError.Message.VECTOR_IS_TOO_LARGE).mustBe(missingValue().not()).asDoubleVector();
@@ -57,10 +66,9 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         casts.arg(3).asDoubleVector().findFirst();
     }
 
-    @Specialization(guards = {"method == cachedMethod", "xAccess.supports(x)"})
+    @Specialization(guards = "method == cachedMethod")
     protected RDoubleVector cdist(RDoubleVector x, @SuppressWarnings("unused") int method, RList list, double p,
                     @Cached("method") @SuppressWarnings("unused") int cachedMethod,
-                    @Cached("x.access()") VectorAccess xAccess,
                     @Cached("getMethod(method)") Method methodObj,
                     @Cached("create()") SetAttributeNode setAttrNode,
                     @Cached("create()") SetClassAttributeNode setClassAttrNode,
@@ -71,13 +79,11 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         }
         int nr = getDimNode.nrows(x);
         int nc = getDimNode.ncols(x);
-        int n = nr * (nr - 1) / 2; /* avoid int overflow for N ~ 50,000 */
+        int n = (int) ((long) nr * (nr - 1) / 2); /* avoid int overflow for N ~ 50,000 */
         double[] ans = new double[n];
 
-        try (RandomIterator xIter = xAccess.randomAccess(x)) {
-            rdistance(xAccess, xIter, nr, nc, ans, false, methodObj, p);
-        }
-        RDoubleVector result = RDataFactory.createDoubleVector(ans, naCheck.neverSeenNA());
+        boolean complete = rdistance(x.getReadonlyData(), nr, nc, ans, false, methodObj, p);
+        RDoubleVector result = RDataFactory.createDoubleVector(ans, complete);
 
         RStringVector names = (RStringVector) getNamesAttrNode.execute(list);
         if (names != null) {
@@ -100,7 +106,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                     @Cached("create()") SetAttributeNode setAttrNode,
                     @Cached("create()") SetClassAttributeNode setClassAttrNode,
                     @Cached("create()") GetDimAttributeNode getDimNode) {
-        return cdist(x, method, list, p, method, x.slowPathAccess(), getMethod(method), setAttrNode, setClassAttrNode, getDimNode);
+        return cdist(x, method, list, p, method, getMethod(method), setAttrNode, setClassAttrNode, getDimNode);
     }
 
     private static boolean bothNonNAN(double a, double b) {
@@ -118,7 +124,11 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         return Method.values()[method - 1];
     }
 
-    private void rdistance(VectorAccess xAccess, RandomIterator xIter, int nr, int nc, double[] d, boolean diag, Method method, double p) {
+    /**
+     * Computes the distances of all pairs of rows of {@code x} into {@code d} and returns whether
+     * none of them is NA.
+     */
+    private boolean rdistance(double[] x, int nr, int nc, double[] d, boolean diag, Method method, double p) {
         int ij; /* can exceed 2^31 - 1, but Java can't handle that */
         //
         if (method == Method.MINKOWSKI) {
@@ -126,22 +136,127 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                 throw error(RError.Message.GENERIC, "distance(): invalid p");
             }
         }
+        if (parallelProfile.profile(!diag && isParallel(x, nr, nc, method))) {
+            return parallelDistance(x, nr, nc, d, method, p);
+        }
         int dc = diag ? 0 : 1; /* diag=1: we do the diagonal */
         ij = 0;
-        naCheck.enable(true);
+        boolean complete = true;
         for (int j = 0; j <= nr; j++) {
             for (int i = j + dc; i < nr; i++) {
-                double r = method.dist(xAccess, xIter, nr, nc, i, j, p);
-                naCheck.check(r);
+                double r = method.dist(x, i, j, nr, nc, p);
+                if (RRuntime.isNA(r)) {
+                    complete = false;
+                }
                 d[ij++] = r;
             }
         }
+        return complete;
+    }
+
+    /**
+     * The pairs are distributed among threads if there are at least
+     * {@link FastROptions#ParallelThreshold} element comparisons. The {@code binary} method warns
+     * about infinite values, so it only runs in parallel if there are none.
+     */
+    @TruffleBoundary
+    private static boolean isParallel(double[] x, int nr, int nc, Method method) {
+        int threshold = RContext.getInstance().getNonNegativeIntOption(FastROptions.ParallelThreshold);
+        if (threshold <= 0 || (long) nr * (nr - 1) / 2 * nc < threshold || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            return false;
+        }
+        if (method == Method.BINARY) {
+            for (int i = 0; i < nr * nc; i++) {
+                if (Double.isInfinite(x[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the rows of {@code x} into a row-major array, so that the elements of each row are
+     * adjacent, and computes the distances of blocks of {@link #ROW_BLOCK} rows against all blocks
+     * of the following rows in the common fork/join pool. The results are the same as from the
+     * sequential loop.
+     */
+    @TruffleBoundary
+    private static boolean parallelDistance(double[] x, int nr, int nc, double[] d, Method method, double p) {
+        double[] rows = new double[nr * nc];
+        for (int j = 0; j < nc; j++) {
+            for (int i = 0; i < nr; i++) {
+                rows[i * nc + j] = x[j * nr + i];
+            }
+        }
+        int blocks = (nr + ROW_BLOCK - 1) / ROW_BLOCK;
+        ForkJoinPool.commonPool().invoke(new DistanceTask(rows, nr, nc, d, method, p, 0, blocks));
+        for (double r : d) {
+            if (RRuntime.isNA(r)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the distances between the rows {@code j} of the blocks {@code [from, to)} and all
+     * rows {@code i > j}.
+     */
+    @SuppressWarnings("serial")
+    private static final class DistanceTask extends RecursiveAction {
+        private final double[] rows;
+        private final int nr;
+        private final int nc;
+        private final double[] d;
+        private final Method method;
+        private final double p;
+        private final int from;
+        private final int to;
+
+        DistanceTask(double[] rows, int nr, int nc, double[] d, Method method, double p, int from, int to) {
+            this.rows = rows;
+            this.nr = nr;
+            this.nc = nc;
+            this.d = d;
+            this.method = method;
+            this.p = p;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new DistanceTask(rows, nr, nc, d, method, p, from, mid), new DistanceTask(rows, nr, nc, d, method, p, mid, to));
+                return;
+            }
+            int firstJ = from * ROW_BLOCK;
+            int lastJ = Math.min(nr, firstJ + ROW_BLOCK);
+            // the rows of the current block stay in the cache while the following rows are
+            // compared against them block by block
+            for (int firstI = firstJ; firstI < nr; firstI += ROW_BLOCK) {
+                int lastI = Math.min(nr, firstI + ROW_BLOCK);
+                for (int j = firstJ; j < lastJ; j++) {
+                    // the index of the pair (j + 1, j)
+                    int offset = (int) ((long) j * (nr - 1) - (long) j * (j - 1) / 2);
+                    for (int i = Math.max(firstI, j + 1); i < lastI; i++) {
+                        d[offset + i - j - 1] = method.dist(rows, i * nc, j * nc, 1, nc, p);
+                    }
+                }
+            }
+        }
     }
 
+    /**
+     * The distance methods compare the rows starting at the indices {@code i1} and {@code i2}, the
+     * subsequent elements of a row are {@code stride} apart.
+     */
     public enum Method {
         EUCLIDEAN {
             @Override
-            public double dist(VectorAccess xAccess, RandomIterator xIter, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, final int i1in, final int i2in, int stride, int nc, double p) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -152,15 +267,15 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                 count = 0;
                 dist = 0;
                 for (j = 0; j < nc; j++) {
-                    if (bothNonNAN(xAccess.getDouble(xIter, i1), xAccess.getDouble(xIter, i2))) {
-                        dev = (xAccess.getDouble(xIter, i1) - xAccess.getDouble(xIter, i2));
+                    if (bothNonNAN(x[i1], x[i2])) {
+                        dev = (x[i1] - x[i2]);
                         if (!RRuntime.isNAorNaN(dev)) {
                             dist += dev * dev;
                             count++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1 += stride;
+                    i2 += stride;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -174,7 +289,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         MAXIMUM {
             @Override
-            public double dist(VectorAccess xAccess, RandomIterator xIter, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, final int i1in, final int i2in, int stride, int nc, double p) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -185,8 +300,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                 count = 0;
                 dist = -Double.MAX_VALUE;
                 for (j = 0; j < nc; j++) {
-                    if (bothNonNAN(xAccess.getDouble(xIter, i1), xAccess.getDouble(xIter, i2))) {
-                        dev = Math.abs(xAccess.getDouble(xIter, i1) - xAccess.getDouble(xIter, i2));
+                    if (bothNonNAN(x[i1], x[i2])) {
+                        dev = Math.abs(x[i1] - x[i2]);
                         if (!RRuntime.isNAorNaN(dev)) {
                             if (dev > dist) {
                                 dist = dev;
@@ -194,8 +309,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                             count++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1 += stride;
+                    i2 += stride;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -206,7 +321,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         MANHATTAN {
             @Override
-            public double dist(VectorAccess xAccess, RandomIterator xIter, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, final int i1in, final int i2in, int stride, int nc, double p) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -217,15 +332,15 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                 count = 0;
                 dist = 0;
                 for (j = 0; j < nc; j++) {
-                    if (bothNonNAN(xAccess.getDouble(xIter, i1), xAccess.getDouble(xIter, i2))) {
-                        dev = Math.abs(xAccess.getDouble(xIter, i1) - xAccess.getDouble(xIter, i2));
+                    if (bothNonNAN(x[i1], x[i2])) {
+                        dev = Math.abs(x[i1] - x[i2]);
                         if (!RRuntime.isNAorNaN(dev)) {
                             dist += dev;
                             count++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1 += stride;
+                    i2 += stride;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -239,7 +354,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         CANBERRA {
             @Override
-            public double dist(VectorAccess xAccess, RandomIterator xIter, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, final int i1in, final int i2in, int stride, int nc, double p) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -252,9 +367,9 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                 count = 0;
                 dist = 0;
                 for (j = 0; j < nc; j++) {
-                    if (bothNonNAN(xAccess.getDouble(xIter, i1), xAccess.getDouble(xIter, i2))) {
-                        sum = Math.abs(xAccess.getDouble(xIter, i1) + xAccess.getDouble(xIter, i2));
-                        diff = Math.abs(xAccess.getDouble(xIter, i1) - xAccess.getDouble(xIter, i2));
+                    if (bothNonNAN(x[i1], x[i2])) {
+                        sum = Math.abs(x[i1] + x[i2]);
+                        diff = Math.abs(x[i1] - x[i2]);
                         if (sum > DBL_MIN || diff > DBL_MIN) {
                             dev = diff / sum;
                             if (!RRuntime.isNAorNaN(dev) ||
@@ -265,8 +380,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                             }
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1 += stride;
+                    i2 += stride;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -280,7 +395,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         BINARY {
             @Override
-            public double dist(VectorAccess xAccess, RandomIterator xIter, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, final int i1in, final int i2in, int stride, int nc, double p) {
                 int i1 = i1in;
                 int i2 = i2in;
                 int total;
@@ -293,21 +408,21 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                 dist = 0;
 
                 for (j = 0; j < nc; j++) {
-                    if (bothNonNAN(xAccess.getDouble(xIter, i1), xAccess.getDouble(xIter, i2))) {
-                        if (!bothFinite(xAccess.getDouble(xIter, i1), xAccess.getDouble(xIter, i2))) {
+                    if (bothNonNAN(x[i1], x[i2])) {
+                        if (!bothFinite(x[i1], x[i2])) {
                             RError.warning(RError.SHOW_CALLER2, RError.Message.GENERIC, "treating non-finite values as NA");
                         } else {
-                            if (xAccess.getDouble(xIter, i1) != 0. || xAccess.getDouble(xIter, i2) != 0.) {
+                            if (x[i1] != 0. || x[i2] != 0.) {
                                 count++;
-                                if (!(xAccess.getDouble(xIter, i1) != 0. && xAccess.getDouble(xIter, i2) != 0.)) {
+                                if (!(x[i1] != 0. && x[i2] != 0.)) {
                                     dist++;
                                 }
                             }
                             total++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1 += stride;
+                    i2 += stride;
                 }
 
                 if (total == 0) {
@@ -322,7 +437,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         MINKOWSKI {
             @Override
-            public double dist(VectorAccess xAccess, RandomIterator xIter, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, final int i1in, final int i2in, int stride, int nc, double p) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -333,15 +448,15 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                 count = 0;
                 dist = 0;
                 for (j = 0; j < nc; j++) {
-                    if (bothNonNAN(xAccess.getDouble(xIter, i1), xAccess.getDouble(xIter, i2))) {
-                        dev = (xAccess.getDouble(xIter, i1) - xAccess.getDouble(xIter, i2));
+                    if (bothNonNAN(x[i1], x[i2])) {
+                        dev = (x[i1] - x[i2]);
                         if (!RRuntime.isNAorNaN(dev)) {
                             dist += Math.pow(Math.abs(dev), p);
                             count++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1 += stride;
+                    i2 += stride;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -353,6 +468,6 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
             }
         };
 
-        public abstract double dist(VectorAccess xAccess, RandomIterator xIter, int nr, int nc, int i1, int i2, double p);
+        public abstract double dist(double[] x, int i1, int i2, int stride, int nc, double p);
     }
 }
@@ -80,7 +80,7 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
     /**
      * Compute Cov(xx[], yy[]) or Cor(.,.) with n = length(xx)
      */
-    private static void COV_PAIRWISE_BODY(double[] ans, int n, int ncx, int i, int j, double[] x, double[] y, int xx, int yy, boolean[] sd_0, boolean cor, boolean kendall) {
+    static void COV_PAIRWISE_BODY(double[] ans, int n, int ncx, int i, int j, double[] x, double[] y, int xx, int yy, boolean[] sd_0, boolean cor, boolean kendall) {
         double xmean = 0, ymean = 0;
         int nobs = 0;
         if (!kendall) {
@@ -160,6 +160,10 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
 
     @TruffleBoundary
     private static void cov_pairwise1(int n, int ncx, double[] x, double[] ans, boolean[] sd_0, boolean cor, boolean kendall) {
+        if (ParallelCovcor.isApplicable(n, ncx, ncx)) {
+            ParallelCovcor.pairwise(n, ncx, ncx, x, x, ans, sd_0, cor, kendall);
+            return;
+        }
         for (int i = 0; i < ncx; i++) {
             int xx = i * n;
             for (int j = 0; j <= i; j++) {
@@ -174,6 +178,10 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
 
     @TruffleBoundary
     private static void cov_pairwise2(int n, int ncx, int ncy, double[] x, double[] y, double[] ans, boolean[] sd_0, boolean cor, boolean kendall) {
+        if (ParallelCovcor.isApplicable(n, ncx, ncy)) {
+            ParallelCovcor.pairwise(n, ncx, ncy, x, y, ans, sd_0, cor, kendall);
+            return;
+        }
         for (int i = 0; i < ncx; i++) {
             int xx = i * n;
             for (int j = 0; j < ncy; j++) {
@@ -262,39 +270,43 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
             MEAN(n, ncx, x, xm, ind, nobs); /* -> xm[] */
             n1 = nobs - 1;
         }
-        for (int i = 0; i < ncx; i++) {
-            int xx = i * n;
+        if (!kendall && ParallelCovcor.isApplicable(nobs, ncx, ncx)) {
+            ParallelCovcor.cov(n, nobs, x, xm, null, ncx, x, xm, null, ncx, ind, n1, ans);
+        } else {
+            for (int i = 0; i < ncx; i++) {
+                int xx = i * n;
 
-            if (!kendall) {
-                double xxm = xm[i];
-                for (int j = 0; j <= i; j++) {
-                    int yy = j * n;
-                    double yym = xm[j];
-                    double sum = 0;
-                    for (int k = 0; k < n; k++) {
-                        if (ind[k]) {
-                            sum += (x[xx + k] - xxm) * (x[yy + k] - yym);
+                if (!kendall) {
+                    double xxm = xm[i];
+                    for (int j = 0; j <= i; j++) {
+                        int yy = j * n;
+                        double yym = xm[j];
+                        double sum = 0;
+                        for (int k = 0; k < n; k++) {
+                            if (ind[k]) {
+                                sum += (x[xx + k] - xxm) * (x[yy + k] - yym);
+                            }
                         }
+                        double result = sum / n1;
+                        ANS(ans, ncx, j, i, result);
+                        ANS(ans, ncx, i, j, result);
                     }
-                    double result = sum / n1;
-                    ANS(ans, ncx, j, i, result);
-                    ANS(ans, ncx, i, j, result);
-                }
-            } else { /* Kendall's tau */
-                for (int j = 0; j <= i; j++) {
-                    int yy = j * n;
-                    double sum = 0;
-                    for (int k = 0; k < n; k++) {
-                        if (ind[k]) {
-                            for (n1 = 0; n1 < n; n1++) {
-                                if (ind[n1]) {
-                                    sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(x[yy + k] - x[yy + n1]);
+                } else { /* Kendall's tau */
+                    for (int j = 0; j <= i; j++) {
+                        int yy = j * n;
+                        double sum = 0;
+                        for (int k = 0; k < n; k++) {
+                            if (ind[k]) {
+                                for (n1 = 0; n1 < n; n1++) {
+                                    if (ind[n1]) {
+                                        sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(x[yy + k] - x[yy + n1]);
+                                    }
                                 }
                             }
                         }
+                        ANS(ans, ncx, j, i, sum);
+                        ANS(ans, ncx, i, j, sum);
                     }
-                    ANS(ans, ncx, j, i, sum);
-                    ANS(ans, ncx, i, j, sum);
                 }
             }
         }
@@ -340,48 +352,52 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
             MEAN_(n, ncx, x, xm, has_na);/* -> xm[] */
             n1 = n - 1;
         }
-        for (int i = 0; i < ncx; i++) {
-            if (has_na[i]) {
-                for (int j = 0; j <= i; j++) {
-                    ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
-                    ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                }
-            } else {
-                int xx = i * n;
-
-                if (!kendall) {
-                    double xxm = xm[i];
+        if (!kendall && ParallelCovcor.isApplicable(n, ncx, ncx)) {
+            ParallelCovcor.cov(n, n, x, xm, has_na, ncx, x, xm, has_na, ncx, null, n1, ans);
+        } else {
+            for (int i = 0; i < ncx; i++) {
+                if (has_na[i]) {
                     for (int j = 0; j <= i; j++) {
-                        if (has_na[j]) {
-                            ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
-                            ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                        } else {
-                            int yy = j * n;
-                            double yym = xm[j];
-                            double sum = 0;
-                            for (int k = 0; k < n; k++) {
-                                sum += (x[xx + k] - xxm) * (x[yy + k] - yym);
+                        ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
+                        ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
+                    }
+                } else {
+                    int xx = i * n;
+
+                    if (!kendall) {
+                        double xxm = xm[i];
+                        for (int j = 0; j <= i; j++) {
+                            if (has_na[j]) {
+                                ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
+                                ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
+                            } else {
+                                int yy = j * n;
+                                double yym = xm[j];
+                                double sum = 0;
+                                for (int k = 0; k < n; k++) {
+                                    sum += (x[xx + k] - xxm) * (x[yy + k] - yym);
+                                }
+                                double result = sum / n1;
+                                ANS(ans, ncx, j, i, result);
+                                ANS(ans, ncx, i, j, result);
                             }
-                            double result = sum / n1;
-                            ANS(ans, ncx, j, i, result);
-                            ANS(ans, ncx, i, j, result);
                         }
-                    }
-                } else { /* Kendall's tau */
-                    for (int j = 0; j <= i; j++) {
-                        if (has_na[j]) {
-                            ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
-                            ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                        } else {
-                            int yy = j * n;
-                            double sum = 0;
-                            for (int k = 0; k < n; k++) {
-                                for (n1 = 0; n1 < n; n1++) {
-                                    sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(x[yy + k] - x[yy + n1]);
+                    } else { /* Kendall's tau */
+                        for (int j = 0; j <= i; j++) {
+                            if (has_na[j]) {
+                                ANS(ans, ncx, j, i, RRuntime.DOUBLE_NA);
+                                ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
+                            } else {
+                                int yy = j * n;
+                                double sum = 0;
+                                for (int k = 0; k < n; k++) {
+                                    for (n1 = 0; n1 < n; n1++) {
+                                        sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(x[yy + k] - x[yy + n1]);
+                                    }
                                 }
+                                ANS(ans, ncx, j, i, sum);
+                                ANS(ans, ncx, i, j, sum);
                             }
-                            ANS(ans, ncx, j, i, sum);
-                            ANS(ans, ncx, i, j, sum);
                         }
                     }
                 }
@@ -469,35 +485,39 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
             MEAN(n, ncy, y, ym, ind, nobs);/* -> ym[] */
             n1 = nobs - 1;
         }
-        for (int i = 0; i < ncx; i++) {
-            int xx = i * n;
-            if (!kendall) {
-                double xxm = xm[i];
-                for (int j = 0; j < ncy; j++) {
-                    int yy = j * n;
-                    double yym = ym[j];
-                    double sum = 0;
-                    for (int k = 0; k < n; k++) {
-                        if (ind[k]) {
-                            sum += (x[xx + k] - xxm) * (y[yy + k] - yym);
+        if (!kendall && ParallelCovcor.isApplicable(nobs, ncx, ncy)) {
+            ParallelCovcor.cov(n, nobs, x, xm, null, ncx, y, ym, null, ncy, ind, n1, ans);
+        } else {
+            for (int i = 0; i < ncx; i++) {
+                int xx = i * n;
+                if (!kendall) {
+                    double xxm = xm[i];
+                    for (int j = 0; j < ncy; j++) {
+                        int yy = j * n;
+                        double yym = ym[j];
+                        double sum = 0;
+                        for (int k = 0; k < n; k++) {
+                            if (ind[k]) {
+                                sum += (x[xx + k] - xxm) * (y[yy + k] - yym);
+                            }
                         }
+                        ANS(ans, ncx, i, j, sum / n1);
                     }
-                    ANS(ans, ncx, i, j, sum / n1);
-                }
-            } else { /* Kendall's tau */
-                for (int j = 0; j < ncy; j++) {
-                    int yy = j * n;
-                    double sum = 0;
-                    for (int k = 0; k < n; k++) {
-                        if (ind[k]) {
-                            for (n1 = 0; n1 < n; n1++) {
-                                if (ind[n1]) {
-                                    sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(y[yy + k] - y[yy + n1]);
+                } else { /* Kendall's tau */
+                    for (int j = 0; j < ncy; j++) {
+                        int yy = j * n;
+                        double sum = 0;
+                        for (int k = 0; k < n; k++) {
+                            if (ind[k]) {
+                                for (n1 = 0; n1 < n; n1++) {
+                                    if (ind[n1]) {
+                                        sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(y[yy + k] - y[yy + n1]);
+                                    }
                                 }
                             }
                         }
+                        ANS(ans, ncx, i, j, sum);
                     }
-                    ANS(ans, ncx, i, j, sum);
                 }
             }
         }
@@ -569,41 +589,45 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
             MEAN_(n, ncy, y, ym, has_na_y);/* -> ym[] */
             n1 = n - 1;
         }
-        for (int i = 0; i < ncx; i++) {
-            if (has_na_x[i]) {
-                for (int j = 0; j < ncy; j++) {
-                    ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                }
-            } else {
-                int xx = i * n;
-                if (!kendall) {
-                    double xxm = xm[i];
+        if (!kendall && ParallelCovcor.isApplicable(n, ncx, ncy)) {
+            ParallelCovcor.cov(n, n, x, xm, has_na_x, ncx, y, ym, has_na_y, ncy, null, n1, ans);
+        } else {
+            for (int i = 0; i < ncx; i++) {
+                if (has_na_x[i]) {
                     for (int j = 0; j < ncy; j++) {
-                        if (has_na_y[j]) {
-                            ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                        } else {
-                            int yy = j * n;
-                            double yym = ym[j];
-                            double sum = 0;
-                            for (int k = 0; k < n; k++) {
-                                sum += (x[xx + k] - xxm) * (y[yy + k] - yym);
+                        ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
+                    }
+                } else {
+                    int xx = i * n;
+                    if (!kendall) {
+                        double xxm = xm[i];
+                        for (int j = 0; j < ncy; j++) {
+                            if (has_na_y[j]) {
+                                ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
+                            } else {
+                                int yy = j * n;
+                                double yym = ym[j];
+                                double sum = 0;
+                                for (int k = 0; k < n; k++) {
+                                    sum += (x[xx + k] - xxm) * (y[yy + k] - yym);
+                                }
+                                ANS(ans, ncx, i, j, sum / n1);
                             }
-                            ANS(ans, ncx, i, j, sum / n1);
                         }
-                    }
-                } else { /* Kendall's tau */
-                    for (int j = 0; j < ncy; j++) {
-                        if (has_na_y[j]) {
-                            ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
-                        } else {
-                            int yy = j * n;
-                            double sum = 0;
-                            for (int k = 0; k < n; k++) {
-                                for (n1 = 0; n1 < n; n1++) {
-                                    sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(y[yy + k] - y[yy + n1]);
+                    } else { /* Kendall's tau */
+                        for (int j = 0; j < ncy; j++) {
+                            if (has_na_y[j]) {
+                                ANS(ans, ncx, i, j, RRuntime.DOUBLE_NA);
+                            } else {
+                                int yy = j * n;
+                                double sum = 0;
+                                for (int k = 0; k < n; k++) {
+                                    for (n1 = 0; n1 < n; n1++) {
+                                        sum += RMath.sign(x[xx + k] - x[xx + n1]) * RMath.sign(y[yy + k] - y[yy + n1]);
+                                    }
                                 }
+                                ANS(ans, ncx, i, j, sum);
                             }
-                            ANS(ans, ncx, i, j, sum);
                         }
                     }
                 }
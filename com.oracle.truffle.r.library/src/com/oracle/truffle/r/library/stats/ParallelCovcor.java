@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.library.stats;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.oracle.truffle.r.nodes.builtin.base.ParallelMatMult;
+import com.oracle.truffle.r.runtime.RRuntime;
+
+/**
+ * Multi-threaded variants of the loops of {@link Covcor} for large inputs.
+ *
+ * If the observations used for all pairs of columns are the same, i.e., for the "all.obs",
+ * "complete.obs", "na.or.complete" and "everything" methods, the columns are centered by the means
+ * computed by {@link Covcor} and the sums of the products of all pairs of columns are computed as
+ * one matrix product by {@link ParallelMatMult}.
+ *
+ * For the "pairwise.complete.obs" method, the pairs are distributed among the threads in blocks of
+ * {@link #COLUMN_BLOCK} x {@link #COLUMN_BLOCK} columns, so that the columns of a block are read
+ * from the cache.
+ */
+final class ParallelCovcor {
+
+    private static final int COLUMN_BLOCK = 16;
+
+    private ParallelCovcor() {
+        // no instances
+    }
+
+    static boolean isApplicable(int n, int ncx, int ncy) {
+        return ParallelMatMult.isApplicable(ncx, n, ncy);
+    }
+
+    /**
+     * Computes the covariances of the columns of {@code x} and {@code y} (which may be the same
+     * array), using only the observations {@code k} with {@code ind[k]} (all if {@code ind} is
+     * {@code null}). The means of the columns are given in {@code xm} and {@code ym}. The result of
+     * the columns marked in {@code xSkip} or {@code ySkip} (if not {@code null}) is NA.
+     */
+    static void cov(int n, int nobs, double[] x, double[] xm, boolean[] xSkip, int ncx, double[] y, double[] ym, boolean[] ySkip, int ncy, boolean[] ind, int n1, double[] ans) {
+        int[] rows = new int[nobs];
+        int pos = 0;
+        for (int k = 0; k < n; k++) {
+            if (ind == null || ind[k]) {
+                rows[pos++] = k;
+            }
+        }
+        assert pos == nobs;
+        boolean symmetric = x == y;
+        double[] xc = center(n, nobs, rows, x, xm, xSkip, ncx);
+        double[] yc = symmetric ? xc : center(n, nobs, rows, y, ym, ySkip, ncy);
+        double[] products = new double[ncx * ncy];
+        ParallelMatMult.multiply(xc, yc, products, ncx, nobs, ncy, nobs, 1, 1, nobs, symmetric);
+        for (int j = 0; j < ncy; j++) {
+            for (int i = symmetric ? j : 0; i < ncx; i++) {
+                double result;
+                if ((xSkip != null && xSkip[i]) || (ySkip != null && ySkip[j])) {
+                    result = RRuntime.DOUBLE_NA;
+                } else {
+                    // the upper triangle is computed in the symmetric case
+                    result = products[symmetric ? j + i * ncx : i + j * ncx] / n1;
+                }
+                ans[i + j * ncx] = result;
+                if (symmetric) {
+                    ans[j + i * ncx] = result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the observations {@code rows} of each column of {@code x} minus the mean of the column
+     * into a new matrix with {@code nobs} rows. Skipped columns are left zero.
+     */
+    private static double[] center(int n, int nobs, int[] rows, double[] x, double[] xm, boolean[] skip, int nc) {
+        double[] result = new double[nobs * nc];
+        for (int i = 0; i < nc; i++) {
+            if (skip == null || !skip[i]) {
+                int xx = i * n;
+                int rr = i * nobs;
+                double mean = xm[i];
+                for (int k = 0; k < nobs; k++) {
+                    result[rr + k] = x[xx + rows[k]] - mean;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the pairwise complete covariances or correlations of the columns of {@code x} and
+     * {@code y}. If {@code x} and {@code y} are the same array, only the pairs {@code j <= i} are
+     * computed and mirrored.
+     */
+    static void pairwise(int n, int ncx, int ncy, double[] x, double[] y, double[] ans, boolean[] sd_0, boolean cor, boolean kendall) {
+        int blocks = (ncx + COLUMN_BLOCK - 1) / COLUMN_BLOCK;
+        ForkJoinPool.commonPool().invoke(new PairwiseTask(n, ncx, ncy, x, y, ans, sd_0, cor, kendall, 0, blocks));
+    }
+
+    /**
+     * Computes the results of the columns {@code i} of {@code x} in the blocks {@code [from, to)}.
+     */
+    @SuppressWarnings("serial")
+    private static final class PairwiseTask extends RecursiveAction {
+        private final int n;
+        private final int ncx;
+        private final int ncy;
+        private final double[] x;
+        private final double[] y;
+        private final double[] ans;
+        private final boolean[] sd_0;
+        private final boolean cor;
+        private final boolean kendall;
+        private final int from;
+        private final int to;
+
+        PairwiseTask(int n, int ncx, int ncy, double[] x, double[] y, double[] ans, boolean[] sd_0, boolean cor, boolean kendall, int from, int to) {
+            this.n = n;
+            this.ncx = ncx;
+            this.ncy = ncy;
+            this.x = x;
+            this.y = y;
+            this.ans = ans;
+            this.sd_0 = sd_0;
+            this.cor = cor;
+            this.kendall = kendall;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PairwiseTask(n, ncx, ncy, x, y, ans, sd_0, cor, kendall, from, mid), new PairwiseTask(n, ncx, ncy, x, y, ans, sd_0, cor, kendall, mid, to));
+                return;
+            }
+            boolean symmetric = x == y;
+            // sd_0 is shared by all tasks, it is only ever set to true
+            boolean[] localSd0 = new boolean[1];
+            int firstI = from * COLUMN_BLOCK;
+            int lastI = Math.min(ncx, firstI + COLUMN_BLOCK);
+            int lastJ = symmetric ? lastI : ncy;
+            for (int firstJ = 0; firstJ < lastJ; firstJ += COLUMN_BLOCK) {
+                for (int i = firstI; i < lastI; i++) {
+                    int xx = i * n;
+                    int endJ = Math.min(symmetric ? i + 1 : ncy, firstJ + COLUMN_BLOCK);
+                    for (int j = firstJ; j < endJ; j++) {
+                        Covcor.COV_PAIRWISE_BODY(ans, n, ncx, i, j, x, y, xx, j * n, localSd0, cor, kendall);
+                        if (symmetric) {
+                            ans[j + i * ncx] = ans[i + j * ncx];
+                        }
+                    }
+                }
+            }
+            if (localSd0[0]) {
+                sd_0[0] = true;
+            }
+        }
+    }
+}
@@ -27,35 +27,32 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElemen
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.stringValue;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.ArrayList;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.function.Function;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.frame.Frame;
-import com.oracle.truffle.api.frame.FrameInstance.FrameAccess;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
 import com.oracle.truffle.api.instrumentation.EventContext;
-import com.oracle.truffle.api.instrumentation.ExecutionEventListener;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNode;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNodeFactory;
 import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
 import com.oracle.truffle.api.instrumentation.StandardTags;
-import com.oracle.truffle.api.nodes.RootNode;
-import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
 import com.oracle.truffle.r.nodes.function.FunctionDefinitionNode;
 import com.oracle.truffle.r.nodes.instrumentation.RInstrumentation;
-import com.oracle.truffle.r.runtime.RArguments;
-import com.oracle.truffle.r.runtime.RCaller;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RSource;
 import com.oracle.truffle.r.runtime.SuppressFBWarnings;
-import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
 import com.oracle.truffle.r.runtime.data.MemoryCopyTracer;
@@ -65,9 +62,11 @@ import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RObjectSize;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
+import com.oracle.truffle.r.runtime.instrument.ProfileStacks;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxCall;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxLookup;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
-import java.nio.file.StandardOpenOption;
 
 /**
  * Implements the {@code Rprof} external.
@@ -84,6 +83,9 @@ import java.nio.file.StandardOpenOption;
  * and then the {@code N} is used in line number references of the form {@code N#L},which precede
  * the function name.
  *
+ * The stacks consist of the calls, including calls of builtins and native code, that are being
+ * executed by the profiled thread. They are recorded in a {@link ShadowStack} and sampled by a
+ * separate thread that writes each sample to the output immediately.
  */
 public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryCopyTracer.Listener {
 
@@ -117,22 +119,33 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                 endProfiling();
             }
             try {
-                PrintStream out = new PrintStream(
-                                ctxRef.get().getSafeTruffleFile(filename).newOutputStream(append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING));
+                PrintStream out = new PrintStream(new BufferedOutputStream(
+                                ctxRef.get().getSafeTruffleFile(filename).newOutputStream(append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)));
                 if (gcProfiling) {
                     warning(RError.Message.GENERIC, "Rprof: gc profiling not supported");
                 }
+                MemoryQuad memoryQuad = null;
                 if (memProfiling) {
+                    memoryQuad = new MemoryQuad();
                     RDataFactory.addListener(LISTENER);
                     MemoryCopyTracer.addListener(this);
                     MemoryCopyTracer.setTracingState(true);
                 }
                 // interval is in seconds, we convert to millis
-                long intervalInMillis = (long) (1E3 * intervalD);
-                StatementListener statementListener = new StatementListener();
-                ProfileThread profileThread = new ProfileThread(intervalInMillis, statementListener);
+                long intervalInMillis = Math.max(1L, (long) (1E3 * intervalD));
+                if (memProfiling) {
+                    out.print("memory profiling: ");
+                }
+                if (lineProfiling) {
+                    out.print("line profiling: ");
+                }
+                out.printf("sample.interval=%d\n", intervalInMillis * 1000);
+                ShadowStack stack = new ShadowStack(Thread.currentThread());
+                SourceSectionFilter filter = SourceSectionFilter.newBuilder().tagIs(StandardTags.CallTag.class).build();
+                EventBinding<ShadowStack> binding = RInstrumentation.getInstrumenter().attachExecutionEventFactory(filter, stack);
+                ProfileThread profileThread = new ProfileThread(intervalInMillis, stack, out, lineProfiling, memoryQuad);
                 profileThread.setDaemon(true);
-                profState.initialize(out, profileThread, statementListener, intervalInMillis, lineProfiling, memProfiling);
+                profState.initialize(out, profileThread, binding, memoryQuad);
                 profileThread.start();
             } catch (IOException ex) {
                 throw error(RError.Message.GENERIC, String.format("Rprof: cannot open profile file '%s'", filename));
@@ -166,7 +179,17 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
     @TruffleBoundary
     public void reportCopying(RAbstractVector source, RAbstractVector dest) {
         RprofState profState = RprofState.get();
-        profState.memoryQuad.copied += RObjectSize.getObjectSize(source);
+        if (profState.memoryQuad != null) {
+            profState.memoryQuad.copied += RObjectSize.getObjectSize(source);
+        }
+    }
+
+    /**
+     * Returns the samples of the current or the last profiling session in this context or
+     * {@code null} if {@code Rprof} was not used.
+     */
+    public static ProfileStacks getProfile() {
+        return RprofState.get().profile;
     }
 
     private static void endProfiling() {
@@ -177,96 +200,241 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
     }
 
     private static String getPath(RSyntaxElement node) {
-        Source source = node.getSourceSection().getSource();
-        return RSource.getPath(source);
+        SourceSection section = node.getSourceSection();
+        return section == null ? null : RSource.getPath(section.getSource());
     }
 
-    private static final class ProfileThread extends Thread {
-        private final long interval;
-        private final StatementListener statementListener;
-        private volatile boolean running = true;
+    /**
+     * The name under which a call shows up in the profile, i.e., the name of the called function as
+     * written at the call site.
+     */
+    private static String getCalleeName(RSyntaxElement node) {
+        if (node instanceof RSyntaxCall) {
+            RSyntaxElement lhs = ((RSyntaxCall) node).getSyntaxLHS();
+            if (lhs instanceof RSyntaxLookup) {
+                return ((RSyntaxLookup) lhs).getIdentifier();
+            }
+        }
+        return "<Anonymous>";
+    }
 
-        private ProfileThread(long interval, StatementListener statementListener) {
-            this.interval = interval;
-            this.statementListener = statementListener;
+    private static boolean isInFunction(RSyntaxElement node) {
+        return ((RSyntaxNode) node).asRNode().getRootNode() instanceof FunctionDefinitionNode;
+    }
+
+    /**
+     * The stack of calls currently executed by the profiled thread. The calls are pushed and popped
+     * by the {@link CallNode}s attached to all {@link StandardTags.CallTag calls}, which includes
+     * calls of builtins and of {@code .Call} and friends, and read asynchronously by the
+     * {@link ProfileThread}.
+     *
+     * Only the profiled thread writes into the stack, the reads from the profile thread are not
+     * synchronized with the writes, so that the compiled code of the calls only pays for a couple of
+     * plain stores. A sample may therefore occasionally contain an entry that was just popped, which
+     * is acceptable for a statistical profile.
+     */
+    private static final class ShadowStack implements ExecutionEventNodeFactory {
+        private static final int INITIAL_DEPTH = 64;
+
+        private final Thread thread;
+        private RSyntaxElement[] entries = new RSyntaxElement[INITIAL_DEPTH];
+        private int depth;
+
+        private ShadowStack(Thread thread) {
+            this.thread = thread;
         }
 
         @Override
-        public void run() {
-            while (running) {
-                try {
-                    Thread.sleep(interval);
-                    statementListener.intervalElapsed();
-                } catch (InterruptedException ex) {
+        public ExecutionEventNode create(EventContext context) {
+            return new CallNode(this, (RSyntaxElement) context.getInstrumentedNode());
+        }
+
+        private void push(RSyntaxElement call) {
+            int d = depth;
+            RSyntaxElement[] e = entries;
+            if (d == e.length) {
+                e = grow();
+            }
+            e[d] = call;
+            depth = d + 1;
+        }
+
+        private void pop() {
+            int d = depth;
+            // calls entered before the profiling was started are not on the stack
+            if (d > 0) {
+                depth = d - 1;
+            }
+        }
+
+        @TruffleBoundary
+        private RSyntaxElement[] grow() {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            return entries;
+        }
 
+        /**
+         * Returns a copy of the current stack, outermost call first.
+         */
+        private RSyntaxElement[] snapshot() {
+            RSyntaxElement[] e = entries;
+            int d = Math.min(depth, e.length);
+            RSyntaxElement[] result = new RSyntaxElement[d];
+            int count = 0;
+            for (int i = 0; i < d; i++) {
+                if (e[i] != null) {
+                    result[count++] = e[i];
                 }
             }
+            return count == d ? result : Arrays.copyOf(result, count);
         }
     }
 
-    /**
-     * Emulates a sampling timer by checking when the sample interval rolls over and at that point
-     * collects the stack of functions.
-     */
-    private final class StatementListener implements ExecutionEventListener {
-        private final ArrayList<ArrayList<RSyntaxElement>> intervalStacks = new ArrayList<>();
-        private final ArrayList<RprofState.MemoryQuad> intervalMemory = new ArrayList<>();
-        private volatile boolean newInterval;
-
-        private StatementListener() {
-            SourceSectionFilter.Builder builder = SourceSectionFilter.newBuilder();
-            builder.tagIs(StandardTags.StatementTag.class);
-            SourceSectionFilter filter = builder.build();
-            RInstrumentation.getInstrumenter().attachExecutionEventListener(filter, this);
+    private static final class CallNode extends ExecutionEventNode {
+        private final ShadowStack stack;
+        private final RSyntaxElement call;
+
+        private CallNode(ShadowStack stack, RSyntaxElement call) {
+            this.stack = stack;
+            this.call = call;
         }
 
-        private void intervalElapsed() {
-            newInterval = true;
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            if (Thread.currentThread() == stack.thread) {
+                stack.push(call);
+            }
         }
 
         @Override
-        public void onEnter(EventContext context, VirtualFrame frame) {
-            if (newInterval) {
-                onEnter(context);
-                newInterval = false;
+        protected void onReturnValue(VirtualFrame frame, Object result) {
+            if (Thread.currentThread() == stack.thread) {
+                stack.pop();
             }
         }
 
-        @TruffleBoundary
-        private void onEnter(EventContext context) {
-            /* context tells here we are now, frame provides callers. */
-            ArrayList<RSyntaxElement> stack = new ArrayList<>();
-            stack.add((RSyntaxElement) context.getInstrumentedNode());
-            collectStack(stack);
-            intervalStacks.add(stack);
-            RprofState profState = RprofState.get();
-            if (profState.memoryProfiling) {
-                intervalMemory.add(profState.memoryQuad.copyAndClear());
+        @Override
+        protected void onReturnExceptional(VirtualFrame frame, Throwable exception) {
+            if (Thread.currentThread() == stack.thread) {
+                stack.pop();
             }
         }
+    }
 
-        @TruffleBoundary
-        private void collectStack(final ArrayList<RSyntaxElement> stack) {
-            Utils.iterateRFrames(FrameAccess.READ_ONLY, new Function<Frame, Object>() {
-
-                @Override
-                public Object apply(Frame fIn) {
-                    Frame f = RArguments.unwrap(fIn);
-                    RCaller call = RCaller.unwrapPromiseCaller(RArguments.getCall(f));
-                    if (RCaller.isValidCaller(call)) {
-                        stack.add(call.getSyntaxNode());
+    /**
+     * Takes a sample of the {@link ShadowStack} at each interval and writes it to the output right
+     * away, so that the samples are not kept in memory and the profiled thread is never stopped.
+     */
+    private static final class ProfileThread extends Thread {
+        private final long interval;
+        private final ShadowStack stack;
+        private final PrintStream out;
+        private final boolean lineProfiling;
+        private final MemoryQuad memoryQuad;
+        private final ProfileStacks profile;
+        private final HashMap<String, Integer> fileMap = new HashMap<>();
+        private volatile boolean running = true;
+
+        private ProfileThread(long interval, ShadowStack stack, PrintStream out, boolean lineProfiling, MemoryQuad memoryQuad) {
+            super("Rprof sampler");
+            this.interval = interval;
+            this.stack = stack;
+            this.out = out;
+            this.lineProfiling = lineProfiling;
+            this.memoryQuad = memoryQuad;
+            this.profile = new ProfileStacks(new String[][]{{"samples", "count"}, {"cpu", "nanoseconds"}}, new String[]{"cpu", "nanoseconds"}, interval * 1000000);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException ex) {
+                    continue;
+                }
+                if (running) {
+                    RSyntaxElement[] calls = stack.snapshot();
+                    writeSample(calls);
+                    addSample(calls);
+                }
+            }
+            out.flush();
+        }
+
+        private void writeSample(RSyntaxElement[] calls) {
+            if (lineProfiling) {
+                // the files have to be listed before their first use
+                for (RSyntaxElement call : calls) {
+                    String path = getPath(call);
+                    if (path != null && !fileMap.containsKey(path)) {
+                        fileMap.put(path, fileMap.size() + 1);
+                        out.printf("#File %d: %s\n", fileMap.size(), path);
+                    }
+                }
+            }
+            if (memoryQuad != null) {
+                MemoryQuad mq = memoryQuad.copyAndClear();
+                out.printf(":%d:%d:%d:%d:", mq.largeV, mq.smallV, mq.nodes, mq.copied);
+            }
+            for (int i = calls.length - 1; i >= 0; i--) {
+                if (lineProfiling && i + 1 < calls.length && isInFunction(calls[i + 1])) {
+                    // the location of the next call lies within the function called here
+                    Integer fileIndex = fileMap.get(getPath(calls[i + 1]));
+                    if (fileIndex != null) {
+                        out.printf("%d#%d ", fileIndex, calls[i + 1].getSourceSection().getStartLine());
                     }
-                    return null;
                 }
-            });
+                out.printf("\"%s\" ", getCalleeName(calls[i]));
+            }
+            out.println();
         }
 
-        @Override
-        public void onReturnValue(EventContext context, VirtualFrame frame, Object result) {
+        /**
+         * Adds the sample to the profile available for export. Each frame is the called function
+         * with the location of the next call, which lies within that function.
+         */
+        private void addSample(RSyntaxElement[] calls) {
+            ProfileStacks.Frame[] frames = new ProfileStacks.Frame[calls.length];
+            for (int i = 0; i < calls.length; i++) {
+                SourceSection location = i + 1 < calls.length && isInFunction(calls[i + 1]) ? calls[i + 1].getSourceSection() : null;
+                frames[i] = new ProfileStacks.Frame(getCalleeName(calls[i]), location);
+            }
+            profile.add(frames, 1, interval * 1000000);
         }
 
-        @Override
-        public void onReturnExceptional(EventContext context, VirtualFrame frame, Throwable exception) {
+        private void finish() {
+            running = false;
+            interrupt();
+            try {
+                join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static final class MemoryQuad {
+        public long smallV;
+        public long largeV;
+        public long nodes;
+        public long copied;
+
+        /**
+         * Called from the profile thread while the counters are updated by the profiled thread, an
+         * allocation reported in between may be lost.
+         */
+        public MemoryQuad copyAndClear() {
+            MemoryQuad result = new MemoryQuad();
+            result.copied = copied;
+            result.largeV = largeV;
+            result.smallV = smallV;
+            result.nodes = nodes;
+            copied = 0;
+            largeV = 0;
+            smallV = 0;
+            nodes = 0;
+            return result;
         }
     }
 
@@ -276,32 +444,13 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
      */
     private static final class RprofState extends InstrumentationState.RprofState {
         private ProfileThread profileThread;
-        private StatementListener statementListener;
-        private long intervalInMillis;
-        private boolean lineProfiling;
-        private boolean memoryProfiling;
+        /**
+         * The samples of the current or the last profiling session.
+         */
+        private ProfileStacks profile;
+        private EventBinding<ShadowStack> binding;
         private MemoryQuad memoryQuad;
 
-        public static final class MemoryQuad {
-            public long smallV;
-            public long largeV;
-            public long nodes;
-            public long copied;
-
-            public MemoryQuad copyAndClear() {
-                MemoryQuad result = new MemoryQuad();
-                result.copied = copied;
-                result.largeV = largeV;
-                result.smallV = smallV;
-                result.nodes = nodes;
-                copied = 0;
-                largeV = 0;
-                smallV = 0;
-                nodes = 0;
-                return result;
-            }
-        }
-
         private static RprofState get() {
             RprofState state = (RprofState) RContext.getInstance().stateInstrumentation.getRprofState("prof");
             if (state == null) {
@@ -311,68 +460,24 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             return state;
         }
 
-        public void initialize(PrintStream outA, ProfileThread profileThreadA, StatementListener statementListenerA, long intervalInMillisA,
-                        boolean lineProfilingA, boolean memoryProfilingA) {
+        public void initialize(PrintStream outA, ProfileThread profileThreadA, EventBinding<ShadowStack> bindingA, MemoryQuad memoryQuadA) {
             setOut(outA);
             this.profileThread = profileThreadA;
-            this.statementListener = statementListenerA;
-            this.intervalInMillis = intervalInMillisA;
-            this.lineProfiling = lineProfilingA;
-            this.memoryProfiling = memoryProfilingA;
-            this.memoryQuad = memoryProfilingA ? new MemoryQuad() : null;
+            this.profile = profileThreadA.profile;
+            this.binding = bindingA;
+            this.memoryQuad = memoryQuadA;
         }
 
         @Override
         public void cleanup(int status) {
-            profileThread.running = false;
-            HashMap<String, Integer> fileMap = null;
-            PrintStream out = this.out();
-            if (this.memoryProfiling) {
-                out.print("memory profiling: ");
-            }
-            if (this.lineProfiling) {
-                out.print("line profiling: ");
-            }
-            out.printf("sample.interval=%d\n", this.intervalInMillis * 1000);
-            if (this.lineProfiling) {
-                // scan stacks to find files
-                fileMap = new HashMap<>();
-                int fileIndex = 0;
-                for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                    for (RSyntaxElement node : intervalStack) {
-                        String path = getPath(node);
-                        if (path != null && fileMap.get(path) == null) {
-                            fileMap.put(path, ++fileIndex);
-                            out.printf("#File %d: %s\n", fileIndex, path);
-                        }
-                    }
-                }
-            }
-            int index = 0;
-            for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                if (this.memoryProfiling) {
-                    RprofState.MemoryQuad mq = statementListener.intervalMemory.get(index);
-                    out.printf(":%d:%d:%d:%d:", mq.largeV, mq.smallV, mq.nodes, mq.copied);
-                }
-                for (RSyntaxElement node : intervalStack) {
-                    RootNode rootNode = ((RSyntaxNode) node).asRNode().getRootNode();
-                    if (rootNode instanceof FunctionDefinitionNode) {
-                        String name = rootNode.getName();
-                        if (this.lineProfiling) {
-                            Integer fileIndex = fileMap.get(getPath(node));
-                            if (fileIndex != null) {
-                                out.printf("%d#%d ", fileIndex, node.getSourceSection().getStartLine());
-                            }
-                        }
-                        out.printf("\"%s\" ", name);
-                    }
-                }
-                out.println();
-                index++;
+            if (out() == null) {
+                return;
             }
-            out.close();
-            this.setOut(null);
-            if (this.memoryProfiling) {
+            binding.dispose();
+            profileThread.finish();
+            closeAndResetOut();
+            if (memoryQuad != null) {
+                memoryQuad = null;
                 RDataFactory.removeListener(LISTENER);
                 MemoryCopyTracer.setTracingState(false);
             }
@@ -191,6 +191,7 @@ typedef int (*call_REAL_NO_NA)(SEXP x);
 typedef int (*call_LOGICAL_NO_NA)(SEXP x);
 typedef int (*call_STRING_NO_NA)(SEXP x);
 typedef void *(*call_FASTR_DATAPTR)(SEXP x);
+typedef R_xlen_t (*call_FASTR_getBufferableLength)(SEXP x, int type);
 typedef const void *(*call_DATAPTR_OR_NULL)(SEXP x);
 typedef Rbyte *(*call_RAW)(SEXP x);
 typedef Rbyte (*call_RAW_ELT)(SEXP x, R_xlen_t i);
@@ -1191,6 +1191,8 @@ int *FASTR_DATAPTR(SEXP x) {
     TRACE(TARGp, x);
     int *result = ((call_FASTR_DATAPTR) callbacks[FASTR_DATAPTR_x])(x);
     checkExitCall();
+    // the elements may be read through the pointer from now on, so they must not be buffered
+    forgetElementWriteTarget(x);
     return result;
 }
 
@@ -1198,6 +1200,9 @@ const void *DATAPTR_OR_NULL(SEXP x) {
     TRACE1(x);
     const void *result = ((call_DATAPTR_OR_NULL) callbacks[DATAPTR_OR_NULL_x])(x);
     checkExitCall();
+    if (result != NULL) {
+        forgetElementWriteTarget(x);
+    }
     return result;
 }
 
@@ -1306,14 +1311,22 @@ SEXP VECTOR_ELT(SEXP x, R_xlen_t i) {
 
 void SET_STRING_ELT(SEXP x, R_xlen_t i, SEXP v) {
     TRACE0();
+    if (bufferElementWrite(x, STRSXP, i, v)) {
+        return;
+    }
     ((call_SET_STRING_ELT) callbacks[SET_STRING_ELT_x])(x, i, v);
     checkExitCall();
+    elementWritten(x, STRSXP);
 }
 
 SEXP SET_VECTOR_ELT(SEXP x, R_xlen_t i, SEXP v) {
     TRACE0();
+    if (bufferElementWrite(x, VECSXP, i, v)) {
+        return v;
+    }
     SEXP result = ((call_SET_VECTOR_ELT) callbacks[SET_VECTOR_ELT_x])(x, i, v);
     checkExitCall();
+    elementWritten(x, VECSXP);
     return v;
 }
 
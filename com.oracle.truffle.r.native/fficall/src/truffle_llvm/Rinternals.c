@@ -75,6 +75,18 @@ void *ensure_function(void *fptr) {
 	return fptr;
 }
 
+// the element writes are not buffered with LLVM, every write is an up-call
+
+static inline int bufferElementWrite(SEXP x, int type, R_xlen_t i, SEXP v) {
+	return 0;
+}
+
+static inline void elementWritten(SEXP x, int type) {
+}
+
+static inline void forgetElementWriteTarget(SEXP x) {
+}
+
 char *FASTR_R_Home() {
 	return ((call_R_Home) callbacks[R_Home_x])();
 }
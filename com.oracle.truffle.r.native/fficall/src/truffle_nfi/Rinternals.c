@@ -53,8 +53,88 @@ void *ensure_function(void *fptr) {
 	return fptr;
 }
 
+static int bufferElementWrite(SEXP x, int type, R_xlen_t i, SEXP v);
+static void elementWritten(SEXP x, int type);
+static void forgetElementWriteTarget(SEXP x);
+
 #include "../truffle_common/Rinternals_truffle_common.h"
 
+/*
+ * Buffer of the element writes done by SET_STRING_ELT and SET_VECTOR_ELT. Once two subsequent
+ * writes went to the same vector and FASTR_getBufferableLength confirmed that its elements are not
+ * accessible through a pointer, the vector becomes the target and further writes to it are only
+ * recorded here. The Java side (TruffleNFI_Context) applies the recorded writes before every up-call
+ * and when the down-call returns, so that they are visible to any code that may read the vector.
+ * The callbacks table is shared by contexts running on different threads, so the buffer is a
+ * thread local. The layout must be kept in sync with TruffleNFI_Context.
+ */
+#define ELEMENT_WRITE_BUFFER_SIZE 64
+
+typedef struct element_write_buffer {
+	SEXP target;
+	int64_t type;
+	int64_t length;
+	int64_t count;
+	int64_t indices[ELEMENT_WRITE_BUFFER_SIZE];
+	SEXP values[ELEMENT_WRITE_BUFFER_SIZE];
+} ElementWriteBuffer;
+
+static __thread ElementWriteBuffer element_write_buffer;
+
+// the vector of the last write that was not buffered
+static __thread SEXP element_write_candidate;
+
+ElementWriteBuffer *Rinternals_getElementWriteBufferAddress() {
+	return &element_write_buffer;
+}
+
+static inline ElementWriteBuffer *getElementWriteBuffer() {
+	return &element_write_buffer;
+}
+
+static int bufferElementWrite(SEXP x, int type, R_xlen_t i, SEXP v) {
+	ElementWriteBuffer *buffer = getElementWriteBuffer();
+	if (buffer->target != x || buffer->type != type || i < 0 || i >= buffer->length || buffer->count == ELEMENT_WRITE_BUFFER_SIZE) {
+		// the up-call reports any error and applies the pending writes first
+		return 0;
+	}
+	buffer->indices[buffer->count] = i;
+	buffer->values[buffer->count] = v;
+	buffer->count++;
+	return 1;
+}
+
+static void elementWritten(SEXP x, int type) {
+	ElementWriteBuffer *buffer = getElementWriteBuffer();
+	if (buffer->target == x) {
+		return;
+	}
+	if (element_write_candidate != x) {
+		element_write_candidate = x;
+		return;
+	}
+	R_xlen_t length = ((call_FASTR_getBufferableLength) callbacks[FASTR_getBufferableLength_x])(x, type);
+	checkExitCall();
+	if (length >= 0) {
+		// the up-call applied the writes pending for the previous target
+		buffer->target = x;
+		buffer->type = type;
+		buffer->length = length;
+	}
+	element_write_candidate = NULL;
+}
+
+static void forgetElementWriteTarget(SEXP x) {
+	ElementWriteBuffer *buffer = getElementWriteBuffer();
+	if (buffer->target == x) {
+		// the pending writes were applied by the up-call that handed out the pointer
+		buffer->target = NULL;
+	}
+	if (element_write_candidate == x) {
+		element_write_candidate = NULL;
+	}
+}
+
 #define ARRAY_CACHE_SIZE 5
 
 typedef struct array_cache_entry {
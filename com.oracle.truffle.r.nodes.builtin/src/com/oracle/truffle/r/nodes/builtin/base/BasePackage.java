@@ -106,6 +106,8 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRContextFactory;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDebug;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDebugNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDispatchNativeHandlers;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRFunctionStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRFunctionStatsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRGetExecutor;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRHelp.FastRAddHelpPath;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRHelp.FastRHelpPath;
@@ -138,6 +140,10 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRPkgSource;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPkgSourceNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPrintError;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPrintErrorNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRProfileExport;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRProfileExportNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRRFFIStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRRFFIStatsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRefCountInfo;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRefCountInfoNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegisterFunctions;
@@ -484,6 +490,8 @@ public class BasePackage extends RBuiltinPackage {
         add(FastRRegisterFunctions.class, FastRRegisterFunctionsNodeGen::create);
         add(FastrDqrls.class, FastrDqrlsNodeGen::create);
         add(FastRDebug.class, FastRDebugNodeGen::create);
+        add(FastRFunctionStats.class, FastRFunctionStatsNodeGen::create);
+        add(FastRRFFIStats.class, FastRRFFIStatsNodeGen::create);
         add(FastRPatchPackage.class, FastRPatchPackageNodeGen::create);
         add(FastRDispatchNativeHandlers.class, FastRDispatchNativeHandlers::new);
         add(FastRInitEventLoop.class, FastRInitEventLoopNodeGen::create);
@@ -521,6 +529,7 @@ public class BasePackage extends RBuiltinPackage {
         add(FastRRefCountInfo.class, FastRRefCountInfoNodeGen::create);
         add(FastRPkgSource.class, FastRPkgSourceNodeGen::create);
         add(FastRPrintError.class, FastRPrintErrorNodeGen::create);
+        add(FastRProfileExport.class, FastRProfileExportNodeGen::create);
         add(FastRSourceInfo.class, FastRSourceInfoNodeGen::create);
         add(FastRSetConsoleHandler.class, FastRSetConsoleHandlerNodeGen::create);
         add(FastRSetToolchain.class, FastRSetToolchainNodeGen::create);
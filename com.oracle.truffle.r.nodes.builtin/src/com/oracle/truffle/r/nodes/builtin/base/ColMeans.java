@@ -50,6 +50,9 @@ public abstract class ColMeans extends ColSumsBase {
     protected RDoubleVector colMeansNaRmFalse(RDoubleVector x, int rowNum, int colNum, @SuppressWarnings("unused") boolean naRm,
                     @CachedLibrary("x.getData()") VectorDataLibrary dataLib) {
         checkVectorLength(dataLib, x, rowNum, colNum);
+        if (isParallel(rowNum, colNum)) {
+            return ParallelMatrixSums.colSums(x.getReadonlyData(), rowNum, colNum, false, true);
+        }
 
         double[] result = new double[colNum];
         boolean isComplete = true;
@@ -80,6 +83,9 @@ public abstract class ColMeans extends ColSumsBase {
     protected RDoubleVector colMeansNaRmTrue(RDoubleVector x, int rowNum, int colNum, @SuppressWarnings("unused") boolean naRm,
                     @CachedLibrary("x.getData()") VectorDataLibrary dataLib) {
         checkVectorLength(dataLib, x, rowNum, colNum);
+        if (isParallel(rowNum, colNum)) {
+            return ParallelMatrixSums.colSums(x.getReadonlyData(), rowNum, colNum, true, true);
+        }
 
         double[] result = new double[colNum];
         boolean isComplete = true;
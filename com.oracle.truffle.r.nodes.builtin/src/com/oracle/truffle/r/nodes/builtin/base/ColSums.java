@@ -54,6 +54,9 @@ public abstract class ColSums extends ColSumsBase {
     protected RDoubleVector colSums(RDoubleVector x, int rowNum, int colNum, boolean rnaParam,
                     @CachedLibrary("x.getData()") VectorDataLibrary xDataLib) {
         checkVectorLength(xDataLib, x, rowNum, colNum);
+        if (isParallel(rowNum, colNum)) {
+            return ParallelMatrixSums.colSums(x.getReadonlyData(), rowNum, colNum, rnaParam, false);
+        }
 
         double[] result = new double[colNum];
         boolean isComplete = true;
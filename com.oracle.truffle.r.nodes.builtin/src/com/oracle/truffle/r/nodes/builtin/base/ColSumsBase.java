@@ -46,6 +46,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 public abstract class ColSumsBase extends RBuiltinNode.Arg4 {
 
     private final ConditionProfile vectorLengthProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile parallelProfile = ConditionProfile.createBinaryProfile();
 
     protected static Casts createCasts(Class<? extends ColSumsBase> extCls) {
         Casts casts = new Casts(extCls);
@@ -66,6 +67,14 @@ public abstract class ColSumsBase extends RBuiltinNode.Arg4 {
         }
     }
 
+    /**
+     * Whether a double matrix of the given dimensions should be processed by
+     * {@link ParallelMatrixSums}.
+     */
+    protected final boolean isParallel(int rowNum, int colNum) {
+        return parallelProfile.profile(ParallelMatrixSums.isApplicable(rowNum, colNum));
+    }
+
     @Specialization(guards = {"rowNum == 0", "colNum == 0"})
     @SuppressWarnings("unused")
     protected static RDoubleVector doEmptyMatrix(Object x, int rowNum, int colNum, boolean naRm) {
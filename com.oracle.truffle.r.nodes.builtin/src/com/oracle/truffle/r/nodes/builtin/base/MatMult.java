@@ -629,6 +629,7 @@ public abstract class MatMult extends RBuiltinNode.Arg2 {
         private final boolean promoteDimNames;
 
         private final ConditionProfile bigProfile = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile parallelProfile = ConditionProfile.createBinaryProfile();
         private final BranchProfile incompleteProfile = BranchProfile.create();
         @CompilationFinal private boolean seenLargeMatrix;
 
@@ -798,7 +799,9 @@ public abstract class MatMult extends RBuiltinNode.Arg2 {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 seenLargeMatrix = true;
             }
-            if (seenLargeMatrix) {
+            if (parallelProfile.profile(ParallelMatMult.isApplicable(aRows, aCols, bCols))) {
+                ParallelMatMult.multiply(dataA, dataB, result, aRows, aCols, bCols, aRowStride, aColStride, bRowStride, bColStride, mirrored);
+            } else if (seenLargeMatrix) {
                 for (int row = 0; row < aRows; row += BLOCK_SIZE) {
                     for (int col = mirrored ? row : 0; col < bCols; col += BLOCK_SIZE) {
                         for (int k = 0; k < aCols; k += BLOCK_SIZE) {
@@ -42,7 +42,6 @@ import com.oracle.truffle.r.nodes.builtin.RPrecedenceBuiltinNode;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.CmpNodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.IsAtomicNANodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.OrderVector1NodeGen;
-import com.oracle.truffle.r.nodes.builtin.base.SortFunctions.RadixSort;
 import com.oracle.truffle.r.runtime.nodes.unary.CastToVectorNode;
 import com.oracle.truffle.r.runtime.nodes.unary.CastToVectorNodeGen;
 import com.oracle.truffle.r.runtime.RError;
@@ -75,13 +74,9 @@ public abstract class Order extends RPrecedenceBuiltinNode {
 
     private final BranchProfile error = BranchProfile.create();
     private final ConditionProfile notRemoveNAs = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile parallelProfile = ConditionProfile.createBinaryProfile();
     private final ValueProfile vectorProfile = ValueProfile.createClassProfile();
 
-    /**
-     * For use by {@link RadixSort}.
-     */
-    public abstract Object execute(byte naLast, boolean decreasing, RArgsValuesAndNames args);
-
     private static final int[] SINCS = {1073790977, 268460033, 67121153, 16783361, 4197377, 1050113, 262913, 65921, 16577, 4193, 1073, 281, 77, 23, 8, 1, 0};
 
     private RIntVector executeOrderVector1(RAbstractVector vIn, byte naLast, boolean dec) {
@@ -90,7 +85,9 @@ public abstract class Order extends RPrecedenceBuiltinNode {
         reportWork(n);
 
         int[] indx = createIndexes(v, n, naLast);
-        initOrderVector1().execute(indx, v, naLast, dec, true);
+        if (!parallelProfile.profile(ParallelOrder.isApplicable(n)) || !ParallelOrder.orderVector1(indx, v, naLast, dec)) {
+            initOrderVector1().execute(indx, v, naLast, dec, true);
+        }
         for (int i = 0; i < indx.length; i++) {
             indx[i] = indx[i] + 1;
         }
@@ -268,7 +265,9 @@ public abstract class Order extends RPrecedenceBuiltinNode {
         for (int i = 0; i < indx.length; i++) {
             indx[i] = i;
         }
-        orderVector(indx, args.getArguments(), RRuntime.fromLogical(naLast), decreasing);
+        if (!parallelProfile.profile(ParallelOrder.isApplicable(n)) || !ParallelOrder.orderMulti(indx, args.getArguments(), RRuntime.fromLogical(naLast), decreasing)) {
+            orderVector(indx, args.getArguments(), RRuntime.fromLogical(naLast), decreasing);
+        }
         for (int i = 0; i < indx.length; i++) {
             indx[i] = indx[i] + 1;
         }
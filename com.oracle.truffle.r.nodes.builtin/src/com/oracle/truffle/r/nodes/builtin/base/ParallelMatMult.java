@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+
+/**
+ * Multi-threaded double matrix multiplication used by {@link MatMult} and {@link CrossprodCommon}
+ * for large matrices, and by {@code cov} and {@code cor} for the cross products of the centered
+ * columns.
+ *
+ * The result is divided into tiles of {@link #MC} rows and {@link #NC} columns, which are computed
+ * independently in the common fork/join pool. For each slice of {@link #KC} elements of the inner
+ * dimension, a task copies the corresponding parts of both inputs into packed panels, so that the
+ * micro-kernel reads them sequentially regardless of the strides of the inputs (which is how the
+ * transposed operands of {@code crossprod} and {@code tcrossprod} are handled). The micro-kernel
+ * computes an {@link #MR} x {@link #NR} block of the result in local variables, which the JIT keeps
+ * in registers.
+ *
+ * Only the products are computed here, NA and NaN values are fixed up by the caller as in the
+ * sequential implementation.
+ */
+public final class ParallelMatMult {
+
+    private static final int MR = 4;
+    private static final int NR = 4;
+    private static final int MC = 128;
+    private static final int NC = 128;
+    private static final int KC = 256;
+
+    /**
+     * The parallel multiplication is used if the number of multiply-add operations is at least
+     * {@link FastROptions#ParallelThreshold} times this value.
+     */
+    private static final int MIN_OPERATIONS_PER_ELEMENT = 64;
+
+    private ParallelMatMult() {
+        // no instances
+    }
+
+    @TruffleBoundary
+    public static boolean isApplicable(int aRows, int aCols, int bCols) {
+        int threshold = RContext.getInstance().getNonNegativeIntOption(FastROptions.ParallelThreshold);
+        return threshold > 0 && (long) aRows * aCols * bCols >= (long) threshold * MIN_OPERATIONS_PER_ELEMENT && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Adds the product of {@code a} and {@code b} to {@code result}, which has {@code aRows} rows
+     * and {@code bCols} columns. The element {@code (i, k)} of {@code a} is at
+     * {@code i * aRowStride + k * aColStride}, the element {@code (k, j)} of {@code b} at
+     * {@code k * bRowStride + j * bColStride}. If {@code mirrored} is true, only the elements on
+     * and above the diagonal of the result are guaranteed to be computed.
+     */
+    @TruffleBoundary
+    public static void multiply(double[] a, double[] b, double[] result, int aRows, int aCols, int bCols, int aRowStride, int aColStride, int bRowStride, int bColStride, boolean mirrored) {
+        int rowTiles = (aRows + MC - 1) / MC;
+        int colTiles = (bCols + NC - 1) / NC;
+        Tiles tiles = new Tiles(a, b, result, aRows, aCols, bCols, aRowStride, aColStride, bRowStride, bColStride, mirrored, rowTiles);
+        ForkJoinPool.commonPool().invoke(new TilesTask(tiles, 0, rowTiles * colTiles));
+    }
+
+    /**
+     * The operands shared by all tasks of one multiplication.
+     */
+    private static final class Tiles {
+        private final double[] a;
+        private final double[] b;
+        private final double[] result;
+        private final int aRows;
+        private final int aCols;
+        private final int bCols;
+        private final int aRowStride;
+        private final int aColStride;
+        private final int bRowStride;
+        private final int bColStride;
+        private final boolean mirrored;
+        private final int rowTiles;
+
+        Tiles(double[] a, double[] b, double[] result, int aRows, int aCols, int bCols, int aRowStride, int aColStride, int bRowStride, int bColStride, boolean mirrored, int rowTiles) {
+            this.a = a;
+            this.b = b;
+            this.result = result;
+            this.aRows = aRows;
+            this.aCols = aCols;
+            this.bCols = bCols;
+            this.aRowStride = aRowStride;
+            this.aColStride = aColStride;
+            this.bRowStride = bRowStride;
+            this.bColStride = bColStride;
+            this.mirrored = mirrored;
+            this.rowTiles = rowTiles;
+        }
+
+        void computeTile(int tile, double[] aPack, double[] bPack) {
+            int row = (tile % rowTiles) * MC;
+            int col = (tile / rowTiles) * NC;
+            int rows = Math.min(MC, aRows - row);
+            int cols = Math.min(NC, bCols - col);
+            if (mirrored && col + cols <= row) {
+                // the tile lies below the diagonal
+                return;
+            }
+            for (int k = 0; k < aCols; k += KC) {
+                int depth = Math.min(KC, aCols - k);
+                packA(aPack, row, rows, k, depth);
+                packB(bPack, col, cols, k, depth);
+                for (int j = 0; j < cols; j += NR) {
+                    for (int i = 0; i < rows; i += MR) {
+                        microKernel(aPack, i * depth, bPack, j * depth, depth, row + i, Math.min(MR, rows - i), col + j, Math.min(NR, cols - j));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Copies the rows {@code [row, row + rows)} of the columns {@code [k, k + depth)} of
+         * {@code a} into slivers of {@link #MR} rows, each stored column by column. Missing rows of
+         * the last sliver are padded with zeros.
+         */
+        private void packA(double[] aPack, int row, int rows, int k, int depth) {
+            int pos = 0;
+            for (int i = 0; i < rows; i += MR) {
+                int sliverRows = Math.min(MR, rows - i);
+                for (int p = 0; p < depth; p++) {
+                    int index = (row + i) * aRowStride + (k + p) * aColStride;
+                    for (int r = 0; r < sliverRows; r++) {
+                        aPack[pos + r] = a[index];
+                        index += aRowStride;
+                    }
+                    for (int r = sliverRows; r < MR; r++) {
+                        aPack[pos + r] = 0;
+                    }
+                    pos += MR;
+                }
+            }
+        }
+
+        /**
+         * Copies the columns {@code [col, col + cols)} of the rows {@code [k, k + depth)} of
+         * {@code b} into slivers of {@link #NR} columns, each stored row by row. Missing columns of
+         * the last sliver are padded with zeros.
+         */
+        private void packB(double[] bPack, int col, int cols, int k, int depth) {
+            int pos = 0;
+            for (int j = 0; j < cols; j += NR) {
+                int sliverCols = Math.min(NR, cols - j);
+                for (int p = 0; p < depth; p++) {
+                    int index = (k + p) * bRowStride + (col + j) * bColStride;
+                    for (int c = 0; c < sliverCols; c++) {
+                        bPack[pos + c] = b[index];
+                        index += bColStride;
+                    }
+                    for (int c = sliverCols; c < NR; c++) {
+                        bPack[pos + c] = 0;
+                    }
+                    pos += NR;
+                }
+            }
+        }
+
+        private void microKernel(double[] aPack, int aStart, double[] bPack, int bStart, int depth, int row, int rows, int col, int cols) {
+            double c00 = 0;
+            double c10 = 0;
+            double c20 = 0;
+            double c30 = 0;
+            double c01 = 0;
+            double c11 = 0;
+            double c21 = 0;
+            double c31 = 0;
+            double c02 = 0;
+            double c12 = 0;
+            double c22 = 0;
+            double c32 = 0;
+            double c03 = 0;
+            double c13 = 0;
+            double c23 = 0;
+            double c33 = 0;
+            int ai = aStart;
+            int bi = bStart;
+            for (int p = 0; p < depth; p++) {
+                double a0 = aPack[ai];
+                double a1 = aPack[ai + 1];
+                double a2 = aPack[ai + 2];
+                double a3 = aPack[ai + 3];
+                double b0 = bPack[bi];
+                double b1 = bPack[bi + 1];
+                double b2 = bPack[bi + 2];
+                double b3 = bPack[bi + 3];
+                c00 += a0 * b0;
+                c10 += a1 * b0;
+                c20 += a2 * b0;
+                c30 += a3 * b0;
+                c01 += a0 * b1;
+                c11 += a1 * b1;
+                c21 += a2 * b1;
+                c31 += a3 * b1;
+                c02 += a0 * b2;
+                c12 += a1 * b2;
+                c22 += a2 * b2;
+                c32 += a3 * b2;
+                c03 += a0 * b3;
+                c13 += a1 * b3;
+                c23 += a2 * b3;
+                c33 += a3 * b3;
+                ai += MR;
+                bi += NR;
+            }
+            if (rows == MR && cols == NR) {
+                storeColumn(row, col, c00, c10, c20, c30);
+                storeColumn(row, col + 1, c01, c11, c21, c31);
+                storeColumn(row, col + 2, c02, c12, c22, c32);
+                storeColumn(row, col + 3, c03, c13, c23, c33);
+            } else {
+                double[] block = new double[]{c00, c10, c20, c30, c01, c11, c21, c31, c02, c12, c22, c32, c03, c13, c23, c33};
+                for (int j = 0; j < cols; j++) {
+                    int index = (col + j) * aRows + row;
+                    for (int i = 0; i < rows; i++) {
+                        result[index + i] += block[j * MR + i];
+                    }
+                }
+            }
+        }
+
+        private void storeColumn(int row, int col, double c0, double c1, double c2, double c3) {
+            int index = col * aRows + row;
+            result[index] += c0;
+            result[index + 1] += c1;
+            result[index + 2] += c2;
+            result[index + 3] += c3;
+        }
+    }
+
+    /**
+     * Computes the tiles {@code [from, to)}, numbered column of tiles by column of tiles.
+     */
+    @SuppressWarnings("serial")
+    private static final class TilesTask extends RecursiveAction {
+        private final Tiles tiles;
+        private final int from;
+        private final int to;
+
+        TilesTask(Tiles tiles, int from, int to) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TilesTask(tiles, from, mid), new TilesTask(tiles, mid, to));
+                return;
+            }
+            double[] aPack = new double[MC * KC];
+            double[] bPack = new double[KC * NC];
+            for (int tile = from; tile < to; tile++) {
+                tiles.computeTile(tile, aPack, bPack);
+            }
+        }
+    }
+}
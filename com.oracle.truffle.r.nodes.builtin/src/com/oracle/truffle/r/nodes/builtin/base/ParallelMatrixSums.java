@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+
+/**
+ * Parallel variant of {@link ColSums}, {@link ColMeans}, {@link RowSums} and {@link RowMeans} for
+ * double matrices with at least {@link FastROptions#ParallelThreshold} elements.
+ *
+ * The column variants split the columns among the threads. The row variants split the rows into
+ * blocks, each block accumulates the sums of its rows column by column, so that the matrix is read
+ * sequentially and the partial sums stay in the cache. In both cases every single sum adds the same
+ * elements in the same order as the sequential implementations, so the results are identical.
+ */
+final class ParallelMatrixSums {
+
+    /**
+     * Tasks process at least this many elements.
+     */
+    private static final int SEQUENTIAL_CUTOFF = 1 << 15;
+
+    /**
+     * The number of rows whose sums are accumulated together by the row variants.
+     */
+    private static final int ROW_BLOCK = 1024;
+
+    private ParallelMatrixSums() {
+        // no instances
+    }
+
+    @TruffleBoundary
+    static boolean isApplicable(int rowNum, int colNum) {
+        int threshold = RContext.getInstance().getNonNegativeIntOption(FastROptions.ParallelThreshold);
+        return threshold > 0 && (long) rowNum * colNum >= threshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    private static RDoubleVector createResult(double[] result) {
+        boolean complete = true;
+        for (double d : result) {
+            if (RRuntime.isNA(d)) {
+                complete = false;
+                break;
+            }
+        }
+        return RDataFactory.createDoubleVector(result, complete);
+    }
+
+    @TruffleBoundary
+    static RDoubleVector colSums(double[] x, int rowNum, int colNum, boolean naRm, boolean mean) {
+        double[] result = new double[colNum];
+        int cutoff = Math.max(1, SEQUENTIAL_CUTOFF / Math.max(1, rowNum));
+        ForkJoinPool.commonPool().invoke(new ColumnsTask(x, rowNum, result, 0, colNum, cutoff, naRm, mean));
+        return createResult(result);
+    }
+
+    @TruffleBoundary
+    static RDoubleVector rowSums(double[] x, int rowNum, int colNum, boolean naRm, boolean mean) {
+        double[] result = new double[rowNum];
+        int blocks = (rowNum + ROW_BLOCK - 1) / ROW_BLOCK;
+        int cutoff = Math.max(1, SEQUENTIAL_CUTOFF / Math.max(1, ROW_BLOCK * colNum));
+        ForkJoinPool.commonPool().invoke(new RowBlocksTask(x, rowNum, colNum, result, 0, blocks, cutoff, naRm, mean));
+        return createResult(result);
+    }
+
+    /**
+     * Computes the results of the columns {@code [from, to)}.
+     */
+    @SuppressWarnings("serial")
+    private static final class ColumnsTask extends RecursiveAction {
+        private final double[] x;
+        private final int rowNum;
+        private final double[] result;
+        private final int from;
+        private final int to;
+        private final int cutoff;
+        private final boolean naRm;
+        private final boolean mean;
+
+        ColumnsTask(double[] x, int rowNum, double[] result, int from, int to, int cutoff, boolean naRm, boolean mean) {
+            this.x = x;
+            this.rowNum = rowNum;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.cutoff = cutoff;
+            this.naRm = naRm;
+            this.mean = mean;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > cutoff) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ColumnsTask(x, rowNum, result, from, mid, cutoff, naRm, mean), new ColumnsTask(x, rowNum, result, mid, to, cutoff, naRm, mean));
+                return;
+            }
+            for (int c = from; c < to; c++) {
+                result[c] = column(c * rowNum);
+            }
+        }
+
+        private double column(int start) {
+            double sum = 0;
+            int count = 0;
+            for (int i = start; i < start + rowNum; i++) {
+                double el = x[i];
+                if (Double.isNaN(el)) {
+                    if (!naRm) {
+                        return RRuntime.isNA(el) ? RRuntime.DOUBLE_NA : Double.NaN;
+                    }
+                } else {
+                    sum += el;
+                    count++;
+                }
+            }
+            if (!mean) {
+                return sum;
+            }
+            return count == 0 ? Double.NaN : sum / count;
+        }
+    }
+
+    /**
+     * Computes the results of the row blocks {@code [from, to)}.
+     */
+    @SuppressWarnings("serial")
+    private static final class RowBlocksTask extends RecursiveAction {
+        private final double[] x;
+        private final int rowNum;
+        private final int colNum;
+        private final double[] result;
+        private final int from;
+        private final int to;
+        private final int cutoff;
+        private final boolean naRm;
+        private final boolean mean;
+
+        RowBlocksTask(double[] x, int rowNum, int colNum, double[] result, int from, int to, int cutoff, boolean naRm, boolean mean) {
+            this.x = x;
+            this.rowNum = rowNum;
+            this.colNum = colNum;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.cutoff = cutoff;
+            this.naRm = naRm;
+            this.mean = mean;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > cutoff) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowBlocksTask(x, rowNum, colNum, result, from, mid, cutoff, naRm, mean), new RowBlocksTask(x, rowNum, colNum, result, mid, to, cutoff, naRm, mean));
+                return;
+            }
+            double[] sums = new double[ROW_BLOCK];
+            int[] counts = new int[ROW_BLOCK];
+            // rows whose result is already NA or NaN because of !naRm
+            boolean[] done = new boolean[ROW_BLOCK];
+            for (int block = from; block < to; block++) {
+                int firstRow = block * ROW_BLOCK;
+                int length = Math.min(ROW_BLOCK, rowNum - firstRow);
+                for (int r = 0; r < length; r++) {
+                    sums[r] = 0;
+                    counts[r] = 0;
+                    done[r] = false;
+                }
+                int pos = firstRow;
+                for (int c = 0; c < colNum; c++) {
+                    for (int r = 0; r < length; r++) {
+                        double el = x[pos + r];
+                        if (Double.isNaN(el)) {
+                            if (!naRm && !done[r]) {
+                                sums[r] = RRuntime.isNA(el) ? RRuntime.DOUBLE_NA : Double.NaN;
+                                done[r] = true;
+                            }
+                        } else if (!done[r]) {
+                            sums[r] += el;
+                            counts[r]++;
+                        }
+                    }
+                    pos += rowNum;
+                }
+                for (int r = 0; r < length; r++) {
+                    double sum = sums[r];
+                    if (mean && !done[r]) {
+                        sum = counts[r] == 0 ? Double.NaN : sum / counts[r];
+                    }
+                    result[firstRow + r] = sum;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RLocale;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RComplexVector;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RLogicalVector;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+
+/**
+ * Parallel variant of the sorting done by {@link Order} for vectors with at least
+ * {@link FastROptions#ParallelThreshold} elements.
+ *
+ * The data of all the keys are extracted into primitive arrays on the calling thread and the index
+ * array is then sorted with a stable merge sort running in the common {@link ForkJoinPool}, so that
+ * the worker threads never touch any R objects or the {@link RContext}. The comparisons replicate
+ * the ones of {@link Order}: for a single key the NAs are placed according to {@code na.last}
+ * regardless of {@code decreasing}, for multiple keys the whole comparison result is negated when
+ * {@code decreasing}. Ties keep the original (ascending) order of the indices.
+ */
+final class ParallelOrder {
+
+    /**
+     * Ranges of at most this length are sorted by a single thread.
+     */
+    private static final int SEQUENTIAL_CUTOFF = 1 << 13;
+
+    private static final int INSERTION_SORT_CUTOFF = 32;
+
+    private ParallelOrder() {
+        // no instances
+    }
+
+    private abstract static class Key {
+        protected final boolean naLast;
+        protected final boolean decreasing;
+        /**
+         * Whether {@link #decreasing} also reverses the placement of NAs.
+         */
+        protected final boolean decreasingNA;
+
+        protected Key(boolean naLast, boolean decreasing, boolean decreasingNA) {
+            this.naLast = naLast;
+            this.decreasing = decreasing;
+            this.decreasingNA = decreasingNA;
+        }
+
+        protected abstract boolean isNA(int i);
+
+        /**
+         * Compares two non-NA elements in the increasing order.
+         */
+        protected abstract int compareValues(int a, int b);
+
+        int compare(int a, int b) {
+            boolean naA = isNA(a);
+            boolean naB = isNA(b);
+            if (naA || naB) {
+                int c = naA == naB ? 0 : (naA == naLast ? 1 : -1);
+                return decreasingNA ? -c : c;
+            }
+            int c = compareValues(a, b);
+            return decreasing ? -c : c;
+        }
+    }
+
+    private static final class IntKey extends Key {
+        private final int[] data;
+
+        IntKey(int[] data, boolean naLast, boolean decreasing, boolean decreasingNA) {
+            super(naLast, decreasing, decreasingNA);
+            this.data = data;
+        }
+
+        @Override
+        protected boolean isNA(int i) {
+            return RRuntime.isNA(data[i]);
+        }
+
+        @Override
+        protected int compareValues(int a, int b) {
+            return Integer.compare(data[a], data[b]);
+        }
+    }
+
+    private static final class LogicalKey extends Key {
+        private final byte[] data;
+
+        LogicalKey(byte[] data, boolean naLast, boolean decreasing, boolean decreasingNA) {
+            super(naLast, decreasing, decreasingNA);
+            this.data = data;
+        }
+
+        @Override
+        protected boolean isNA(int i) {
+            return RRuntime.isNA(data[i]);
+        }
+
+        @Override
+        protected int compareValues(int a, int b) {
+            return Byte.compare(data[a], data[b]);
+        }
+    }
+
+    private static final class DoubleKey extends Key {
+        private final double[] data;
+
+        DoubleKey(double[] data, boolean naLast, boolean decreasing, boolean decreasingNA) {
+            super(naLast, decreasing, decreasingNA);
+            this.data = data;
+        }
+
+        @Override
+        protected boolean isNA(int i) {
+            return RRuntime.isNAorNaN(data[i]);
+        }
+
+        @Override
+        protected int compareValues(int a, int b) {
+            return compareDoubles(data[a], data[b]);
+        }
+    }
+
+    /**
+     * Unlike {@link Double#compare(double, double)}, 0.0 and -0.0 are equal.
+     */
+    private static int compareDoubles(double x, double y) {
+        return x < y ? -1 : (x > y ? 1 : 0);
+    }
+
+    private static final class StringKey extends Key {
+        private final String[] data;
+
+        StringKey(String[] data, boolean naLast, boolean decreasing, boolean decreasingNA) {
+            super(naLast, decreasing, decreasingNA);
+            this.data = data;
+        }
+
+        @Override
+        protected boolean isNA(int i) {
+            return RRuntime.isNA(data[i]);
+        }
+
+        @Override
+        protected int compareValues(int a, int b) {
+            return data[a].compareTo(data[b]);
+        }
+    }
+
+    private static final class CollatedStringKey extends Key {
+        private final String[] data;
+        private final CollationKey[] collationKeys;
+
+        CollatedStringKey(String[] data, CollationKey[] collationKeys, boolean naLast, boolean decreasing) {
+            super(naLast, decreasing, false);
+            this.data = data;
+            this.collationKeys = collationKeys;
+        }
+
+        @Override
+        protected boolean isNA(int i) {
+            return RRuntime.isNA(data[i]);
+        }
+
+        @Override
+        protected int compareValues(int a, int b) {
+            return collationKeys[a].compareTo(collationKeys[b]);
+        }
+    }
+
+    /**
+     * For a single key, complex NA is {@code NA} in either part. For multiple keys the parts are
+     * compared one after another like in {@code Order.CmpNode}.
+     */
+    private static final class ComplexKey extends Key {
+        private final double[] data;
+        private final boolean multi;
+
+        ComplexKey(double[] data, boolean naLast, boolean decreasing, boolean multi) {
+            super(naLast, decreasing, multi);
+            this.data = data;
+            this.multi = multi;
+        }
+
+        @Override
+        protected boolean isNA(int i) {
+            return RRuntime.isComplexNA(data[2 * i], data[2 * i + 1]);
+        }
+
+        @Override
+        protected int compareValues(int a, int b) {
+            int c = compareDoubles(data[2 * a], data[2 * b]);
+            return c != 0 ? c : compareDoubles(data[2 * a + 1], data[2 * b + 1]);
+        }
+
+        @Override
+        int compare(int a, int b) {
+            if (!multi) {
+                return super.compare(a, b);
+            }
+            int c = comparePart(data[2 * a], data[2 * b]);
+            if (c == 0 && !RRuntime.isNA(data[2 * a])) {
+                c = comparePart(data[2 * a + 1], data[2 * b + 1]);
+            }
+            return decreasing ? -c : c;
+        }
+
+        private int comparePart(double x, double y) {
+            boolean nax = RRuntime.isNA(x);
+            boolean nay = RRuntime.isNA(y);
+            if (nax || nay) {
+                return nax == nay ? 0 : (nax == naLast ? 1 : -1);
+            }
+            return compareDoubles(x, y);
+        }
+    }
+
+    private static final class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] indx;
+        private final int[] buf;
+        private final int lo;
+        private final int hi;
+        private final Key[] keys;
+
+        SortTask(int[] indx, int[] buf, int lo, int hi, Key[] keys) {
+            this.indx = indx;
+            this.buf = buf;
+            this.lo = lo;
+            this.hi = hi;
+            this.keys = keys;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SEQUENTIAL_CUTOFF) {
+                mergeSort(indx, buf, lo, hi, keys);
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SortTask(indx, buf, lo, mid, keys), new SortTask(indx, buf, mid, hi, keys));
+                merge(indx, buf, lo, mid, hi, keys);
+            }
+        }
+    }
+
+    private static int compare(Key[] keys, int a, int b) {
+        for (Key key : keys) {
+            int c = key.compare(a, b);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static void mergeSort(int[] indx, int[] buf, int lo, int hi, Key[] keys) {
+        if (hi - lo <= INSERTION_SORT_CUTOFF) {
+            for (int i = lo + 1; i < hi; i++) {
+                int itmp = indx[i];
+                int j = i;
+                while (j > lo && compare(keys, indx[j - 1], itmp) > 0) {
+                    indx[j] = indx[j - 1];
+                    j--;
+                }
+                indx[j] = itmp;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(indx, buf, lo, mid, keys);
+        mergeSort(indx, buf, mid, hi, keys);
+        merge(indx, buf, lo, mid, hi, keys);
+    }
+
+    /**
+     * Stable merge of the sorted ranges {@code [lo, mid)} and {@code [mid, hi)}.
+     */
+    private static void merge(int[] indx, int[] buf, int lo, int mid, int hi, Key[] keys) {
+        if (compare(keys, indx[mid - 1], indx[mid]) <= 0) {
+            // already in order
+            return;
+        }
+        System.arraycopy(indx, lo, buf, lo, mid - lo);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+            if (compare(keys, buf[i], indx[j]) <= 0) {
+                indx[k++] = buf[i++];
+            } else {
+                indx[k++] = indx[j++];
+            }
+        }
+        while (i < mid) {
+            indx[k++] = buf[i++];
+        }
+    }
+
+    private static void sort(int[] indx, Key[] keys) {
+        ForkJoinPool.commonPool().invoke(new SortTask(indx, new int[indx.length], 0, indx.length, keys));
+    }
+
+    @TruffleBoundary
+    static boolean isApplicable(int length) {
+        int threshold = RContext.getInstance().getNonNegativeIntOption(FastROptions.ParallelThreshold);
+        return threshold > 0 && length >= threshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Sorts the indices of a single vector, see {@code Order.OrderVector1Node}. The indices of NA
+     * values must have been removed from {@code indx} if {@code naLast} is {@code NA}.
+     */
+    @TruffleBoundary
+    static boolean orderVector1(int[] indx, Object v, byte naLast, boolean decreasing) {
+        boolean last = naLast == RRuntime.LOGICAL_TRUE;
+        Key key;
+        if (v instanceof RIntVector) {
+            key = new IntKey(((RIntVector) v).getReadonlyData(), last, decreasing, false);
+        } else if (v instanceof RDoubleVector) {
+            key = new DoubleKey(((RDoubleVector) v).getReadonlyData(), last, decreasing, false);
+        } else if (v instanceof RComplexVector) {
+            key = new ComplexKey(((RComplexVector) v).getReadonlyData(), last, decreasing, false);
+        } else if (v instanceof RStringVector) {
+            String[] data = ((RStringVector) v).getReadonlyStringData();
+            Locale locale = RContext.getInstance().stateRLocale.getLocale(RLocale.COLLATE);
+            if (locale == Locale.ROOT) {
+                key = new StringKey(data, last, decreasing, false);
+            } else {
+                Collator collator = RLocale.getOrderCollator(locale);
+                CollationKey[] collationKeys = new CollationKey[data.length];
+                for (int i = 0; i < data.length; i++) {
+                    if (!RRuntime.isNA(data[i])) {
+                        collationKeys[i] = collator.getCollationKey(data[i]);
+                    }
+                }
+                key = new CollatedStringKey(data, collationKeys, last, decreasing);
+            }
+        } else {
+            return false;
+        }
+        sort(indx, new Key[]{key});
+        return true;
+    }
+
+    /**
+     * Sorts the indices by multiple keys, see {@code Order.orderVector}.
+     */
+    @TruffleBoundary
+    static boolean orderMulti(int[] indx, Object[] vectors, boolean naLast, boolean decreasing) {
+        Key[] keys = new Key[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            Object v = vectors[i];
+            if (v instanceof RIntVector) {
+                keys[i] = new IntKey(((RIntVector) v).getReadonlyData(), naLast, decreasing, true);
+            } else if (v instanceof RLogicalVector) {
+                keys[i] = new LogicalKey(((RLogicalVector) v).getReadonlyData(), naLast, decreasing, true);
+            } else if (v instanceof RDoubleVector) {
+                keys[i] = new DoubleKey(((RDoubleVector) v).getReadonlyData(), naLast, decreasing, true);
+            } else if (v instanceof RStringVector) {
+                keys[i] = new StringKey(((RStringVector) v).getReadonlyStringData(), naLast, decreasing, true);
+            } else if (v instanceof RComplexVector) {
+                keys[i] = new ComplexKey(((RComplexVector) v).getReadonlyData(), naLast, decreasing, true);
+            } else {
+                return false;
+            }
+        }
+        sort(indx, keys);
+        return true;
+    }
+}
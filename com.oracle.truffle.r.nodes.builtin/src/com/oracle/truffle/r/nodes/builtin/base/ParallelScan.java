@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.nodes.builtin.base.Scan.GetQuotedItemsResult;
+import com.oracle.truffle.r.nodes.builtin.base.Scan.LocalData;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.conn.RConnection;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ops.na.NACheck;
+
+/**
+ * Parallel variant of reading records by {@link Scan} (and thus {@code read.table}) from seekable,
+ * i.e., file connections.
+ *
+ * All the remaining lines are read at once, the lines are split into items and, once
+ * {@link Scan} assembled the records, the items are converted to the types of the columns, both
+ * in line-aligned chunks processed in the common {@link ForkJoinPool}. The worker threads never
+ * touch any R objects or the {@link RContext}, they only report the lines and items that failed, so
+ * that the same errors as in the sequential scan are raised on the calling thread, in the same
+ * order. For fewer than {@link FastROptions#ParallelThreshold} items, the lines are split on the
+ * calling thread and the items are converted right away as in the sequential scan.
+ */
+final class ParallelScan {
+
+    /**
+     * Lines (or records) are processed in chunks of at least this length.
+     */
+    private static final int MIN_CHUNK_LENGTH = 1 << 10;
+
+    private static final String[] EMPTY_LINE_ITEMS = new String[]{""};
+
+    private final String[] lines;
+    /**
+     * Items of the lines, {@code null} for lines that end within a quoted item.
+     */
+    private final String[][] lineItems;
+    private final LocalData data;
+    private final boolean blSkip;
+    private final boolean parallel;
+    private int nextLine;
+
+    ParallelScan(String[] lines, int columns, LocalData data, boolean blSkip) {
+        this.lines = lines;
+        this.lineItems = new String[lines.length][];
+        this.data = data;
+        this.blSkip = blSkip;
+        int threshold = RContext.getInstance().getNonNegativeIntOption(FastROptions.ParallelThreshold);
+        this.parallel = (long) lines.length * columns >= threshold;
+        runInChunks(lines.length, parallel, (from, to) -> {
+            LocalData workerData = data.forWorker();
+            for (int i = from; i < to; i++) {
+                GetQuotedItemsResult result = Scan.tokenize(workerData, 0, lines[i]);
+                lineItems[i] = result == null ? null : result.items;
+            }
+        });
+    }
+
+    @TruffleBoundary
+    static boolean isApplicable(RConnection conn, int maxRecords, int maxLines) {
+        // the records and lines limits require to stop reading at the exact position
+        int threshold = RContext.getInstance().getNonNegativeIntOption(FastROptions.ParallelThreshold);
+        return threshold > 0 && maxRecords == 0 && maxLines == 0 && ForkJoinPool.getCommonPoolParallelism() > 1 && conn.isSeekable();
+    }
+
+    /**
+     * Returns the items of the next line like {@code Scan.getItems}.
+     */
+    String[] nextItems() {
+        while (nextLine < lines.length) {
+            int i = nextLine++;
+            String[] items = lineItems[i];
+            if (items == null) {
+                // raises the error for the incomplete quoted item
+                Scan.getQuotedItems(data, 0, lines[i]);
+                throw RInternalError.shouldNotReachHere();
+            }
+            if (blSkip && items.length == 0) {
+                continue;
+            }
+            return items.length == 0 ? EMPTY_LINE_ITEMS : items;
+        }
+        return null;
+    }
+
+    /**
+     * Whether there are at least {@link FastROptions#ParallelThreshold} items, only then the
+     * records are converted by the store from {@link #createRecordStore}.
+     */
+    boolean isParallel() {
+        return parallel;
+    }
+
+    Scan.RecordStore createRecordStore(RList list, NACheck naCheck) {
+        assert parallel;
+        return new DeferredRecordStore(list, naCheck);
+    }
+
+    private interface ChunkTask {
+        void run(int from, int to);
+    }
+
+    private static void runInChunks(int length, boolean parallel, ChunkTask task) {
+        if (!parallel || length < 2 * MIN_CHUNK_LENGTH) {
+            task.run(0, length);
+            return;
+        }
+        int chunkLength = Math.max(MIN_CHUNK_LENGTH, length / (ForkJoinPool.getCommonPoolParallelism() * 4) + 1);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int from = 0; from < length; from += chunkLength) {
+            int start = from;
+            int end = Math.min(length, from + chunkLength);
+            tasks.add(ForkJoinPool.commonPool().submit(() -> task.run(start, end)));
+        }
+        for (ForkJoinTask<?> t : tasks) {
+            t.join();
+        }
+    }
+
+    /**
+     * Keeps the items of the records as strings and converts them once all the records are
+     * assembled.
+     */
+    private final class DeferredRecordStore extends Scan.RecordStore {
+        private final RList list;
+        private final NACheck naCheck;
+        private final RType[] types;
+        private String[][] items;
+        private int records;
+
+        DeferredRecordStore(RList list, NACheck naCheck) {
+            this.list = list;
+            this.naCheck = naCheck;
+            this.types = new RType[list.getLength()];
+            this.items = new String[types.length][];
+            int capacity = Math.max(lines.length, 1);
+            for (int i = 0; i < types.length; i++) {
+                types[i] = ((RAbstractVector) list.getDataAt(i)).getRType();
+                items[i] = new String[capacity];
+            }
+        }
+
+        @Override
+        void set(int column, int record, String item) {
+            if (record == items[column].length) {
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = Arrays.copyOf(items[i], record * 2);
+                }
+            }
+            items[column][record] = item;
+            records = Math.max(records, record + 1);
+        }
+
+        /**
+         * Converts the items of all the columns, raising the error of the first item in the order
+         * of the sequential scan that cannot be converted.
+         */
+        private Object[][] convert(int count) {
+            Object[][] values = new Object[types.length][count];
+            AtomicIntegerArray firstFailures = new AtomicIntegerArray(types.length);
+            for (int i = 0; i < types.length; i++) {
+                firstFailures.set(i, Integer.MAX_VALUE);
+            }
+            runInChunks(count, parallel, (from, to) -> {
+                LocalData workerData = data.forWorker();
+                for (int c = 0; c < types.length; c++) {
+                    for (int r = from; r < to; r++) {
+                        String item = items[c][r];
+                        if (item != null) {
+                            try {
+                                values[c][r] = Scan.convertItem(types[c], item, workerData);
+                            } catch (RuntimeException e) {
+                                firstFailures.accumulateAndGet(c, r, Math::min);
+                                break;
+                            }
+                        }
+                    }
+                }
+            });
+            int failedRecord = Integer.MAX_VALUE;
+            int failedColumn = -1;
+            for (int c = 0; c < types.length; c++) {
+                if (firstFailures.get(c) < failedRecord) {
+                    failedRecord = firstFailures.get(c);
+                    failedColumn = c;
+                }
+            }
+            if (failedColumn != -1) {
+                Scan.extractItem((RAbstractVector) list.getDataAt(failedColumn), items[failedColumn][failedRecord], data);
+                throw RInternalError.shouldNotReachHere("item conversion failed only in a worker thread");
+            }
+            return values;
+        }
+
+        @Override
+        void beforeError() {
+            convert(records);
+        }
+
+        @Override
+        RList finish(int count) {
+            Object[][] values = convert(count);
+            items = null;
+            for (int c = 0; c < types.length; c++) {
+                RAbstractVector vec = ((RAbstractVector) list.getDataAt(c)).createEmptySameType(count, RDataFactory.COMPLETE_VECTOR);
+                Object[] columnValues = values[c];
+                for (int r = 0; r < count; r++) {
+                    vec.updateDataAtAsObject(r, columnValues[r], naCheck);
+                }
+                list.updateDataAt(c, vec, null);
+            }
+            return list;
+        }
+    }
+}
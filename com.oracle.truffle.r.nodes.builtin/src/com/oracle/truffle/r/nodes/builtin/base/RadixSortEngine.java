@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
+import com.oracle.truffle.r.runtime.RRuntime;
+
+/**
+ * Primitive specialized radix sort used by {@code .Internal(radixsort(...))}, see
+ * {@link SortFunctions.RadixSort}.
+ *
+ * Every key vector is first transformed into unsigned integral keys whose natural ordering is the
+ * requested ordering (including {@code decreasing}, which may differ per key). The values are
+ * range reduced, so that e.g. factor codes need a single counting pass. The index permutation is
+ * then sorted with a stable LSD radix sort, key by key starting with the last one, which gives the
+ * lexicographic multi-key ordering. NA values ({@code NA} and {@code NaN} for doubles) do not take
+ * part in the radix passes, they are stably moved to the beginning or to the end of the permutation
+ * (or removed altogether if {@code na.last = NA}).
+ *
+ * As in GnuR, strings are ordered in the C locale. If {@code sortStr} is {@code false}, strings are
+ * ordered by their first appearance, which is sufficient when only the groups are of interest.
+ */
+final class RadixSortEngine {
+
+    private static final int DIGIT_BITS = 8;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+
+    private abstract static class Key {
+        /**
+         * {@code null} if the key vector contains no NA values.
+         */
+        protected boolean[] na;
+
+        /**
+         * Stable sort of {@code o[0..len)}, none of the referenced elements is NA.
+         */
+        abstract void sort(int[] o, int len, int[] buf, int[] count);
+
+        /**
+         * Equality of two non-NA elements.
+         */
+        abstract boolean equal(int i, int j);
+
+        final boolean isNA(int i) {
+            return na != null && na[i];
+        }
+    }
+
+    private static final class IntKey extends Key {
+        /**
+         * Range reduced values, to be interpreted as unsigned integers.
+         */
+        private final int[] u;
+        private final int bits;
+
+        IntKey(int[] u, boolean[] na, int range) {
+            this.u = u;
+            this.na = na;
+            this.bits = Integer.SIZE - Integer.numberOfLeadingZeros(range);
+        }
+
+        @Override
+        void sort(int[] o, int len, int[] buf, int[] count) {
+            int[] src = o;
+            int[] dst = buf;
+            for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+                Arrays.fill(count, 0);
+                for (int i = 0; i < len; i++) {
+                    count[(u[src[i]] >>> shift) & DIGIT_MASK]++;
+                }
+                if (count[(u[src[0]] >>> shift) & DIGIT_MASK] == len) {
+                    // all elements share this digit
+                    continue;
+                }
+                toOffsets(count);
+                for (int i = 0; i < len; i++) {
+                    int idx = src[i];
+                    dst[count[(u[idx] >>> shift) & DIGIT_MASK]++] = idx;
+                }
+                int[] tmp = src;
+                src = dst;
+                dst = tmp;
+            }
+            if (src != o) {
+                System.arraycopy(src, 0, o, 0, len);
+            }
+        }
+
+        @Override
+        boolean equal(int i, int j) {
+            return u[i] == u[j];
+        }
+    }
+
+    private static final class LongKey extends Key {
+        /**
+         * Range reduced values, to be interpreted as unsigned longs.
+         */
+        private final long[] u;
+        private final int bits;
+
+        LongKey(long[] u, boolean[] na, long range) {
+            this.u = u;
+            this.na = na;
+            this.bits = Long.SIZE - Long.numberOfLeadingZeros(range);
+        }
+
+        @Override
+        void sort(int[] o, int len, int[] buf, int[] count) {
+            int[] src = o;
+            int[] dst = buf;
+            for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+                Arrays.fill(count, 0);
+                for (int i = 0; i < len; i++) {
+                    count[(int) (u[src[i]] >>> shift) & DIGIT_MASK]++;
+                }
+                if (count[(int) (u[src[0]] >>> shift) & DIGIT_MASK] == len) {
+                    continue;
+                }
+                toOffsets(count);
+                for (int i = 0; i < len; i++) {
+                    int idx = src[i];
+                    dst[count[(int) (u[idx] >>> shift) & DIGIT_MASK]++] = idx;
+                }
+                int[] tmp = src;
+                src = dst;
+                dst = tmp;
+            }
+            if (src != o) {
+                System.arraycopy(src, 0, o, 0, len);
+            }
+        }
+
+        @Override
+        boolean equal(int i, int j) {
+            return u[i] == u[j];
+        }
+    }
+
+    private static void toOffsets(int[] count) {
+        int sum = 0;
+        for (int d = 0; d < count.length; d++) {
+            int c = count[d];
+            count[d] = sum;
+            sum += c;
+        }
+    }
+
+    private final int n;
+    private final Key[] keys;
+    private int keyCount;
+
+    RadixSortEngine(int n, int nkeys) {
+        this.n = n;
+        this.keys = new Key[nkeys];
+    }
+
+    void addIntKey(int[] data, boolean decreasing) {
+        boolean[] na = null;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int x = data[i];
+            if (RRuntime.isNA(x)) {
+                if (na == null) {
+                    na = new boolean[n];
+                }
+                na[i] = true;
+            } else {
+                min = Math.min(min, x);
+                max = Math.max(max, x);
+            }
+        }
+        int[] u = new int[n];
+        if (min <= max) {
+            for (int i = 0; i < n; i++) {
+                // the wrap-around is intended, the result is an unsigned value
+                u[i] = decreasing ? max - data[i] : data[i] - min;
+            }
+        }
+        keys[keyCount++] = new IntKey(u, na, min <= max ? max - min : 0);
+    }
+
+    void addLogicalKey(byte[] data, boolean decreasing) {
+        boolean[] na = null;
+        int[] u = new int[n];
+        for (int i = 0; i < n; i++) {
+            byte x = data[i];
+            if (RRuntime.isNA(x)) {
+                if (na == null) {
+                    na = new boolean[n];
+                }
+                na[i] = true;
+            } else {
+                u[i] = (x == RRuntime.LOGICAL_TRUE) != decreasing ? 1 : 0;
+            }
+        }
+        keys[keyCount++] = new IntKey(u, na, 1);
+    }
+
+    void addDoubleKey(double[] data, boolean decreasing) {
+        boolean[] na = null;
+        long[] u = new long[n];
+        long min = -1L;
+        long max = 0L;
+        for (int i = 0; i < n; i++) {
+            double x = data[i];
+            if (Double.isNaN(x)) {
+                if (na == null) {
+                    na = new boolean[n];
+                }
+                na[i] = true;
+            } else {
+                // -0.0 == 0.0, so both get the bits of 0.0
+                long bits = Double.doubleToRawLongBits(x == 0.0 ? 0.0 : x);
+                // flip so that the unsigned ordering of the bits is the numeric ordering
+                bits = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+                u[i] = bits;
+                if (Long.compareUnsigned(bits, min) < 0) {
+                    min = bits;
+                }
+                if (Long.compareUnsigned(bits, max) > 0) {
+                    max = bits;
+                }
+            }
+        }
+        long range = 0;
+        if (Long.compareUnsigned(min, max) <= 0) {
+            range = max - min;
+            for (int i = 0; i < n; i++) {
+                if (na == null || !na[i]) {
+                    u[i] = decreasing ? max - u[i] : u[i] - min;
+                }
+            }
+        }
+        keys[keyCount++] = new LongKey(u, na, range);
+    }
+
+    /**
+     * Strings are replaced with their rank among the distinct values, which is then sorted as an
+     * integer key.
+     */
+    void addStringKey(String[] data, boolean decreasing, boolean sortStr) {
+        boolean[] na = null;
+        int[] u = new int[n];
+        String[] uniques = new String[16];
+        NonRecursiveHashMapCharacter ids = new NonRecursiveHashMapCharacter(uniques.length);
+        int uniqueCount = 0;
+        for (int i = 0; i < n; i++) {
+            String x = data[i];
+            if (RRuntime.isNA(x)) {
+                if (na == null) {
+                    na = new boolean[n];
+                }
+                na[i] = true;
+                continue;
+            }
+            int id = ids.get(x);
+            if (id < 0) {
+                id = uniqueCount++;
+                if (id == uniques.length) {
+                    uniques = Arrays.copyOf(uniques, uniques.length * 2);
+                    // the hash map has a fixed capacity
+                    ids = rehash(uniques, id);
+                }
+                uniques[id] = x;
+                ids.put(x, id);
+            }
+            u[i] = id;
+        }
+        if (sortStr && uniqueCount > 1) {
+            String[] sorted = Arrays.copyOf(uniques, uniqueCount);
+            Arrays.sort(sorted);
+            NonRecursiveHashMapCharacter ranks = new NonRecursiveHashMapCharacter(uniqueCount);
+            for (int r = 0; r < uniqueCount; r++) {
+                ranks.put(sorted[r], r);
+            }
+            int[] rankOfId = new int[uniqueCount];
+            for (int id = 0; id < uniqueCount; id++) {
+                rankOfId[id] = ranks.get(uniques[id]);
+            }
+            for (int i = 0; i < n; i++) {
+                u[i] = rankOfId[u[i]];
+            }
+        }
+        if (decreasing) {
+            for (int i = 0; i < n; i++) {
+                u[i] = uniqueCount - 1 - u[i];
+            }
+        }
+        keys[keyCount++] = new IntKey(u, na, Math.max(uniqueCount - 1, 0));
+    }
+
+    private static NonRecursiveHashMapCharacter rehash(String[] uniques, int count) {
+        NonRecursiveHashMapCharacter result = new NonRecursiveHashMapCharacter(uniques.length);
+        for (int id = 0; id < count; id++) {
+            result.put(uniques[id], id);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the (zero based) ordering permutation.
+     *
+     * @param naLast {@link RRuntime#LOGICAL_TRUE} or {@link RRuntime#LOGICAL_FALSE} to place NAs
+     *            last or first, {@link RRuntime#LOGICAL_NA} to remove elements that are NA in any
+     *            of the keys.
+     */
+    int[] order(byte naLast) {
+        assert keyCount == keys.length;
+        int[] o;
+        if (RRuntime.isNA(naLast)) {
+            o = removeNAs();
+        } else {
+            o = new int[n];
+            for (int i = 0; i < n; i++) {
+                o[i] = i;
+            }
+        }
+        int len = o.length;
+        if (len < 2) {
+            return o;
+        }
+        boolean last = naLast == RRuntime.LOGICAL_TRUE;
+        int[] buf = new int[len];
+        int[] count = new int[1 << DIGIT_BITS];
+        for (int k = keyCount - 1; k >= 0; k--) {
+            Key key = keys[k];
+            int nonNA = len;
+            int numNA = 0;
+            if (key.na != null) {
+                // stable partition, the NAs are collected in buf
+                nonNA = 0;
+                for (int i = 0; i < len; i++) {
+                    int idx = o[i];
+                    if (key.na[idx]) {
+                        buf[numNA++] = idx;
+                    } else {
+                        o[nonNA++] = idx;
+                    }
+                }
+                if (numNA > 0) {
+                    if (last) {
+                        System.arraycopy(buf, 0, o, nonNA, numNA);
+                    } else {
+                        System.arraycopy(o, 0, o, numNA, nonNA);
+                        System.arraycopy(buf, 0, o, 0, numNA);
+                    }
+                }
+            }
+            if (nonNA > 1) {
+                if (last || numNA == 0) {
+                    key.sort(o, nonNA, buf, count);
+                } else {
+                    int[] tail = Arrays.copyOfRange(o, numNA, len);
+                    key.sort(tail, nonNA, buf, count);
+                    System.arraycopy(tail, 0, o, numNA, nonNA);
+                }
+            }
+        }
+        return o;
+    }
+
+    private int[] removeNAs() {
+        boolean[] anyNA = null;
+        for (int k = 0; k < keyCount; k++) {
+            boolean[] na = keys[k].na;
+            if (na != null) {
+                if (anyNA == null) {
+                    anyNA = na.clone();
+                } else {
+                    for (int i = 0; i < n; i++) {
+                        anyNA[i] |= na[i];
+                    }
+                }
+            }
+        }
+        int count = n;
+        if (anyNA != null) {
+            for (int i = 0; i < n; i++) {
+                if (anyNA[i]) {
+                    count--;
+                }
+            }
+        }
+        int[] o = new int[count];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (anyNA == null || !anyNA[i]) {
+                o[j++] = i;
+            }
+        }
+        return o;
+    }
+
+    /**
+     * Given the result of {@link #order(byte)}, computes the one based positions in {@code o} where
+     * a new group of equal keys starts.
+     */
+    int[] groupStarts(int[] o) {
+        int[] starts = new int[Math.min(o.length, 16)];
+        int count = 0;
+        for (int i = 0; i < o.length; i++) {
+            if (i == 0 || !sameGroup(o[i - 1], o[i])) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, Math.min(o.length, starts.length * 2));
+                }
+                starts[count++] = i + 1;
+            }
+        }
+        return count == starts.length ? starts : Arrays.copyOf(starts, count);
+    }
+
+    private boolean sameGroup(int i, int j) {
+        for (int k = 0; k < keyCount; k++) {
+            Key key = keys[k];
+            boolean naI = key.isNA(i);
+            if (naI != key.isNA(j) || (!naI && !key.equal(i, j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int maxGroupSize(int[] starts, int len) {
+        int max = 0;
+        for (int g = 0; g < starts.length; g++) {
+            int end = g + 1 < starts.length ? starts[g + 1] : len + 1;
+            max = Math.max(max, end - starts[g]);
+        }
+        return max;
+    }
+}
@@ -42,6 +42,10 @@ public abstract class RowMeans extends RowSumsBase {
     @Specialization(limit = "getTypedVectorDataLibraryCacheSize()")
     protected RDoubleVector rowMeans(RDoubleVector x, int rowNum, int colNum, boolean naRm,
                     @CachedLibrary("x.getData()") VectorDataLibrary dataLib) {
+        if (isParallel(rowNum, colNum)) {
+            checkVectorLength(dataLib, x, rowNum, colNum);
+            return ParallelMatrixSums.rowSums(x.getReadonlyData(), rowNum, colNum, naRm, true);
+        }
         return accumulateRows(dataLib, x.getData(), rowNum, colNum, naRm, TransformMean.INSTANCE);
     }
 
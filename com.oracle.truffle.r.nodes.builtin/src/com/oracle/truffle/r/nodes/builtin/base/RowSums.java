@@ -41,6 +41,10 @@ public abstract class RowSums extends RowSumsBase {
     @Specialization(limit = "getTypedVectorDataLibraryCacheSize()")
     protected RDoubleVector rowSums(RDoubleVector x, int rowNum, int colNum, boolean naRm,
                     @CachedLibrary("x.getData()") VectorDataLibrary dataLib) {
+        if (isParallel(rowNum, colNum)) {
+            checkVectorLength(dataLib, x, rowNum, colNum);
+            return ParallelMatrixSums.rowSums(x.getReadonlyData(), rowNum, colNum, naRm, false);
+        }
         return accumulateRows(dataLib, x.getData(), rowNum, colNum, naRm, SelectSum.INSTANCE);
     }
 
@@ -51,6 +51,7 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.conn.RConnection;
 import com.oracle.truffle.r.runtime.conn.RConnection.ReadLineWarning;
@@ -86,9 +87,9 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
     }
 
     @SuppressWarnings("unused")
-    private static class LocalData {
+    static class LocalData {
         final HashMap<String, String> stringTable = new HashMap<>();
-        RStringVector naStrings = null;
+        String[] naStrings = null;
         boolean quiet = false;
         char sepchar = 0; // 0 means any whitespace
         char decchar = '.';
@@ -106,9 +107,94 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         boolean atStart = false;
         boolean embedWarn = false;
         boolean skipNull = false;
+
+        /**
+         * Creates a copy of the settings used by the tokenizer and the conversion of the items
+         * with a separate string table, so that it can be used by another thread.
+         */
+        LocalData forWorker() {
+            LocalData copy = new LocalData();
+            copy.naStrings = naStrings;
+            copy.sepchar = sepchar;
+            copy.decchar = decchar;
+            copy.quoteset = quoteset;
+            copy.comchar = comchar;
+            copy.escapes = escapes;
+            return copy;
+        }
+    }
+
+    /**
+     * Supplies the items of the subsequent lines to {@link #scanFrameInternal}, {@code null} at the
+     * end of the input.
+     */
+    interface LineItems {
+        String[] next() throws IOException;
+    }
+
+    /**
+     * Collects the items of the records assembled by {@link #scanFrameInternal}. The items are
+     * either converted and stored right away or, by {@link ParallelScan}, kept as strings and
+     * converted once all the records are known.
+     */
+    abstract static class RecordStore {
+        abstract void set(int column, int record, String item);
+
+        /**
+         * Called before an error found while assembling the records is reported, so that the
+         * errors of the items collected so far take precedence.
+         */
+        void beforeError() {
+            // nothing to do by default
+        }
+
+        /**
+         * Returns the list of the column vectors trimmed to {@code records} elements.
+         */
+        abstract RList finish(int records);
     }
 
-    private static class GetQuotedItemsResult {
+    private final class ConvertingRecordStore extends RecordStore {
+        private final RList list;
+        private final LocalData data;
+        private int blockSize;
+
+        ConvertingRecordStore(RList list, LocalData data, int blockSize) {
+            this.list = list;
+            this.data = data;
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        void set(int column, int record, String item) {
+            Object value = extractItem((RAbstractVector) list.getDataAt(column), item, data);
+            if (record == blockSize) {
+                // enlarge the vector
+                blockSize = blockSize * 2;
+                for (int j = 0; j < list.getLength(); j++) {
+                    RAbstractVector vec = (RAbstractVector) list.getDataAt(j);
+                    vec = vec.copyResized(blockSize, false);
+                    list.updateDataAt(j, vec, null);
+                }
+            }
+            RAbstractVector vec = (RAbstractVector) list.getDataAt(column);
+            vec.updateDataAtAsObject(record, value, naCheck);
+        }
+
+        @Override
+        RList finish(int records) {
+            // trim vectors if necessary
+            for (int i = 0; i < list.getLength(); i++) {
+                RAbstractVector vec = (RAbstractVector) list.getDataAt(i);
+                if (vec.getLength() > records) {
+                    list.updateDataAt(i, vec.copyResized(records, false), null);
+                }
+            }
+            return list;
+        }
+    }
+
+    static class GetQuotedItemsResult {
         final String[] items;
         final int pos;
 
@@ -179,7 +265,7 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         // TODO: some sort of character translation happens here?
         data.quoteset = quotes.toCharArray();
 
-        data.naStrings = naStringsVec;
+        data.naStrings = naStringsVec.getReadonlyStringData();
 
         if (stripVec.getLength() != 1 && stripVec.getLength() != what.getLength()) {
             throw error(RError.Message.INVALID_LENGTH, "strip.white");
@@ -237,7 +323,18 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         return false;
     }
 
-    private static GetQuotedItemsResult getQuotedItems(LocalData data, int maxItems, String s) {
+    static GetQuotedItemsResult getQuotedItems(LocalData data, int maxItems, String s) {
+        GetQuotedItemsResult result = tokenize(data, maxItems, s);
+        if (result == null) {
+            throw RError.error(RError.SHOW_CALLER, Message.INCOMPLETE_FINAL_LINE, s);
+        }
+        return result;
+    }
+
+    /**
+     * Splits the line into items, returns {@code null} if the line ends within a quoted item.
+     */
+    static GetQuotedItemsResult tokenize(LocalData data, int maxItems, String s) {
         ArrayList<String> items = new ArrayList<>();
 
         char sepchar = data.sepchar;
@@ -269,7 +366,7 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
                 pos++;
                 while (true) {
                     if (pos == length) {
-                        throw RError.error(RError.SHOW_CALLER, Message.INCOMPLETE_FINAL_LINE, s);
+                        return null;
                     }
                     ch = s.charAt(pos++);
                     if (ch == quoteStart) {
@@ -315,10 +412,9 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         }
     }
 
-    private void fillEmpty(int from, int to, int records, RList list, LocalData data) {
+    private static void fillEmpty(int from, int to, int records, RecordStore store) {
         for (int i = from; i < to; i++) {
-            RAbstractVector vec = (RAbstractVector) list.getDataAt(i);
-            vec.updateDataAtAsObject(records, extractItem(vec, "", data), naCheck);
+            store.set(i, records, "");
         }
     }
 
@@ -344,101 +440,93 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
 
         naCheck.enable(true);
 
-        return scanFrameInternal(maxRecords, maxLines, flush, fill, blSkip, multiLine, data, nc, blockSize, list);
+        if (ParallelScan.isApplicable(data.con, maxRecords, maxLines)) {
+            String[] lines = data.con.readLines(-1, EnumSet.of(ReadLineWarning.EMBEDDED_NUL), false);
+            ParallelScan parallelScan = new ParallelScan(lines, nc, data, blSkip);
+            // below the threshold, keeping all the items as strings until the end is not worth it
+            RecordStore store = parallelScan.isParallel() ? parallelScan.createRecordStore(list, naCheck) : new ConvertingRecordStore(list, data, blockSize);
+            return scanFrameInternal(maxRecords, maxLines, flush, fill, multiLine, data, nc, parallelScan::nextItems, store);
+        }
+        return scanFrameInternal(maxRecords, maxLines, flush, fill, multiLine, data, nc, () -> getItems(data, maxRecords, blSkip), new ConvertingRecordStore(list, data, blockSize));
     }
 
     @TruffleBoundary
-    private RAbstractVector scanFrameInternal(int maxRecords, int maxLines, boolean flush, boolean fill, boolean blSkip, boolean multiLine, LocalData data, int nc, int initialBlockSize, RList list)
+    private RAbstractVector scanFrameInternal(int maxRecords, int maxLines, boolean flush, boolean fill, boolean multiLine, LocalData data, int nc, LineItems source, RecordStore store)
                     throws IOException {
-        int blockSize = initialBlockSize;
         int n = 0;
         int lines = 0;
         int records = 0;
-        while (true) {
-            // TODO: does not do any fancy stuff, like handling comments
-            String[] strItems = getItems(data, maxRecords, blSkip);
-            if (strItems == null) {
-                break;
-            }
+        try {
+            while (true) {
+                // TODO: does not do any fancy stuff, like handling comments
+                String[] strItems = source.next();
+                if (strItems == null) {
+                    break;
+                }
 
-            boolean done = false;
-            for (int i = 0; i < Math.max(nc, strItems.length); i++) {
+                boolean done = false;
+                for (int i = 0; i < Math.max(nc, strItems.length); i++) {
 
-                if (n == strItems.length) {
-                    if (fill) {
-                        fillEmpty(n, nc, records, list, data);
+                    if (n == strItems.length) {
+                        if (fill) {
+                            fillEmpty(n, nc, records, store);
+                            records++;
+                            n = 0;
+                            break;
+                        } else if (!multiLine) {
+                            throw error(RError.Message.LINE_ELEMENTS, lines + 1, nc);
+                        } else {
+                            strItems = source.next();
+                            // Checkstyle: stop modified control variable check
+                            i = 0;
+                            // Checkstyle: resume modified control variable check
+                            if (strItems == null) {
+                                done = true;
+                                break;
+                            }
+                        }
+                    }
+                    store.set(n, records, strItems[i]);
+                    n++;
+                    if (n == nc) {
                         records++;
                         n = 0;
-                        break;
-                    } else if (!multiLine) {
-                        throw error(RError.Message.LINE_ELEMENTS, lines + 1, nc);
-                    } else {
-                        strItems = getItems(data, maxRecords, blSkip);
-                        // Checkstyle: stop modified control variable check
-                        i = 0;
-                        // Checkstyle: resume modified control variable check
-                        if (strItems == null) {
+                        if (records == maxRecords) {
                             done = true;
                             break;
                         }
+                        if (flush) {
+                            break;
+                        }
                     }
                 }
-                Object item = extractItem((RAbstractVector) list.getDataAt(n), strItems[i], data);
-
-                if (records == blockSize) {
-                    // enlarge the vector
-                    blockSize = blockSize * 2;
-                    for (int j = 0; j < nc; j++) {
-                        RAbstractVector vec = (RAbstractVector) list.getDataAt(j);
-                        vec = vec.copyResized(blockSize, false);
-                        list.updateDataAt(j, vec, null);
-                    }
+                if (done) {
+                    break;
                 }
-
-                RAbstractVector vec = (RAbstractVector) list.getDataAt(n);
-                vec.updateDataAtAsObject(records, item, naCheck);
-                n++;
-                if (n == nc) {
-                    records++;
-                    n = 0;
-                    if (records == maxRecords) {
-                        done = true;
-                        break;
-                    }
-                    if (flush) {
-                        break;
-                    }
+                lines++;
+                if (lines == maxLines) {
+                    break;
                 }
             }
-            if (done) {
-                break;
-            }
-            lines++;
-            if (lines == maxLines) {
-                break;
-            }
+        } catch (RError e) {
+            store.beforeError();
+            throw e;
         }
 
-        if (n > 0 && n < nc) {
-            if (!fill) {
-                warning(RError.Message.ITEMS_NOT_MULTIPLE);
-            }
-            fillEmpty(n, nc, records, list, data);
+        boolean incompleteRecord = n > 0 && n < nc;
+        if (incompleteRecord) {
+            fillEmpty(n, nc, records, store);
             records++;
         }
+        RList list = store.finish(records);
+        if (incompleteRecord && !fill) {
+            warning(RError.Message.ITEMS_NOT_MULTIPLE);
+        }
 
         if (!data.quiet) {
             String s = String.format("Read %d record%s", records, (records == 1) ? "" : "s");
             StdConnections.getStdout().writeString(s, true);
         }
-        // trim vectors if necessary
-        for (int i = 0; i < nc; i++) {
-            RAbstractVector vec = (RAbstractVector) list.getDataAt(i);
-            if (vec.getLength() > records) {
-                list.updateDataAt(i, vec.copyResized(records, false), null);
-            }
-        }
-
         return list;
     }
 
@@ -501,59 +589,67 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         if (mode == 0 && buffer.length() == 0) {
             return true;
         }
-        for (i = 0; i < data.naStrings.getLength(); i++) {
-            if (data.naStrings.getDataAt(i).equals(buffer)) {
+        for (i = 0; i < data.naStrings.length; i++) {
+            if (data.naStrings[i].equals(buffer)) {
                 return true;
             }
         }
         return false;
     }
 
-    private static Object extractItem(RAbstractVector what, String buffer, LocalData data) {
+    static Object extractItem(RAbstractVector what, String buffer, LocalData data) {
         try {
-            switch (what.getRType()) {
-                case Logical:
-                    if (isNaString(buffer, 0, data)) {
-                        return RRuntime.LOGICAL_NA;
-                    } else {
-                        return RRuntime.string2logicalNoCheck(buffer);
-                    }
-                case Integer:
-                    if (isNaString(buffer, 0, data)) {
-                        return RRuntime.INT_NA;
-                    } else {
-                        return RRuntime.parseInt(buffer);
-                    }
-                case Double:
-                    if (isNaString(buffer, 0, data)) {
-                        return RRuntime.DOUBLE_NA;
-                    } else {
-                        return RRuntime.string2doubleNoCheck(buffer);
-                    }
-                case Complex:
-                    if (isNaString(buffer, 0, data)) {
-                        return RRuntime.COMPLEX_NA;
-                    } else {
-                        return RRuntime.string2complexNoCheck(buffer);
-                    }
-                case Character:
-                    if (isNaString(buffer, 1, data)) {
-                        return RRuntime.STRING_NA;
-                    } else {
-                        String oldEntry = data.stringTable.putIfAbsent(buffer, buffer);
-                        return oldEntry == null ? buffer : oldEntry;
-                    }
-                case Raw:
-                    if (isNaString(buffer, 0, data)) {
-                        return RRaw.valueOf((byte) 0);
-                    } else {
-                        return RRuntime.string2raw(buffer);
-                    }
-                default:
-                    throw RInternalError.shouldNotReachHere();
-            }
+            return convertItem(what.getRType(), buffer, data);
         } catch (NumberFormatException e) {
             throw RError.error(RError.SHOW_CALLER, Message.SCAN_UNEXPECTED, what.getRType().getName(), buffer);
         }
     }
+
+    /**
+     * Converts the item to the given type, throws {@link NumberFormatException} if the
+     * item does not represent a value of that type. Does not depend on the context.
+     */
+    static Object convertItem(RType type, String buffer, LocalData data) {
+        switch (type) {
+            case Logical:
+                if (isNaString(buffer, 0, data)) {
+                    return RRuntime.LOGICAL_NA;
+                } else {
+                    return RRuntime.string2logicalNoCheck(buffer);
+                }
+            case Integer:
+                if (isNaString(buffer, 0, data)) {
+                    return RRuntime.INT_NA;
+                } else {
+                    return RRuntime.parseInt(buffer);
+                }
+            case Double:
+                if (isNaString(buffer, 0, data)) {
+                    return RRuntime.DOUBLE_NA;
+                } else {
+                    return RRuntime.string2doubleNoCheck(buffer);
+                }
+            case Complex:
+                if (isNaString(buffer, 0, data)) {
+                    return RRuntime.COMPLEX_NA;
+                } else {
+                    return RRuntime.string2complexNoCheck(buffer);
+                }
+            case Character:
+                if (isNaString(buffer, 1, data)) {
+                    return RRuntime.STRING_NA;
+                } else {
+                    String oldEntry = data.stringTable.putIfAbsent(buffer, buffer);
+                    return oldEntry == null ? buffer : oldEntry;
+                }
+            case Raw:
+                if (isNaString(buffer, 0, data)) {
+                    return RRaw.valueOf((byte) 0);
+                } else {
+                    return RRuntime.string2raw(buffer);
+                }
+            default:
+                throw RInternalError.shouldNotReachHere();
+        }
+    }
 }
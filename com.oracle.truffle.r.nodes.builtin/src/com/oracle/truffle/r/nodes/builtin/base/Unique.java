@@ -39,8 +39,10 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
-import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSet;
-import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetDouble;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.ComplexTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.DoubleTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.IntTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.StringTable;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RRuntime;
@@ -59,9 +61,6 @@ import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
 
 @RBuiltin(name = "unique", kind = INTERNAL, parameterNames = {"x", "incomparables", "fromLast", "nmax"}, behavior = PURE)
-// TODO A more efficient implementation is in order; GNU R uses hash tables so perhaps we should
-// consider using one of the existing libraries that offer hash table implementations for primitive
-// types
 public abstract class Unique extends RBuiltinNode.Arg4 {
 
     private static final long BIG_THRESHOLD = 100;
@@ -97,13 +96,13 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         int vecLength = vecLib.getLength(vecData);
         reportWork(vecLength);
         if (bigProfile.profile(vecLength * (long) vecLength > BIG_THRESHOLD)) {
-            NonRecursiveHashSet<String> set = new NonRecursiveHashSet<>(vecLength);
+            StringTable set = new StringTable(vecLength);
             String[] data = new String[vecLength];
             int ind = 0;
             SeqIterator it = vecLib.iterator(vecData);
             while (vecLib.nextLoopCondition(vecData, it)) {
                 String val = vecLib.getNextString(vecData, it);
-                if (!set.add(val)) {
+                if (set.putIfAbsent(val, ind) < 0) {
                     data[ind++] = val;
                 }
             }
@@ -261,13 +260,13 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         int vecLength = vecLib.getLength(vecData);
         reportWork(vecLength);
         if (bigProfile.profile(vecLength * (long) vecLength > BIG_THRESHOLD)) {
-            NonRecursiveHashSetInt set = new NonRecursiveHashSetInt();
+            IntTable set = new IntTable(16);
             int[] data = new int[16];
             int ind = 0;
             SeqIterator it = vecLib.iterator(vecData);
             while (vecLib.nextLoopCondition(vecData, it)) {
                 int val = vecLib.getNextInt(vecData, it);
-                if (!set.add(val)) {
+                if (set.putIfAbsent(val, ind) < 0) {
                     if (ind == data.length) {
                         data = Arrays.copyOf(data, data.length << 1);
                     }
@@ -336,66 +335,17 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         return list.getLength() == 1;
     }
 
-    private static final class NonRecursiveHashSetInt {
-
-        private int[] keys;
-        private int size;
-        private boolean containsZero;
-
-        NonRecursiveHashSetInt() {
-            keys = new int[64];
-        }
-
-        public boolean add(int key) {
-            if (key == 0) {
-                if (containsZero) {
-                    return true;
-                } else {
-                    containsZero = true;
-                    return false;
-                }
-            }
-            int ind = Math.abs(Integer.hashCode(key)) & (keys.length - 1);
-            while (true) {
-                if (keys[ind] == 0) {
-                    keys[ind] = key;
-                    size++;
-                    if (size << 1 == keys.length) {
-                        int[] newKeys = new int[keys.length << 1];
-                        for (int rehashKey : keys) {
-                            if (rehashKey != 0) {
-                                int tmpInd = Math.abs(Integer.hashCode(rehashKey)) & (newKeys.length - 1);
-                                while (newKeys[tmpInd] != 0) {
-                                    assert newKeys[tmpInd] != rehashKey;
-                                    tmpInd = (tmpInd + 1) & (newKeys.length - 1);
-                                }
-                                newKeys[tmpInd] = rehashKey;
-                            }
-                        }
-
-                        keys = newKeys;
-                    }
-                    return false;
-                } else if (key == keys[ind]) {
-                    return true;
-                } else {
-                    ind = (ind + 1) & (keys.length - 1);
-                }
-            }
-        }
-    }
-
     @SuppressWarnings("unused")
     @Specialization
     protected RDoubleVector doUnique(RDoubleVector vec, byte incomparables, byte fromLast, int nmax) {
         reportWork(vec.getLength());
         if (bigProfile.profile(vec.getLength() * (long) vec.getLength() > BIG_THRESHOLD)) {
-            NonRecursiveHashSetDouble set = new NonRecursiveHashSetDouble(vec.getLength());
+            DoubleTable set = new DoubleTable(vec.getLength());
             double[] data = new double[vec.getLength()];
             int ind = 0;
             for (int i = 0; i < vec.getLength(); i++) {
                 double val = vec.getDataAt(i);
-                if (!set.add(val)) {
+                if (set.putIfAbsent(val, ind) < 0) {
                     data[ind++] = val;
                 }
             }
@@ -431,12 +381,12 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
     protected RComplexVector doUnique(RComplexVector vec, byte incomparables, byte fromLast, int nmax) {
         reportWork(vec.getLength());
         if (bigProfile.profile(vec.getLength() * (long) vec.getLength() > BIG_THRESHOLD)) {
-            NonRecursiveHashSet<RComplex> set = new NonRecursiveHashSet<>(vec.getLength());
+            ComplexTable set = new ComplexTable(vec.getLength());
             double[] data = new double[vec.getLength() * 2];
             int ind = 0;
             for (int i = 0; i < vec.getLength(); i++) {
                 RComplex val = vec.getDataAt(i);
-                if (!set.add(val)) {
+                if (set.putIfAbsent(val, i) < 0) {
                     data[ind++] = val.getRealPart();
                     data[ind++] = val.getImaginaryPart();
                 }
@@ -35,6 +35,8 @@ import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.NodeCost;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.IntTable;
+import com.oracle.truffle.r.runtime.data.MatchIndexCache;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
@@ -165,6 +167,7 @@ public abstract class IntersectFastPath extends RFastPathNode {
                     @CachedLibrary(value = "y.getData()") VectorDataLibrary yLib,
                     @Cached("createBinaryProfile()") ConditionProfile isXSortedProfile,
                     @Cached("createBinaryProfile()") ConditionProfile isYSortedProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile cachedIndexProfile,
                     @Cached("create(false)") IntersectSortedNode intersectSortedNode) {
         Object xData = x.getData();
         Object yData = y.getData();
@@ -176,7 +179,9 @@ public abstract class IntersectFastPath extends RFastPathNode {
         RBaseNode.reportWork(this, xLength + yLength);
 
         int[] result;
-        if (isXSortedProfile.profile(isSorted(xLib, xData))) {
+        boolean isXSorted = isXSortedProfile.profile(isSorted(xLib, xData));
+        IntTable yIndex = isXSorted ? null : MatchIndexCache.getIntIndex(y, true);
+        if (isXSorted) {
             RIntVector tempY;
             if (isYSortedProfile.profile(isSorted(yLib, yData))) {
                 tempY = y;
@@ -189,6 +194,21 @@ public abstract class IntersectFastPath extends RFastPathNode {
                 tempY = RDataFactory.createIntVector(temp, yLib.isComplete(yData));
             }
             result = intersectSortedNode.execute(x, tempY);
+        } else if (cachedIndexProfile.profile(yIndex != null)) {
+            result = EMPTY_INT_ARRAY;
+            int maxResultLength = Math.min(xLength, yLength);
+            IntTable used = new IntTable(maxResultLength);
+            int count = 0;
+            for (int i = 0; i < xLength; i++) {
+                int value = xLib.getInt(xData, xrit, i);
+                if (yIndex.contains(value) && used.putIfAbsent(value, i) < 0) {
+                    if (count >= result.length) {
+                        result = Arrays.copyOf(result, Math.min(maxResultLength, Math.max(result.length * 2, 8)));
+                    }
+                    result[count++] = value;
+                }
+            }
+            result = intersectSortedNode.resultLengthMatchProfile.profile(count == result.length) ? result : Arrays.copyOf(result, count);
         } else {
             result = EMPTY_INT_ARRAY;
             int maxResultLength = Math.min(xLength, yLength);
@@ -30,7 +30,12 @@ import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.DoubleTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.IntTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.StringTable;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.MatchIndexCache;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RIntSeqVectorData;
 import com.oracle.truffle.r.runtime.data.RIntVector;
@@ -45,14 +50,21 @@ public abstract class IsElementFastPath extends RFastPathNode {
     protected Byte iselementOneCachedString(RStringVector el, RStringVector set,
                     @CachedLibrary("el.getData()") VectorDataLibrary elLib,
                     @CachedLibrary("set.getData()") VectorDataLibrary setLib,
+                    @Cached("createBinaryProfile()") ConditionProfile cachedIndexProfile,
                     @Cached("create()") BranchProfile trueProfile,
                     @Cached("create()") BranchProfile falseProfile) {
         Object elData = el.getData();
         Object setData = set.getData();
         String element = elLib.getStringAt(elData, 0);
+        StringTable index = MatchIndexCache.getStringIndex(set, false);
+        if (cachedIndexProfile.profile(index != null)) {
+            return RRuntime.asLogical(index.contains(element));
+        }
+        boolean elementIsNA = RRuntime.isNA(element);
         VectorDataLibrary.SeqIterator it = setLib.iterator(setData);
         while (setLib.nextLoopCondition(setData, it)) {
-            if (element.equals(setLib.getNextString(setData, it))) {
+            String value = setLib.getNextString(setData, it);
+            if (element.equals(value) && elementIsNA == RRuntime.isNA(value)) {
                 trueProfile.enter();
                 return RRuntime.LOGICAL_TRUE;
             }
@@ -70,14 +82,20 @@ public abstract class IsElementFastPath extends RFastPathNode {
     protected Byte iselementOne(RDoubleVector el, RDoubleVector set,
                     @CachedLibrary("el.getData()") VectorDataLibrary elLib,
                     @CachedLibrary("set.getData()") VectorDataLibrary setLib,
+                    @Cached("createBinaryProfile()") ConditionProfile cachedIndexProfile,
                     @Cached("create()") BranchProfile trueProfile,
                     @Cached("create()") BranchProfile falseProfile) {
         Object elData = el.getData();
         Object setData = set.getData();
         double element = elLib.getDoubleAt(elData, 0);
+        DoubleTable index = MatchIndexCache.getDoubleIndex(set, false);
+        if (cachedIndexProfile.profile(index != null)) {
+            return RRuntime.asLogical(index.contains(element));
+        }
         VectorDataLibrary.SeqIterator it = setLib.iterator(setData);
         while (setLib.nextLoopCondition(setData, it)) {
-            if (element == setLib.getNextDouble(setData, it)) {
+            double value = setLib.getNextDouble(setData, it);
+            if (element == value || (Double.isNaN(element) && PrimitiveHashTables.canonicalBits(element) == PrimitiveHashTables.canonicalBits(value))) {
                 trueProfile.enter();
                 return RRuntime.LOGICAL_TRUE;
             }
@@ -99,11 +117,20 @@ public abstract class IsElementFastPath extends RFastPathNode {
     protected Byte isElementOne(RDoubleVector el, RIntVector set,
                     @CachedLibrary("el.getData()") VectorDataLibrary elLib,
                     @CachedLibrary("set.getData()") VectorDataLibrary setLib,
+                    @Cached("createBinaryProfile()") ConditionProfile cachedIndexProfile,
                     @Cached("create()") BranchProfile trueProfile,
                     @Cached("create()") BranchProfile falseProfile) {
         Object elData = el.getData();
         Object setData = set.getData();
         double element = elLib.getDoubleAt(elData, 0);
+        IntTable index = MatchIndexCache.getIntIndex(set, false);
+        if (cachedIndexProfile.profile(index != null)) {
+            if (RRuntime.isNA(element)) {
+                return RRuntime.asLogical(index.contains(RRuntime.INT_NA));
+            }
+            int intElement = (int) element;
+            return RRuntime.asLogical(intElement == element && !RRuntime.isNA(intElement) && index.contains(intElement));
+        }
 
         VectorDataLibrary.SeqIterator it = setLib.iterator(setData);
         while (setLib.nextLoopCondition(setData, it)) {
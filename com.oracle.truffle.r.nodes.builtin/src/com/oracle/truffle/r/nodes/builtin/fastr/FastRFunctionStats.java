@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.RVisibility.ON;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.instrument.FunctionStats;
+
+/**
+ * Returns the statistics collected when the {@code FunctionStats} option is enabled as a list with
+ * the elements {@code name}, {@code location}, {@code calls}, {@code time} (in seconds) and
+ * {@code histogram}, a matrix with one row per function and one column per latency bucket, named
+ * by the upper bound of the bucket in nanoseconds. If {@code reset} is {@code TRUE}, the
+ * statistics are cleared after they were read.
+ */
+@RBuiltin(name = ".fastr.funstats", visibility = ON, kind = PRIMITIVE, parameterNames = {"reset"}, behavior = IO)
+public abstract class FastRFunctionStats extends RBuiltinNode.Arg1 {
+
+    private static final String[] NAMES = new String[]{"name", "location", "calls", "time", "histogram"};
+
+    static {
+        Casts casts = new Casts(FastRFunctionStats.class);
+        casts.arg("reset").asLogicalVector().mustBe(singleElement()).findFirst().map(toBoolean());
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RRuntime.LOGICAL_FALSE};
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected RList funStats(boolean reset) {
+        List<FunctionStats.Snapshot> snapshot = FunctionStats.snapshot();
+        if (reset) {
+            FunctionStats.reset();
+        }
+        int n = snapshot.size();
+        int buckets = FunctionStats.HISTOGRAM_BUCKETS;
+        String[] name = new String[n];
+        String[] location = new String[n];
+        double[] calls = new double[n];
+        double[] time = new double[n];
+        double[] histogram = new double[n * buckets];
+        for (int i = 0; i < n; i++) {
+            FunctionStats.Snapshot s = snapshot.get(i);
+            name[i] = s.getName();
+            location[i] = s.getLocation();
+            calls[i] = s.getCalls();
+            time[i] = s.getTotalNanos() / 1E9;
+            long[] counts = s.getHistogram();
+            for (int j = 0; j < buckets; j++) {
+                // column-major
+                histogram[j * n + i] = counts[j];
+            }
+        }
+        String[] limits = new String[buckets];
+        for (int j = 0; j < buckets; j++) {
+            long limit = FunctionStats.getBucketLimit(j);
+            limits[j] = limit == Long.MAX_VALUE ? "Inf" : Long.toString(limit);
+        }
+        RList dimNames = RDataFactory.createList(new Object[]{RNull.instance, RDataFactory.createStringVector(limits, RDataFactory.COMPLETE_VECTOR)});
+        Object[] data = new Object[]{
+                        RDataFactory.createStringVector(name, RDataFactory.COMPLETE_VECTOR),
+                        RDataFactory.createStringVector(location, RDataFactory.COMPLETE_VECTOR),
+                        RDataFactory.createDoubleVector(calls, RDataFactory.COMPLETE_VECTOR),
+                        RDataFactory.createDoubleVector(time, RDataFactory.COMPLETE_VECTOR),
+                        RDataFactory.createDoubleVector(histogram, RDataFactory.COMPLETE_VECTOR, new int[]{n, buckets}, null, dimNames)};
+        return RDataFactory.createList(data, RDataFactory.createStringVector(NAMES, RDataFactory.COMPLETE_VECTOR));
+    }
+}
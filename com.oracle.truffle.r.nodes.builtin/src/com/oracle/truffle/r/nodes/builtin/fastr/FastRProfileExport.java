@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.eq;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.stringValue;
+import static com.oracle.truffle.r.runtime.RVisibility.OFF;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.library.utils.Rprof;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
+import com.oracle.truffle.r.runtime.data.RMissing;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.instrument.ProfileStacks;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocProfilerStacks;
+
+/**
+ * Writes the samples collected by {@code Rprof} ({@code profile = "cpu"}) or the allocation stacks
+ * collected by the memory allocation profiler instrument ({@code profile = "memory"}) to a file in
+ * the collapsed stack format of flame graph tools or in the {@code pprof} format.
+ */
+@RBuiltin(name = ".fastr.profile.export", visibility = OFF, kind = PRIMITIVE, parameterNames = {"file", "format", "profile"}, behavior = IO)
+public abstract class FastRProfileExport extends RBuiltinNode.Arg3 {
+
+    static {
+        Casts casts = new Casts(FastRProfileExport.class);
+        casts.arg("file").mustBe(stringValue()).asStringVector().mustBe(singleElement()).findFirst();
+        casts.arg("format").mustBe(stringValue()).asStringVector().mustBe(singleElement()).findFirst().mustBe(eq("collapsed").or(eq("pprof")));
+        casts.arg("profile").mustBe(stringValue()).asStringVector().mustBe(singleElement()).findFirst().mustBe(eq("cpu").or(eq("memory")));
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RMissing.instance, "collapsed", "cpu"};
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected Object export(String file, String format, String profile,
+                    @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
+        ProfileStacks stacks = "cpu".equals(profile) ? Rprof.getProfile() : MemAllocProfilerStacks.getInstance().getStackPaths().toProfileStacks();
+        if (stacks == null || stacks.isEmpty()) {
+            throw error(Message.GENERIC, String.format("no %s profiling data available", profile));
+        }
+        try (OutputStream out = ctxRef.get().getSafeTruffleFile(file).newOutputStream()) {
+            if ("pprof".equals(format)) {
+                stacks.writePprof(out);
+            } else {
+                // the number of samples or of allocations
+                stacks.writeCollapsed(out, 0);
+            }
+        } catch (IOException ex) {
+            throw error(Message.CANNOT_OPEN_FILE, file, ex.getMessage());
+        }
+        return RNull.instance;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.runtime.RVisibility.ON;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.ffi.RFFIContext.RFFIContextState;
+
+/**
+ * Returns the numbers of objects kept alive for the native code of the current context as a list
+ * with the elements {@code protected} (on the PROTECT stack), {@code preserved} (by
+ * {@code R_PreserveObject}), {@code pending} (unprotected, but kept until the outermost down-call
+ * returns) and {@code unbalanced}, the total number of objects that the native code did not
+ * unprotect and that were released when the outermost down-call returned.
+ */
+@RBuiltin(name = ".fastr.rffi.stats", visibility = ON, kind = PRIMITIVE, parameterNames = {}, behavior = IO)
+public abstract class FastRRFFIStats extends RBuiltinNode.Arg0 {
+
+    private static final String[] NAMES = new String[]{"protected", "preserved", "pending", "unbalanced"};
+
+    static {
+        Casts.noCasts(FastRRFFIStats.class);
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected RList rffiStats() {
+        RFFIContextState state = RContext.getInstance().getStateRFFI().rffiContextState;
+        Object[] data = new Object[]{
+                        state.getProtectedCount(),
+                        state.getPreservedCount(),
+                        state.getNativeReferencesCount(),
+                        (double) state.getUnbalancedProtects()};
+        return RDataFactory.createList(data, RDataFactory.createStringVector(NAMES, RDataFactory.COMPLETE_VECTOR));
+    }
+}
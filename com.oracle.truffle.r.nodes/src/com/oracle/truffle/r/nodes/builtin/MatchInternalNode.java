@@ -33,9 +33,14 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.unary.CastStringNode;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.ComplexTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.DoubleTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.IntTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.StringTable;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.data.CharSXPWrapper;
+import com.oracle.truffle.r.runtime.data.MatchIndexCache;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
@@ -62,6 +67,7 @@ abstract class AbstractMatchNode extends RBaseNode {
     public abstract Object execute(RAbstractVector x, RAbstractVector table, int noMatch);
 
     protected final ConditionProfile bigTableProfile = ConditionProfile.createBinaryProfile();
+    protected final ConditionProfile cachedIndexProfile = ConditionProfile.createBinaryProfile();
 
 }
 
@@ -112,9 +118,13 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
                     @Cached("create()") NAProfile naProfile,
                     @Cached("create()") BranchProfile foundProfile,
                     @Cached("create()") BranchProfile notFoundProfile) {
+        int element = xDataLib.getIntAt(x.getData(), 0);
+        IntTable index = MatchIndexCache.getIntIndex(table, false);
+        if (cachedIndexProfile.profile(index != null)) {
+            return indexToResult(index.get(element), nomatch);
+        }
         Object tableData = table.getData();
         SeqIterator it = tableDataLib.iterator(tableData);
-        int element = xDataLib.getIntAt(x.getData(), 0);
         if (naProfile.isNA(element)) {
             while (tableDataLib.nextLoopCondition(tableData, it)) {
                 if (tableDataLib.isNextNA(tableData, it)) {
@@ -154,24 +164,24 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         int[] result = initResult(xLength, nomatch);
         boolean matchAll = true;
         RandomAccessIterator rit = tableDataLib.randomAccessIterator(tableData);
-        NonRecursiveHashMapDouble hashTable;
+        DoubleTable hashTable;
         if (bigTableProfile.profile(tableLength > (xLength * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapDouble(xLength);
-            NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(xLength);
+            hashTable = new DoubleTable(xLength);
+            DoubleTable hashSet = new DoubleTable(xLength);
             SeqIterator it = xDataLib.iterator(xData);
             while (xDataLib.nextLoopCondition(xData, it)) {
-                hashSet.add(xDataLib.getNextDouble(xData, it));
+                hashSet.putIfAbsent(xDataLib.getNextDouble(xData, it), it.getIndex());
             }
-            for (int i = tableLength - 1; i >= 0; i--) {
+            for (int i = 0; i < tableLength; i++) {
                 double val = tableDataLib.getDouble(tableData, rit, i);
                 if (hashSet.contains(val)) {
-                    hashTable.put(val, i);
+                    hashTable.putIfAbsent(val, i);
                 }
             }
         } else {
-            hashTable = new NonRecursiveHashMapDouble(tableLength);
-            for (int i = tableLength - 1; i >= 0; i--) {
-                hashTable.put(RRuntime.int2double(tableDataLib.getInt(tableData, rit, i)), i);
+            hashTable = new DoubleTable(tableLength);
+            for (int i = 0; i < tableLength; i++) {
+                hashTable.putIfAbsent(RRuntime.int2double(tableDataLib.getInt(tableData, rit, i)), i);
             }
         }
         SeqIterator it = xDataLib.iterator(xData);
@@ -199,30 +209,30 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         int[] result = initResult(xLength, nomatch);
         boolean matchAll = true;
         RandomAccessIterator rit = tableDataLib.randomAccessIterator(tableData);
-        NonRecursiveHashMapInt hashTable;
+        IntTable hashTable;
         if (bigTableProfile.profile(tableLength > (xLength * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapInt(xLength);
-            NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(xLength);
+            hashTable = new IntTable(xLength);
+            IntTable hashSet = new IntTable(xLength);
             SeqIterator it = xDataLib.iterator(xData);
             while (xDataLib.nextLoopCondition(xData, it)) {
-                hashSet.add(xDataLib.getNextInt(xData, it));
+                hashSet.putIfAbsent(xDataLib.getNextInt(xData, it), it.getIndex());
             }
-            for (int i = tableLength - 1; i >= 0; i--) {
+            for (int i = 0; i < tableLength; i++) {
                 double val = tableDataLib.getDouble(tableData, rit, i);
                 if (RRuntime.isNA(val) && hashSet.contains(RRuntime.INT_NA)) {
-                    hashTable.put(RRuntime.INT_NA, i);
+                    hashTable.putIfAbsent(RRuntime.INT_NA, i);
                 } else if (val == (int) val && hashSet.contains((int) val)) {
-                    hashTable.put((int) val, i);
+                    hashTable.putIfAbsent((int) val, i);
                 }
             }
         } else {
-            hashTable = new NonRecursiveHashMapInt(tableLength);
-            for (int i = tableLength - 1; i >= 0; i--) {
+            hashTable = new IntTable(tableLength);
+            for (int i = 0; i < tableLength; i++) {
                 double xx = tableDataLib.getDouble(tableData, rit, i);
                 if (RRuntime.isNA(xx)) {
-                    hashTable.put(RRuntime.INT_NA, i);
+                    hashTable.putIfAbsent(RRuntime.INT_NA, i);
                 } else if (xx == (int) xx && !RRuntime.isNA((int) xx)) {
-                    hashTable.put((int) xx, i);
+                    hashTable.putIfAbsent((int) xx, i);
                 }
             }
         }
@@ -248,6 +258,10 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
                     @Cached("create()") BranchProfile foundProfile,
                     @Cached("create()") BranchProfile notFoundProfile) {
         double element = xDataLib.getDoubleAt(x.getData(), 0);
+        DoubleTable index = MatchIndexCache.getDoubleIndex(table, false);
+        if (cachedIndexProfile.profile(index != null)) {
+            return indexToResult(index.get(element), nomatch);
+        }
         Object tableData = table.getData();
         if (naProfile.isNA(element)) {
             SeqIterator it = tableDataLib.iterator(tableData);
@@ -260,7 +274,7 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         } else {
             SeqIterator it = tableDataLib.iterator(tableData);
             while (tableDataLib.nextLoopCondition(tableData, it)) {
-                if (element == tableDataLib.getNextDouble(tableData, it)) {
+                if (sameDouble(element, tableDataLib.getNextDouble(tableData, it))) {
                     foundProfile.enter();
                     return it.getIndex() + 1;
                 }
@@ -409,30 +423,30 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         Object element;
         boolean matchAll = true;
         RandomAccessIterator rit = tableDataLib.randomAccessIterator(tableData);
-        NonRecursiveHashMapCharacter hashTable;
+        StringTable hashTable;
         if (bigTableProfile.profile(tableLength > (xLength * TABLE_SIZE_FACTOR))) {
-            hashTable = new NonRecursiveHashMapCharacter(xLength);
-            NonRecursiveHashSetCharacter hashSet = new NonRecursiveHashSetCharacter(xLength);
+            hashTable = new StringTable(xLength);
+            StringTable hashSet = new StringTable(xLength);
             SeqIterator it = xDataLib.iterator(xData);
             while (xDataLib.next(xData, it)) {
                 element = xDataLib.getNextElement(xData, it);
                 assert element instanceof CharSXPWrapper;
-                hashSet.add(((CharSXPWrapper) element).getContents());
+                hashSet.putIfAbsent(((CharSXPWrapper) element).getContents(), it.getIndex());
             }
-            for (int i = tableLength - 1; i >= 0; i--) {
+            for (int i = 0; i < tableLength; i++) {
                 element = tableDataLib.getElement(tableData, rit, i);
                 assert element instanceof CharSXPWrapper;
                 String val = ((CharSXPWrapper) element).getContents();
                 if (hashSet.contains(val)) {
-                    hashTable.put(val, i);
+                    hashTable.putIfAbsent(val, i);
                 }
             }
         } else {
-            hashTable = new NonRecursiveHashMapCharacter(tableLength);
-            for (int i = tableLength - 1; i >= 0; i--) {
+            hashTable = new StringTable(tableLength);
+            for (int i = 0; i < tableLength; i++) {
                 element = tableDataLib.getElement(tableData, rit, i);
                 assert element instanceof CharSXPWrapper;
-                hashTable.put(((CharSXPWrapper) element).getContents(), i);
+                hashTable.putIfAbsent(((CharSXPWrapper) element).getContents(), i);
             }
         }
         SeqIterator it = xDataLib.iterator(xData);
@@ -707,6 +721,10 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
                     @Cached("create()") BranchProfile foundProfile,
                     @Cached("create()") BranchProfile notFoundProfile) {
         String element = xDataLib.getStringAt(x.getData(), 0);
+        StringTable index = MatchIndexCache.getStringIndex(table, false);
+        if (cachedIndexProfile.profile(index != null)) {
+            return indexToResult(index.get(element), nomatch);
+        }
         Object tableData = table.getData();
         SeqIterator it = tableDataLib.iterator(tableData);
         if (naProfile.isNA(element)) {
@@ -718,7 +736,8 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
             }
         } else {
             while (tableDataLib.nextLoopCondition(tableData, it)) {
-                if (element.equals(tableDataLib.getNextString(tableData, it))) {
+                String value = tableDataLib.getNextString(tableData, it);
+                if (element.equals(value) && !RRuntime.isNA(value)) {
                     foundProfile.enter();
                     return it.getIndex() + 1;
                 }
@@ -736,6 +755,18 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         return match.execute(x, table, nomatch);
     }
 
+    /**
+     * Compares non-NA {@code element} with {@code value} like the hash tables do, i.e., all NaNs
+     * are equal, but different from NA.
+     */
+    private static boolean sameDouble(double element, double value) {
+        return element == value || (Double.isNaN(element) && Double.isNaN(value) && !RRuntime.isNA(value));
+    }
+
+    private static int indexToResult(int index, int nomatch) {
+        return index == -1 ? nomatch : index + 1;
+    }
+
     private static int[] initResult(int length, int nomatch) {
         int[] result = new int[length];
         Arrays.fill(result, nomatch);
@@ -808,10 +839,10 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         int tableLength = tableDataLib.getLength(tableData);
         int[] result = initResult(xLength, nomatch);
         boolean matchAll = true;
-        NonRecursiveHashMapCharacter hashTable = new NonRecursiveHashMapCharacter(tableLength);
+        StringTable hashTable = new StringTable(tableLength);
         RandomAccessIterator rit = tableDataLib.randomAccessIterator(tableData);
-        for (int i = tableLength - 1; i >= 0; i--) {
-            hashTable.put(tableDataLib.getString(tableData, rit, i), i);
+        for (int i = 0; i < tableLength; i++) {
+            hashTable.putIfAbsent(tableDataLib.getString(tableData, rit, i), i);
         }
         SeqIterator it = xDataLib.iterator(xData);
         while (xDataLib.nextLoopCondition(xData, it)) {
@@ -842,26 +873,39 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
             int tableLength = tableDataLib.getLength(tableData);
             int[] result = initResult(xLength, nomatch);
             boolean matchAll = true;
+            IntTable cachedIndex = table instanceof RIntVector ? MatchIndexCache.getIntIndex((RIntVector) table, true) : null;
+            if (cachedIndexProfile.profile(cachedIndex != null)) {
+                SeqIterator it = xDataLib.iterator(xData);
+                while (xDataLib.nextLoopCondition(xData, it)) {
+                    int index = cachedIndex.get(xDataLib.getNextInt(xData, it));
+                    if (index != -1) {
+                        result[it.getIndex()] = index + 1;
+                    } else {
+                        matchAll = false;
+                    }
+                }
+                return RDataFactory.createIntVector(result, setCompleteState(matchAll, nomatch));
+            }
 
             RandomAccessIterator rit = tableDataLib.randomAccessIterator(tableData);
-            NonRecursiveHashMapInt hashTable;
+            IntTable hashTable;
             if (bigTableProfile.profile(tableLength > (xLength * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapInt(xLength);
-                NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(xLength);
+                hashTable = new IntTable(xLength);
+                IntTable hashSet = new IntTable(xLength);
                 SeqIterator it = xDataLib.iterator(xData);
                 while (xDataLib.nextLoopCondition(xData, it)) {
-                    hashSet.add(xDataLib.getNextInt(xData, it));
+                    hashSet.putIfAbsent(xDataLib.getNextInt(xData, it), it.getIndex());
                 }
-                for (int i = tableLength - 1; i >= 0; i--) {
+                for (int i = 0; i < tableLength; i++) {
                     int val = tableDataLib.getInt(tableData, rit, i);
                     if (hashSet.contains(val)) {
-                        hashTable.put(val, i);
+                        hashTable.putIfAbsent(val, i);
                     }
                 }
             } else {
-                hashTable = new NonRecursiveHashMapInt(tableLength);
-                for (int i = tableLength - 1; i >= 0; i--) {
-                    hashTable.put(tableDataLib.getInt(tableData, rit, i), i);
+                hashTable = new IntTable(tableLength);
+                for (int i = 0; i < tableLength; i++) {
+                    hashTable.putIfAbsent(tableDataLib.getInt(tableData, rit, i), i);
                 }
             }
             SeqIterator it = xDataLib.iterator(xData);
@@ -890,25 +934,38 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
             int tableLength = tableDataLib.getLength(tableData);
             int[] result = initResult(xLength, nomatch);
             boolean matchAll = true;
+            DoubleTable cachedIndex = table instanceof RDoubleVector ? MatchIndexCache.getDoubleIndex((RDoubleVector) table, true) : null;
+            if (cachedIndexProfile.profile(cachedIndex != null)) {
+                SeqIterator it = xDataLib.iterator(xData);
+                while (xDataLib.nextLoopCondition(xData, it)) {
+                    int index = cachedIndex.get(xDataLib.getNextDouble(xData, it));
+                    if (index != -1) {
+                        result[it.getIndex()] = index + 1;
+                    } else {
+                        matchAll = false;
+                    }
+                }
+                return RDataFactory.createIntVector(result, setCompleteState(matchAll, nomatch));
+            }
             RandomAccessIterator rit = tableDataLib.randomAccessIterator(tableData);
-            NonRecursiveHashMapDouble hashTable;
+            DoubleTable hashTable;
             if (bigTableProfile.profile(tableLength > (xLength * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapDouble(xLength);
-                NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(xLength);
+                hashTable = new DoubleTable(xLength);
+                DoubleTable hashSet = new DoubleTable(xLength);
                 SeqIterator it = xDataLib.iterator(xData);
                 while (xDataLib.nextLoopCondition(xData, it)) {
-                    hashSet.add(xDataLib.getNextDouble(xData, it));
+                    hashSet.putIfAbsent(xDataLib.getNextDouble(xData, it), it.getIndex());
                 }
-                for (int i = tableLength - 1; i >= 0; i--) {
+                for (int i = 0; i < tableLength; i++) {
                     double val = tableDataLib.getDouble(tableData, rit, i);
                     if (hashSet.contains(val)) {
-                        hashTable.put(val, i);
+                        hashTable.putIfAbsent(val, i);
                     }
                 }
             } else {
-                hashTable = new NonRecursiveHashMapDouble(tableLength);
-                for (int i = tableLength - 1; i >= 0; i--) {
-                    hashTable.put(tableDataLib.getDouble(tableData, rit, i), i);
+                hashTable = new DoubleTable(tableLength);
+                for (int i = 0; i < tableLength; i++) {
+                    hashTable.putIfAbsent(tableDataLib.getDouble(tableData, rit, i), i);
                 }
             }
             SeqIterator it = xDataLib.iterator(xData);
@@ -939,24 +996,24 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
             int[] result = initResult(xLength, nomatch);
             boolean matchAll = true;
             RandomAccessIterator rit = tableDataLib.randomAccessIterator(tableData);
-            NonRecursiveHashMapComplex hashTable;
+            ComplexTable hashTable;
             if (bigTableProfile.profile(tableLength > (xLength * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapComplex(xLength);
-                NonRecursiveHashSetComplex hashSet = new NonRecursiveHashSetComplex(xLength);
+                hashTable = new ComplexTable(xLength);
+                ComplexTable hashSet = new ComplexTable(xLength);
                 SeqIterator it = xDataLib.iterator(xData);
                 while (xDataLib.nextLoopCondition(xData, it)) {
-                    hashSet.add(xDataLib.getNextComplex(xData, it));
+                    hashSet.putIfAbsent(xDataLib.getNextComplex(xData, it), it.getIndex());
                 }
-                for (int i = tableLength - 1; i >= 0; i--) {
+                for (int i = 0; i < tableLength; i++) {
                     RComplex val = tableDataLib.getComplex(tableData, rit, i);
                     if (hashSet.contains(val)) {
-                        hashTable.put(val, i);
+                        hashTable.putIfAbsent(val, i);
                     }
                 }
             } else {
-                hashTable = new NonRecursiveHashMapComplex(tableLength);
-                for (int i = tableLength - 1; i >= 0; i--) {
-                    hashTable.put(tableDataLib.getComplex(tableData, rit, i), i);
+                hashTable = new ComplexTable(tableLength);
+                for (int i = 0; i < tableLength; i++) {
+                    hashTable.putIfAbsent(tableDataLib.getComplex(tableData, rit, i), i);
                 }
             }
             SeqIterator it = xDataLib.iterator(xData);
@@ -985,25 +1042,38 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
             int tableLength = tableDataLib.getLength(tableData);
             int[] result = initResult(xLength, nomatch);
             boolean matchAll = true;
-            NonRecursiveHashMapCharacter hashTable;
+            StringTable cachedIndex = table instanceof RStringVector ? MatchIndexCache.getStringIndex((RStringVector) table, true) : null;
+            if (cachedIndexProfile.profile(cachedIndex != null)) {
+                SeqIterator it = xDataLib.iterator(xData);
+                while (xDataLib.nextLoopCondition(xData, it)) {
+                    int index = cachedIndex.get(xDataLib.getNextString(xData, it));
+                    if (index != -1) {
+                        result[it.getIndex()] = index + 1;
+                    } else {
+                        matchAll = false;
+                    }
+                }
+                return RDataFactory.createIntVector(result, setCompleteState(matchAll, nomatch));
+            }
+            StringTable hashTable;
             RandomAccessIterator rit = tableDataLib.randomAccessIterator(tableData);
             if (bigTableProfile.profile(tableLength > (xLength * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapCharacter(xLength);
-                NonRecursiveHashSetCharacter hashSet = new NonRecursiveHashSetCharacter(xLength);
+                hashTable = new StringTable(xLength);
+                StringTable hashSet = new StringTable(xLength);
                 SeqIterator it = xDataLib.iterator(xData);
                 while (xDataLib.nextLoopCondition(xData, it)) {
-                    hashSet.add(xDataLib.getNextString(xData, it));
+                    hashSet.putIfAbsent(xDataLib.getNextString(xData, it), it.getIndex());
                 }
-                for (int i = tableLength - 1; i >= 0; i--) {
+                for (int i = 0; i < tableLength; i++) {
                     String val = tableDataLib.getString(tableData, rit, i);
                     if (hashSet.contains(val)) {
-                        hashTable.put(val, i);
+                        hashTable.putIfAbsent(val, i);
                     }
                 }
             } else {
-                hashTable = new NonRecursiveHashMapCharacter(tableLength);
-                for (int i = tableLength - 1; i >= 0; i--) {
-                    hashTable.put(tableDataLib.getString(tableData, rit, i), i);
+                hashTable = new StringTable(tableLength);
+                for (int i = 0; i < tableLength; i++) {
+                    hashTable.putIfAbsent(tableDataLib.getString(tableData, rit, i), i);
                 }
             }
             SeqIterator it = xDataLib.iterator(xData);
@@ -1020,285 +1090,7 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         }
     }
 
-    // simple implementations of non-recursive hash-maps to enable compilation
-    // TODO: consider replacing with a more efficient library implementation
-
-    private abstract static class NonRecursiveHashMap {
-
-        protected final int[] values;
-        protected int naValue;
-
-        protected NonRecursiveHashMap(int entryCount) {
-            int capacity = Math.max(entryCount * 3 / 2, 1);
-            values = new int[Integer.highestOneBit(capacity) << 2];
-        }
-
-        protected int index(int hash) {
-            // Multiply by -127
-            return ((hash << 1) - (hash << 8)) & (values.length - 1);
-        }
-    }
-
-    private static final class NonRecursiveHashMapCharacter extends NonRecursiveHashMap {
-
-        private final String[] keys;
-
-        NonRecursiveHashMapCharacter(int approxCapacity) {
-            super(approxCapacity);
-            keys = new String[values.length];
-        }
-
-        public boolean put(String key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(key.hashCode());
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key.equals(keys[ind])) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
-        }
-
-        public int get(String key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else {
-                int ind = index(key.hashCode());
-                int firstInd = ind;
-                while (true) {
-                    if (key.equals(keys[ind])) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    private static final class NonRecursiveHashMapComplex extends NonRecursiveHashMap {
-
-        private final RComplex[] keys;
-        private final int m;
-        private final int k;
-
-        NonRecursiveHashMapComplex(int entryCount) {
-            super(entryCount);
-            keys = new RComplex[values.length];
-
-            int m1 = 2;
-            int k1 = 1;
-            int n = 2 * entryCount;
-            while (m1 < n) {
-                m1 *= 2;
-                k1++;
-            }
-            m = m1;
-            k = k1;
-        }
-
-        public boolean put(RComplex key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(key.hashCode());
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key.equals(keys[ind])) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind = (ind + 1) % m;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
-        }
-
-        public int get(RComplex key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else {
-                int ind = index(key.hashCode());
-                int firstInd = ind;
-                while (true) {
-                    if (key.equals(keys[ind])) {
-                        return values[ind] - 1;
-                    } else {
-                        ind = (ind + 1) % m;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
-        }
-
-        private static final int u = new Long(3141592653L).intValue();
-
-        @Override
-        protected int index(int key) {
-            return u * key >>> (32 - k);
-        }
-    }
-
-    private static final class NonRecursiveHashMapDouble extends NonRecursiveHashMap {
-
-        private final double[] keys;
-        private int nanValue;
-
-        NonRecursiveHashMapDouble(int approxCapacity) {
-            super(approxCapacity);
-            keys = new double[values.length];
-            Arrays.fill(keys, RRuntime.DOUBLE_NA);
-        }
-
-        public boolean put(double key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else if (Double.isNaN(key)) {
-                boolean ret = nanValue == 0;
-                nanValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(Double.hashCode(key));
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key == keys[ind]) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
-        }
-
-        public int get(double key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else if (Double.isNaN(key)) {
-                return nanValue - 1;
-            } else {
-                int ind = index(Double.hashCode(key));
-                int firstInd = ind;
-                while (true) {
-                    if (key == keys[ind]) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    private static final class NonRecursiveHashMapInt extends NonRecursiveHashMap {
-
-        private final int[] keys;
-
-        NonRecursiveHashMapInt(int approxCapacity) {
-            super(approxCapacity);
-            keys = new int[values.length];
-            Arrays.fill(keys, RRuntime.INT_NA);
-        }
-
-        public boolean put(int key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(Integer.hashCode(key));
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key == keys[ind]) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
-        }
-
-        public int get(int key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else {
-                int ind = index(Integer.hashCode(key));
-                int firstInd = ind;
-                while (true) {
-                    if (key == keys[ind]) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
-        }
-    }
-
+    // simple implementation of a non-recursive hash-map for raw values to enable compilation
     private static final class NonRecursiveHashMapRaw {
 
         private final int[] keys;
@@ -1339,22 +1131,6 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
         }
     }
 
-    private static class NonRecursiveHashSetInt {
-        private final NonRecursiveHashMapInt map;
-
-        NonRecursiveHashSetInt(int approxCapacity) {
-            map = new NonRecursiveHashMapInt(approxCapacity);
-        }
-
-        public boolean add(int value) {
-            return map.put(value, 1);
-        }
-
-        public boolean contains(int value) {
-            return map.get(value) == 1;
-        }
-    }
-
     private static class NonRecursiveHashSetRaw {
         private final NonRecursiveHashMapRaw map;
 
@@ -1370,52 +1146,4 @@ public abstract class MatchInternalNode extends AbstractMatchNode {
             return map.get(value) == 1;
         }
     }
-
-    private static class NonRecursiveHashSetDouble {
-        private final NonRecursiveHashMapDouble map;
-
-        NonRecursiveHashSetDouble(int approxCapacity) {
-            map = new NonRecursiveHashMapDouble(approxCapacity);
-        }
-
-        public boolean add(double value) {
-            return map.put(value, 1);
-        }
-
-        public boolean contains(double value) {
-            return map.get(value) == 1;
-        }
-    }
-
-    private static class NonRecursiveHashSetCharacter {
-        private final NonRecursiveHashMapCharacter map;
-
-        NonRecursiveHashSetCharacter(int approxCapacity) {
-            map = new NonRecursiveHashMapCharacter(approxCapacity);
-        }
-
-        public boolean add(String value) {
-            return map.put(value, 1);
-        }
-
-        public boolean contains(String value) {
-            return map.get(value) == 1;
-        }
-    }
-
-    private static class NonRecursiveHashSetComplex {
-        private final NonRecursiveHashMapComplex map;
-
-        NonRecursiveHashSetComplex(int approxCapacity) {
-            map = new NonRecursiveHashMapComplex(approxCapacity);
-        }
-
-        public boolean add(RComplex value) {
-            return map.put(value, 1);
-        }
-
-        public boolean contains(RComplex value) {
-            return map.get(value) == 1;
-        }
-    }
 }
@@ -104,9 +104,7 @@ public abstract class ArgumentStatePush extends Node {
             if (writeArgMask != -1) {
                 if (frameSlot == null) {
                     CompilerDirectives.transferToInterpreterAndInvalidate();
-                    synchronized (FrameSlotChangeMonitor.class) {
-                        frameSlot = frame.getFrameDescriptor().findOrAddFrameSlot(writeArgMask, FrameSlotKind.Object);
-                    }
+                    frameSlot = FrameSlotChangeMonitor.findOrAddTransientFrameSlot(frame.getFrameDescriptor(), writeArgMask, FrameSlotKind.Object);
                 }
                 frame.setObject(frameSlot, shareable);
             }
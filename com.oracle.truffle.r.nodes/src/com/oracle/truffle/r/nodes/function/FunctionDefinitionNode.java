@@ -67,6 +67,7 @@ import com.oracle.truffle.r.runtime.RootBodyNode;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.Utils.DebugExitException;
 import com.oracle.truffle.r.runtime.builtins.RBuiltinDescriptor;
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
 import com.oracle.truffle.r.runtime.data.ClosureCache.RNodeClosureCache;
@@ -75,6 +76,7 @@ import com.oracle.truffle.r.runtime.data.RPairList;
 import com.oracle.truffle.r.runtime.env.frame.CannotOptimizePromise;
 import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
 import com.oracle.truffle.r.runtime.env.frame.RFrameSlot;
+import com.oracle.truffle.r.runtime.instrument.FunctionStats;
 import com.oracle.truffle.r.runtime.interop.FastRInteropTryException;
 import com.oracle.truffle.r.runtime.nodes.RCodeBuilder;
 import com.oracle.truffle.r.runtime.nodes.RNode;
@@ -135,6 +137,13 @@ public final class FunctionDefinitionNode extends RRootNode implements RSyntaxNo
     // Profiling for catching ReturnException thrown from an exit handler
     @CompilationFinal private ConditionProfile returnTopLevelProfile;
 
+    /**
+     * The call statistics of this function, {@code null} unless the {@code FunctionStats} option
+     * was enabled in the context that executed the function first.
+     */
+    @CompilationFinal private FunctionStats.Entry stats;
+    @CompilationFinal private boolean statsInitialized;
+
     public static FunctionDefinitionNode create(TruffleRLanguage language, SourceSection src, FrameDescriptor frameDesc, SourceSection[] argSourceSections, SaveArgumentsNode saveArguments,
                     RSyntaxNode body,
                     FormalArguments formals, String name, PostProcessArgumentsNode argPostProcess) {
@@ -281,6 +290,25 @@ public final class FunctionDefinitionNode extends RRootNode implements RSyntaxNo
 
     @Override
     public Object execute(VirtualFrame frame) {
+        if (!statsInitialized) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            if (RContext.getInstance().getOption(FastROptions.FunctionStats)) {
+                stats = FunctionStats.create(name, sourceSectionR);
+            }
+            statsInitialized = true;
+        }
+        if (stats == null) {
+            return executeFunction(frame);
+        }
+        long start = stats.enter();
+        try {
+            return executeFunction(frame);
+        } finally {
+            stats.exit(start);
+        }
+    }
+
+    private Object executeFunction(VirtualFrame frame) {
         boolean runOnExitHandlers = true;
         try {
             verifyEnclosingAssumptions(frame);
@@ -425,6 +453,9 @@ public final class FunctionDefinitionNode extends RRootNode implements RSyntaxNo
 
     public void setName(String name) {
         this.name = name;
+        if (stats != null) {
+            stats.setName(name);
+        }
     }
 
     @Override
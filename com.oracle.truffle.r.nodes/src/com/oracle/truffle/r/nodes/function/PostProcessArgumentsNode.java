@@ -74,9 +74,7 @@ public final class PostProcessArgumentsNode extends RNode {
                 if ((bits & mask) != 0) {
                     if (frameSlots[i] == null) {
                         CompilerDirectives.transferToInterpreterAndInvalidate();
-                        synchronized (FrameSlotChangeMonitor.class) {
-                            frameSlots[i] = frame.getFrameDescriptor().findOrAddFrameSlot(mask, FrameSlotKind.Object);
-                        }
+                        frameSlots[i] = FrameSlotChangeMonitor.findOrAddTransientFrameSlot(frame.getFrameDescriptor(), mask, FrameSlotKind.Object);
                     }
                     RSharingAttributeStorage s;
                     try {
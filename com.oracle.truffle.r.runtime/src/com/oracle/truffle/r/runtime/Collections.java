@@ -44,57 +44,6 @@ public final class Collections {
     // simple implementations of non-recursive hash-maps to enable compilation
     // TODO: consider replacing with a more efficient library implementation
 
-    public static class NonRecursiveHashSet<KEY> {
-
-        private Object[] keys;
-
-        public NonRecursiveHashSet(int approxCapacity) {
-            keys = new Object[Math.max(approxCapacity, 1)];
-        }
-
-        public boolean add(KEY key) {
-            int hc = key.hashCode();
-            if (hc == Integer.MIN_VALUE) {
-                hc = 0;
-            }
-            int ind = Math.abs(hc) % keys.length;
-            int firstInd = ind;
-            while (true) {
-                if (keys[ind] == null) {
-                    keys[ind] = key;
-                    return false;
-                } else if (key.equals(keys[ind])) {
-                    return true;
-                } else {
-                    ind = (ind + 1) % keys.length;
-                    if (ind == firstInd) {
-                        // resize
-                        Object[] newKeys = new Object[keys.length + keys.length / 2];
-                        for (int i = 0; i < keys.length; i++) {
-                            if (keys[i] != null) {
-                                int tmpInd = Math.abs(keys[i].hashCode()) % newKeys.length;
-                                while (true) {
-                                    if (newKeys[tmpInd] == null) {
-                                        newKeys[tmpInd] = keys[i];
-                                        break;
-                                    } else {
-                                        assert !keys[i].equals(newKeys[tmpInd]);
-                                        tmpInd = (tmpInd + 1) % newKeys.length;
-                                    }
-                                }
-                            }
-                        }
-
-                        keys = newKeys;
-
-                        // start hashing from the beginning
-                        ind = Math.abs(hc) % keys.length;
-                    }
-                }
-            }
-        }
-    }
-
     public static class NonRecursiveHashSetDouble {
 
         private double[] keys;
@@ -582,6 +531,15 @@ public final class Collections {
             return Arrays.copyOf((T[]) data, size);
         }
 
+        /**
+         * Removes all elements at positions {@code newSize} and above.
+         */
+        public void truncate(int newSize) {
+            assert newSize >= 0 && newSize <= size;
+            Arrays.fill(data, newSize, size, null);
+            size = newSize;
+        }
+
         public void clear(AfterDownCallProfiles profiles) {
             if (!profiles.getNativeReferencesNotEmptyProfile().profile(size == 0)) {
                 Arrays.fill(data, 0, size, null);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -22,38 +22,394 @@
  */
 package com.oracle.truffle.r.runtime;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
 
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RList;
 
+/**
+ * Caches the contents of the lazy-load databases ({@code .rdb} files) read by
+ * {@code lazyLoadDBfetch}.
+ *
+ * The raw bytes of a database are kept per context. The decompressed entries are kept in a cache
+ * shared by all contexts, keyed by the database file, its modification time and the offset of the
+ * entry, so that child contexts loading the same packages do not decompress them again and a
+ * reinstalled package is never served stale data. The shared cache is bounded by
+ * {@link FastROptions#LazyLoadCacheSize} and evicts the least recently used entries.
+ *
+ * When an entry of a database is first requested in a context, all the entries listed in the
+ * accompanying {@code .rdx} index are decompressed in the common {@link ForkJoinPool}, so that the
+ * following requests, which typically come shortly after when a package is loaded, find them ready.
+ * Only the decompression, which needs no context, runs in parallel, the unserialization of the
+ * entries stays on the context thread.
+ */
 public class LazyDBCache {
 
+    private static final PayloadCache payloadCache = new PayloadCache();
+
+    private static final class PayloadKey {
+        private final String path;
+        private final long modified;
+        private final int offset;
+
+        PayloadKey(String path, long modified, int offset) {
+            this.path = path;
+            this.modified = modified;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PayloadKey)) {
+                return false;
+            }
+            PayloadKey other = (PayloadKey) obj;
+            return offset == other.offset && modified == other.modified && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return (path.hashCode() * 31 + Long.hashCode(modified)) * 31 + offset;
+        }
+    }
+
+    private static final class Payload {
+        private final CompletableFuture<byte[]> data;
+        private final int size;
+
+        Payload(CompletableFuture<byte[]> data, int size) {
+            this.data = data;
+            this.size = size;
+        }
+    }
+
+    /**
+     * The entries are stored as futures, so that an entry that is still being decompressed by the
+     * prefetch is waited for rather than decompressed twice.
+     */
+    private static final class PayloadCache {
+        private final LinkedHashMap<PayloadKey, Payload> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long totalSize;
+
+        synchronized Payload get(PayloadKey key) {
+            return entries.get(key);
+        }
+
+        synchronized boolean contains(PayloadKey key) {
+            return entries.containsKey(key);
+        }
+
+        synchronized void put(PayloadKey key, Payload payload, long capacity) {
+            Payload old = entries.put(key, payload);
+            if (old != null) {
+                totalSize -= old.size;
+            }
+            totalSize += payload.size;
+            Iterator<Map.Entry<PayloadKey, Payload>> iter = entries.entrySet().iterator();
+            while (totalSize > capacity && iter.hasNext()) {
+                Map.Entry<PayloadKey, Payload> eldest = iter.next();
+                if (eldest.getValue() != payload) {
+                    totalSize -= eldest.getValue().size;
+                    iter.remove();
+                }
+            }
+        }
+
+        synchronized void remove(PayloadKey key, Payload payload) {
+            if (entries.remove(key, payload)) {
+                totalSize -= payload.size;
+            }
+        }
+
+        synchronized void removeAll(String path) {
+            Iterator<Map.Entry<PayloadKey, Payload>> iter = entries.entrySet().iterator();
+            while (iter.hasNext()) {
+                Map.Entry<PayloadKey, Payload> entry = iter.next();
+                if (entry.getKey().path.equals(path)) {
+                    totalSize -= entry.getValue().size;
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    private static final class DBFile {
+        private final String path;
+        private final long modified;
+        private final byte[] data;
+        private boolean prefetched;
+
+        DBFile(String path, long modified, byte[] data) {
+            this.path = path;
+            this.modified = modified;
+            this.data = data;
+        }
+    }
+
     public static final class ContextStateImpl implements RContext.ContextState {
-        private final Map<String, byte[]> dbCache = new HashMap<>();
+        private final Map<String, DBFile> dbCache = new HashMap<>();
 
         public byte[] getData(RContext context, String dbPath) {
-            byte[] dbData = dbCache.get(dbPath);
-            if (dbData == null) {
+            return getFile(context, dbPath).data;
+        }
+
+        private DBFile getFile(RContext context, String dbPath) {
+            DBFile dbFile = dbCache.get(dbPath);
+            if (dbFile == null) {
                 try {
-                    dbData = context.getSafeTruffleFile(dbPath).readAllBytes();
+                    TruffleFile file = context.getSafeTruffleFile(dbPath).getAbsoluteFile().normalize();
+                    dbFile = new DBFile(file.getPath(), file.getLastModifiedTime().toMillis(), file.readAllBytes());
                 } catch (IOException ex) {
                     // unexpected
                     throw RInternalError.shouldNotReachHere(ex);
                 }
-                dbCache.put(dbPath, dbData);
+                dbCache.put(dbPath, dbFile);
             }
-            return dbData;
+            return dbFile;
+        }
+
+        /**
+         * Returns the decompressed entry of the database at {@code offset}, see
+         * {@link LazyDBCache#uncompress}, or {@code null} if the entry cannot be decompressed.
+         */
+        public byte[] getPayload(RContext context, String dbPath, int offset, int length, int compression) {
+            DBFile dbFile = getFile(context, dbPath);
+            long capacity = (long) context.getNonNegativeIntOption(FastROptions.LazyLoadCacheSize) << 20;
+            if (capacity == 0 || compression == 0) {
+                return uncompress(dbFile.data, offset, length, compression);
+            }
+            if (!dbFile.prefetched) {
+                dbFile.prefetched = true;
+                prefetch(context, dbPath, dbFile, compression, capacity);
+            }
+            PayloadKey key = new PayloadKey(dbFile.path, dbFile.modified, offset);
+            Payload payload = payloadCache.get(key);
+            if (payload != null) {
+                return join(key, payload);
+            }
+            byte[] result = uncompress(dbFile.data, offset, length, compression);
+            if (result != null) {
+                payloadCache.put(key, new Payload(CompletableFuture.completedFuture(result), result.length), capacity);
+            }
+            return result;
         }
 
         public void remove(String dbPath) {
             // no an error if missing
-            dbCache.remove(dbPath);
+            DBFile dbFile = dbCache.remove(dbPath);
+            if (dbFile != null) {
+                payloadCache.removeAll(dbFile.path);
+            }
         }
 
         public static ContextStateImpl newContextState() {
             return new ContextStateImpl();
         }
     }
+
+    /**
+     * Waits for an entry that may still be decompressed by the prefetch. A failure of the
+     * decompression is reported as if the entry was decompressed on the calling thread, i.e., a
+     * corrupt entry results in {@code null} and other exceptions are rethrown unwrapped.
+     */
+    private static byte[] join(PayloadKey key, Payload payload) {
+        try {
+            return payload.data.join();
+        } catch (CompletionException ex) {
+            payloadCache.remove(key, payload);
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException || cause instanceof UncheckedIOException || cause instanceof DataFormatException) {
+                return null;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw RInternalError.shouldNotReachHere(cause);
+        }
+    }
+
+    /**
+     * Starts the decompression of the entries listed in the index of the database, as long as they
+     * fit into half of the cache, so that the prefetch does not evict the entries of the packages
+     * loaded before. The prefetch is only an optimization and is skipped if the index is missing
+     * or cannot be read.
+     */
+    private static void prefetch(RContext context, String dbPath, DBFile dbFile, int compression, long capacity) {
+        if (ForkJoinPool.getCommonPoolParallelism() <= 1 || !dbPath.endsWith(".rdb")) {
+            return;
+        }
+        int[] keys = readIndex(context, dbPath.substring(0, dbPath.length() - 4) + ".rdx");
+        if (keys == null) {
+            return;
+        }
+        byte[] data = dbFile.data;
+        long total = 0;
+        for (int i = 0; i < keys.length; i += 2) {
+            int offset = keys[i];
+            int length = keys[i + 1];
+            if (offset < 0 || length < 5 || offset > data.length - length || !isPrefetchable(data, offset, compression)) {
+                continue;
+            }
+            int outlen = getOutlen(data, offset);
+            total += outlen;
+            if (total > capacity / 2) {
+                break;
+            }
+            PayloadKey key = new PayloadKey(dbFile.path, dbFile.modified, offset);
+            if (!payloadCache.contains(key)) {
+                payloadCache.put(key, new Payload(CompletableFuture.supplyAsync(() -> uncompress(data, offset, length, compression)), outlen), capacity);
+            }
+        }
+    }
+
+    /**
+     * The BZIP2 decompression is not implemented, see {@link RCompression#uncompress}, and unknown
+     * compression types are reported by {@code lazyLoadDBfetch} itself.
+     */
+    private static boolean isPrefetchable(byte[] data, int offset, int compression) {
+        if (compression == 2 || compression == 3) {
+            RCompression.Type type = RCompression.Type.fromTypeChar(data[offset + 4]);
+            return type != null && type != RCompression.Type.BZIP2;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the {@code variables} and {@code references} keys from the index of a database, which
+     * is a list saved by {@code saveRDS}, and returns them as pairs of offset and length.
+     */
+    private static int[] readIndex(RContext context, String indexPath) {
+        try {
+            TruffleFile file = context.getSafeTruffleFile(indexPath);
+            if (!file.exists()) {
+                return null;
+            }
+            byte[] bytes;
+            RCompression.Type type = RCompression.getCompressionType(file);
+            if (type == RCompression.Type.GZIP) {
+                try (InputStream is = new GZIPInputStream(file.newInputStream())) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    int n;
+                    while ((n = is.read(buffer)) > 0) {
+                        out.write(buffer, 0, n);
+                    }
+                    bytes = out.toByteArray();
+                }
+            } else if (type == RCompression.Type.NONE) {
+                bytes = file.readAllBytes();
+            } else {
+                return null;
+            }
+            Object index = RSerialize.unserialize(bytes);
+            if (!(index instanceof RList)) {
+                return null;
+            }
+            ArrayList<Integer> keys = new ArrayList<>();
+            for (String name : new String[]{"variables", "references"}) {
+                int i = ((RList) index).getElementIndexByName(name);
+                if (i >= 0 && ((RList) index).getDataAt(i) instanceof RList) {
+                    RList entries = (RList) ((RList) index).getDataAt(i);
+                    for (int j = 0; j < entries.getLength(); j++) {
+                        Object key = entries.getDataAt(j);
+                        if (key instanceof RIntVector && ((RIntVector) key).getLength() == 2) {
+                            keys.add(((RIntVector) key).getDataAt(0));
+                            keys.add(((RIntVector) key).getDataAt(1));
+                        }
+                    }
+                }
+            }
+            int[] result = new int[keys.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = keys.get(i);
+            }
+            return result;
+        } catch (IOException | RError ex) {
+            return null;
+        }
+    }
+
+    private static int getOutlen(byte[] dbData, int offset) {
+        return ByteBuffer.wrap(dbData, offset, 4).getInt();
+    }
+
+    /**
+     * Decompresses the entry of a database at {@code offset}. This does not depend on the context
+     * and can be called from any thread.
+     *
+     * Compression may have value 0, 1, 2 or 3. Value 1 is gzip and the data starts at
+     * "offset + 4". Values 2 and 3 have a "type" field at "offset + 4" and the data starts at
+     * "offset + 5". The type field is 'Z' for lzma, '2' for bzip, '1' for zip and '0' for no
+     * compression. From GnuR code, the only difference between compression=2 and compression=3 is
+     * that type='Z' is only possible for the latter.
+     *
+     * @return the decompressed data or {@code null} if the data are corrupt
+     */
+    static byte[] uncompress(byte[] dbData, int offset, int length, int compression) {
+        if (compression == 0) {
+            return Arrays.copyOfRange(dbData, offset, offset + length);
+        }
+        byte[] udata = new byte[getOutlen(dbData, offset)];
+        RCompression.Type type;
+        int dataOffset;
+        if (compression == 2 || compression == 3) {
+            type = RCompression.Type.fromTypeChar(dbData[offset + 4]);
+            dataOffset = offset + 5;
+        } else {
+            // GnuR treats any other value as 1
+            type = RCompression.Type.GZIP;
+            dataOffset = offset + 4;
+        }
+        boolean rc;
+        if (type == RCompression.Type.GZIP) {
+            rc = inflate(dbData, dataOffset, offset + length - dataOffset, udata);
+        } else {
+            rc = RCompression.uncompress(type, udata, Arrays.copyOfRange(dbData, dataOffset, offset + length));
+        }
+        return rc ? udata : null;
+    }
+
+    /**
+     * The entries are compressed with zlib's {@code compress}, which {@link Inflater} reads without
+     * the native zlib and thus also outside of the context thread.
+     */
+    private static boolean inflate(byte[] data, int offset, int length, byte[] udata) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            int total = 0;
+            while (total < udata.length) {
+                int n = inflater.inflate(udata, total, udata.length - total);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                total += n;
+            }
+            return total == udata.length;
+        } catch (DataFormatException ex) {
+            return false;
+        } finally {
+            inflater.end();
+        }
+    }
 }
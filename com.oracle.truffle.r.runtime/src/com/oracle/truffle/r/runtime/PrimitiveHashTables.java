@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import com.oracle.truffle.r.runtime.data.RComplex;
+
+/**
+ * Open-addressing hash tables mapping the values of R vector elements to (zero based) indices,
+ * shared by {@code unique}, {@code duplicated}, {@code anyDuplicated}, {@code match} and their
+ * variants. The keys are stored unboxed and the tables grow as needed, so the initial capacity is
+ * only a hint.
+ *
+ * The equality of the keys follows GnuR's hashing in {@code unique.c}: {@code NA} and {@code NaN}
+ * are different values, but all {@code NaN}s are equal, and {@code 0} and {@code -0} are equal.
+ * Complex values with {@code NA} in any of the parts are all equal to each other. {@code NA}
+ * strings are different from the {@code "NA"} string.
+ *
+ * The typical use is {@code putIfAbsent(value, i)}, which returns the index of the first occurrence
+ * of {@code value}, or {@code -1} if {@code value} was not in the table yet.
+ */
+public final class PrimitiveHashTables {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private static final long NA_BITS = Double.doubleToRawLongBits(RRuntime.DOUBLE_NA);
+    private static final long NAN_BITS = Double.doubleToRawLongBits(Double.NaN);
+
+    private PrimitiveHashTables() {
+        // private
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(int h) {
+        int x = h * 0x9E3779B9;
+        return x ^ (x >>> 16);
+    }
+
+    private static int mix(long bits) {
+        return mix((int) (bits ^ (bits >>> 32)));
+    }
+
+    /**
+     * Maps {@code NA} and {@code NaN} to canonical bit patterns and {@code -0.0} to {@code 0.0}.
+     */
+    public static long canonicalBits(double value) {
+        if (Double.isNaN(value)) {
+            return RRuntime.isNA(value) ? NA_BITS : NAN_BITS;
+        }
+        return Double.doubleToRawLongBits(value == 0.0 ? 0.0 : value);
+    }
+
+    private abstract static class Table {
+        /**
+         * Index + 1 of the element in the slot, {@code 0} denotes an empty slot.
+         */
+        protected int[] values;
+        protected int mask;
+        protected int size;
+
+        protected Table(int expectedSize) {
+            int capacity = capacityFor(expectedSize);
+            values = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        public final int size() {
+            return size;
+        }
+
+        /**
+         * Checked before each insertion, so that the insertion itself needs no recursion.
+         */
+        protected final boolean needsRehash() {
+            return (size + 1) * 2L > values.length && values.length < (1 << 30);
+        }
+    }
+
+    public static final class IntTable extends Table {
+
+        private int[] keys;
+
+        public IntTable(int expectedSize) {
+            super(expectedSize);
+            keys = new int[values.length];
+        }
+
+        public int putIfAbsent(int key, int index) {
+            assert index >= 0;
+            if (needsRehash()) {
+                rehash();
+            }
+            int ind = mix(key) & mask;
+            while (values[ind] != 0) {
+                if (keys[ind] == key) {
+                    return values[ind] - 1;
+                }
+                ind = (ind + 1) & mask;
+            }
+            keys[ind] = key;
+            values[ind] = index + 1;
+            size++;
+            return -1;
+        }
+
+        public int get(int key) {
+            int ind = mix(key) & mask;
+            while (values[ind] != 0) {
+                if (keys[ind] == key) {
+                    return values[ind] - 1;
+                }
+                ind = (ind + 1) & mask;
+            }
+            return -1;
+        }
+
+        public boolean contains(int key) {
+            return get(key) != -1;
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            values = new int[oldValues.length << 1];
+            keys = new int[values.length];
+            mask = values.length - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = mix(oldKeys[i]) & mask;
+                    while (values[ind] != 0) {
+                        ind = (ind + 1) & mask;
+                    }
+                    keys[ind] = oldKeys[i];
+                    values[ind] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    public static final class DoubleTable extends Table {
+
+        private long[] keys;
+
+        public DoubleTable(int expectedSize) {
+            super(expectedSize);
+            keys = new long[values.length];
+        }
+
+        public int putIfAbsent(double key, int index) {
+            return putBitsIfAbsent(canonicalBits(key), index);
+        }
+
+        private int putBitsIfAbsent(long bits, int index) {
+            assert index >= 0;
+            if (needsRehash()) {
+                rehash();
+            }
+            int ind = mix(bits) & mask;
+            while (values[ind] != 0) {
+                if (keys[ind] == bits) {
+                    return values[ind] - 1;
+                }
+                ind = (ind + 1) & mask;
+            }
+            keys[ind] = bits;
+            values[ind] = index + 1;
+            size++;
+            return -1;
+        }
+
+        public int get(double key) {
+            long bits = canonicalBits(key);
+            int ind = mix(bits) & mask;
+            while (values[ind] != 0) {
+                if (keys[ind] == bits) {
+                    return values[ind] - 1;
+                }
+                ind = (ind + 1) & mask;
+            }
+            return -1;
+        }
+
+        public boolean contains(double key) {
+            return get(key) != -1;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            values = new int[oldValues.length << 1];
+            keys = new long[values.length];
+            mask = values.length - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = mix(oldKeys[i]) & mask;
+                    while (values[ind] != 0) {
+                        ind = (ind + 1) & mask;
+                    }
+                    keys[ind] = oldKeys[i];
+                    values[ind] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * The strings are compared by identity first, which is the common case for strings coming from
+     * the same {@code CHARSXP} cache, and only then by their cached hash codes and contents.
+     */
+    public static final class StringTable extends Table {
+
+        private String[] keys;
+        private int[] hashes;
+        private int naValue;
+
+        public StringTable(int expectedSize) {
+            super(expectedSize);
+            keys = new String[values.length];
+            hashes = new int[values.length];
+        }
+
+        public int putIfAbsent(String key, int index) {
+            assert index >= 0;
+            if (RRuntime.isNA(key)) {
+                if (naValue != 0) {
+                    return naValue - 1;
+                }
+                naValue = index + 1;
+                return -1;
+            }
+            if (needsRehash()) {
+                rehash();
+            }
+            int hash = key.hashCode();
+            int ind = mix(hash) & mask;
+            while (values[ind] != 0) {
+                String k = keys[ind];
+                if (k == key || (hashes[ind] == hash && k.equals(key))) {
+                    return values[ind] - 1;
+                }
+                ind = (ind + 1) & mask;
+            }
+            keys[ind] = key;
+            hashes[ind] = hash;
+            values[ind] = index + 1;
+            size++;
+            return -1;
+        }
+
+        public int get(String key) {
+            if (RRuntime.isNA(key)) {
+                return naValue - 1;
+            }
+            int hash = key.hashCode();
+            int ind = mix(hash) & mask;
+            while (values[ind] != 0) {
+                String k = keys[ind];
+                if (k == key || (hashes[ind] == hash && k.equals(key))) {
+                    return values[ind] - 1;
+                }
+                ind = (ind + 1) & mask;
+            }
+            return -1;
+        }
+
+        public boolean contains(String key) {
+            return get(key) != -1;
+        }
+
+        private void rehash() {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldValues = values;
+            values = new int[oldValues.length << 1];
+            keys = new String[values.length];
+            hashes = new int[values.length];
+            mask = values.length - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = mix(oldHashes[i]) & mask;
+                    while (values[ind] != 0) {
+                        ind = (ind + 1) & mask;
+                    }
+                    keys[ind] = oldKeys[i];
+                    hashes[ind] = oldHashes[i];
+                    values[ind] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    public static final class ComplexTable extends Table {
+
+        /**
+         * Canonical bits of the real and imaginary parts, interleaved.
+         */
+        private long[] keys;
+
+        public ComplexTable(int expectedSize) {
+            super(expectedSize);
+            keys = new long[values.length << 1];
+        }
+
+        private static long realBits(double re, double im) {
+            return RRuntime.isComplexNA(re, im) ? NA_BITS : canonicalBits(re);
+        }
+
+        private static long imaginaryBits(double re, double im) {
+            return RRuntime.isComplexNA(re, im) ? NA_BITS : canonicalBits(im);
+        }
+
+        public int putIfAbsent(RComplex key, int index) {
+            return putIfAbsent(key.getRealPart(), key.getImaginaryPart(), index);
+        }
+
+        public int putIfAbsent(double re, double im, int index) {
+            return putBitsIfAbsent(realBits(re, im), imaginaryBits(re, im), index);
+        }
+
+        private int putBitsIfAbsent(long reBits, long imBits, int index) {
+            assert index >= 0;
+            if (needsRehash()) {
+                rehash();
+            }
+            int ind = mix(reBits * 31 + imBits) & mask;
+            while (values[ind] != 0) {
+                if (keys[ind << 1] == reBits && keys[(ind << 1) + 1] == imBits) {
+                    return values[ind] - 1;
+                }
+                ind = (ind + 1) & mask;
+            }
+            keys[ind << 1] = reBits;
+            keys[(ind << 1) + 1] = imBits;
+            values[ind] = index + 1;
+            size++;
+            return -1;
+        }
+
+        public int get(RComplex key) {
+            return get(key.getRealPart(), key.getImaginaryPart());
+        }
+
+        public int get(double re, double im) {
+            long reBits = realBits(re, im);
+            long imBits = imaginaryBits(re, im);
+            int ind = mix(reBits * 31 + imBits) & mask;
+            while (values[ind] != 0) {
+                if (keys[ind << 1] == reBits && keys[(ind << 1) + 1] == imBits) {
+                    return values[ind] - 1;
+                }
+                ind = (ind + 1) & mask;
+            }
+            return -1;
+        }
+
+        public boolean contains(RComplex key) {
+            return get(key) != -1;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            values = new int[oldValues.length << 1];
+            keys = new long[values.length << 1];
+            mask = values.length - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    long reBits = oldKeys[i << 1];
+                    long imBits = oldKeys[(i << 1) + 1];
+                    int ind = mix(reBits * 31 + imBits) & mask;
+                    while (values[ind] != 0) {
+                        ind = (ind + 1) & mask;
+                    }
+                    keys[ind << 1] = reBits;
+                    keys[(ind << 1) + 1] = imBits;
+                    values[ind] = oldValues[i];
+                }
+            }
+        }
+    }
+}
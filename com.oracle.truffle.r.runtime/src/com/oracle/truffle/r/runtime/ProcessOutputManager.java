@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,6 +24,7 @@ package com.oracle.truffle.r.runtime;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.concurrent.Semaphore;
 
 /**
@@ -115,4 +116,40 @@ public class ProcessOutputManager {
             return data;
         }
     }
+
+    /**
+     * Copies the data to an output stream as they arrive.
+     */
+    public static final class OutputThreadStream extends OutputThread {
+        private final OutputStream os;
+        private IOException error;
+
+        public OutputThreadStream(String name, InputStream is, OutputStream os) {
+            super(name, is);
+            this.os = os;
+        }
+
+        @Override
+        public void run() {
+            byte[] data = new byte[8192];
+            int n;
+            try {
+                while ((n = is.read(data)) != -1) {
+                    os.write(data, 0, n);
+                    totalRead += n;
+                }
+            } catch (IOException ex) {
+                error = ex;
+            } finally {
+                exit.release();
+            }
+        }
+
+        /**
+         * The exception that stopped the copying, if any. Only valid after the thread finished.
+         */
+        public IOException getError() {
+            return error;
+        }
+    }
 }
@@ -54,6 +54,7 @@ import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RPromise.PromiseState;
 import com.oracle.truffle.r.runtime.data.RSharingAttributeStorage;
 import com.oracle.truffle.r.runtime.data.RUnboundValue;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
@@ -457,13 +458,30 @@ public class RChannel {
             }
         }
 
+        /**
+         * Vectors backed by a Java array get a new vector object over the same array instead of a
+         * copy of the data. Both vectors are made shared permanent, so that the array is never
+         * modified in place by either of the contexts.
+         */
+        private static RAttributable copyForNewAttributes(RSharingAttributeStorage o) {
+            if (o instanceof RAbstractVector) {
+                RAbstractVector sharingData = RDataFactory.createVectorSharingData((RAbstractVector) o);
+                if (sharingData != null) {
+                    o.makeSharedPermanent();
+                    sharingData.makeSharedPermanent();
+                    return sharingData;
+                }
+            }
+            return o.copy();
+        }
+
         @TruffleBoundary
         private Object convertObjectAttributesToPrivate(Object msg) throws IOException {
             RAttributable attributable = (RAttributable) msg;
             DynamicObject attr = attributable.getAttributes();
             DynamicObject newAttr = createShareableSlow(attr, false);
             if (newAttr != attr && RSharingAttributeStorage.isShareable(attributable)) {
-                attributable = ((RSharingAttributeStorage) msg).copy();
+                attributable = copyForNewAttributes((RSharingAttributeStorage) msg);
             }
             // see convertListAttributesToPrivate() why it is OK to use initAttributes() here
             attributable.initAttributes(newAttr);
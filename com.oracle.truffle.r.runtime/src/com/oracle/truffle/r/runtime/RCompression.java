@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -30,7 +30,6 @@ import java.io.OutputStream;
 import java.lang.ProcessBuilder.Redirect;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
-import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 
 import org.tukaani.xz.LZMA2InputStream;
@@ -199,55 +198,147 @@ public class RCompression {
         }
     }
 
-    public static byte[] bzipUncompressFromFile(TruffleFile path) throws IOException {
+    /**
+     * Returns a stream of the data decompressed by a {@code bzip2} sub-process, which are read as
+     * they are produced rather than collected in memory first.
+     */
+    public static InputStream bzipUncompressStreamFromFile(TruffleFile path) throws IOException {
         String[] command = new String[]{"bzip2", "-dc", path.getPath()};
         ProcessBuilder pb = new ProcessBuilder(command);
         pb.redirectError(Redirect.INHERIT);
         Process p = pb.start();
-        InputStream is = p.getInputStream();
-        ProcessOutputManager.OutputThreadVariable readThread = new ProcessOutputManager.OutputThreadVariable(command[0], is);
-        readThread.start();
-        try {
-            int rc = p.waitFor();
-            if (rc == 0) {
-                readThread.join();
-                return Arrays.copyOf(readThread.getData(), readThread.getTotalRead());
-            } else {
-                throw new IOException("bzip2 error code: " + rc);
-            }
-        } catch (InterruptedException ex) {
-            // fall through
-        }
-        throw new IOException();
+        p.getOutputStream().close();
+        return new BZip2InputStream(p);
     }
 
-    public static void bzipCompressToFile(byte[] data, TruffleFile path, boolean append) throws IOException {
+    /**
+     * Returns a stream that feeds a {@code bzip2} sub-process, whose output is written to
+     * {@code path} while the data are being produced. The compression is finished when the stream
+     * is closed.
+     */
+    public static OutputStream bzipCompressStreamToFile(TruffleFile path, boolean append) throws IOException {
+        OpenOption[] openOptions = append ? new OpenOption[]{StandardOpenOption.APPEND} : new OpenOption[0];
+        OutputStream fileStream = path.newOutputStream(openOptions);
         String[] command = new String[]{"bzip2", "-zc"};
-        int rc;
         ProcessBuilder pb = new ProcessBuilder(command);
         pb.redirectError(Redirect.INHERIT);
-        Process p = pb.start();
-        InputStream is = p.getInputStream();
-        OutputStream os = p.getOutputStream();
-        ProcessOutputManager.OutputThreadVariable readThread = new ProcessOutputManager.OutputThreadVariable(command[0], is);
-        readThread.start();
-        os.write(data);
-        os.close();
+        Process p;
         try {
-            rc = p.waitFor();
-            if (rc == 0) {
-                readThread.join();
-                byte[] cData = Arrays.copyOf(readThread.getData(), readThread.getTotalRead());
-                OpenOption[] openOptions = append ? new OpenOption[]{StandardOpenOption.APPEND} : new OpenOption[0];
-                path.newOutputStream(openOptions).write(cData);
+            p = pb.start();
+        } catch (IOException ex) {
+            fileStream.close();
+            throw ex;
+        }
+        ProcessOutputManager.OutputThreadStream writeThread = new ProcessOutputManager.OutputThreadStream(command[0], p.getInputStream(), fileStream);
+        writeThread.start();
+        return new BZip2OutputStream(p, writeThread, fileStream);
+    }
+
+    private static int waitForBzip(Process p) throws IOException {
+        try {
+            return p.waitFor();
+        } catch (InterruptedException ex) {
+            p.destroy();
+            throw new IOException("interrupted while waiting for bzip2");
+        }
+    }
+
+    private static final class BZip2InputStream extends InputStream {
+        private final Process process;
+        private final InputStream is;
+        private boolean eof;
+
+        BZip2InputStream(Process process) {
+            this.process = process;
+            this.is = process.getInputStream();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = is.read(b, off, len);
+            if (n == -1 && !eof) {
+                eof = true;
+                int rc = waitForBzip(process);
+                if (rc != 0) {
+                    throw new IOException("bzip2 error code: " + rc);
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return is.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            is.close();
+            if (!eof) {
+                // the rest of the data is not needed
+                process.destroy();
+            }
+        }
+    }
+
+    private static final class BZip2OutputStream extends OutputStream {
+        private final Process process;
+        private final OutputStream os;
+        private final ProcessOutputManager.OutputThreadStream writeThread;
+        private final OutputStream fileStream;
+        private boolean closed;
+
+        BZip2OutputStream(Process process, ProcessOutputManager.OutputThreadStream writeThread, OutputStream fileStream) {
+            this.process = process;
+            this.os = process.getOutputStream();
+            this.writeThread = writeThread;
+            this.fileStream = fileStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            os.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            os.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            os.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
                 return;
-            } else {
-                throw new IOException("bzip2 error code: " + rc);
             }
-        } catch (InterruptedException ex) {
-            // fall through
+            closed = true;
+            try {
+                os.close();
+                int rc = waitForBzip(process);
+                writeThread.join();
+                if (writeThread.getError() != null) {
+                    throw writeThread.getError();
+                }
+                if (rc != 0) {
+                    throw new IOException("bzip2 error code: " + rc);
+                }
+            } catch (InterruptedException ex) {
+                throw new IOException("interrupted while waiting for bzip2");
+            } finally {
+                fileStream.close();
+            }
         }
-        throw new IOException();
     }
 
     public static String getBz2Version() throws IOException {
@@ -26,11 +26,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.ref.WeakReference;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -383,11 +387,36 @@ public class RSerialize {
 
     @TruffleBoundary
     public static Object unserialize(RConnection conn) throws IOException {
+        int mapThreshold = RContext.getInstance().getNonNegativeIntOption(FastROptions.MapUnserializeThreshold);
+        TruffleFile file = conn.getUncompressedReadFile();
+        if (mapThreshold > 0 && file != null && !trace()) {
+            SeekableByteChannel channel = file.newByteChannel(Collections.singleton(StandardOpenOption.READ));
+            try {
+                if (channel instanceof FileChannel) {
+                    return unserializeMapped(conn, file, (FileChannel) channel, mapThreshold);
+                }
+            } finally {
+                channel.close();
+            }
+        }
         Input instance = trace() ? new TracingInput(conn) : new Input(conn);
         Object result = instance.unserialize();
         return result;
     }
 
+    /**
+     * Reads from the file of {@code conn} directly, so that the large integer and double vectors
+     * can be backed by the file mapped into memory instead of being read into Java arrays. The
+     * position of {@code conn} is moved past the data read at the end.
+     */
+    private static Object unserializeMapped(RConnection conn, TruffleFile file, FileChannel channel, int mapThreshold) throws IOException {
+        channel.position(conn.seek(0, RConnection.SeekMode.ENQUIRE, RConnection.SeekRWMode.READ));
+        Input instance = new Input(Channels.newInputStream(channel), file, channel, mapThreshold);
+        Object result = instance.unserialize();
+        conn.seek(instance.stream.position(), RConnection.SeekMode.START, RConnection.SeekRWMode.READ);
+        return result;
+    }
+
     @TruffleBoundary
     public static Object unserialize(RRawVector data) {
         byte[] buffer = data.materialize().getReadonlyData();
@@ -398,6 +427,11 @@ public class RSerialize {
         }
     }
 
+    @TruffleBoundary
+    public static Object unserialize(byte[] data) throws IOException {
+        return new Input(new PByteArrayInputStream(data)).unserialize();
+    }
+
     /**
      * This variant exists for the {@code lazyLoadDBFetch} function. In certain cases, when
      * {@link Input#persistentRestore} is called, an R function needs to be evaluated with an
@@ -443,7 +477,15 @@ public class RSerialize {
             this(input, null, null, null);
         }
 
+        private Input(InputStream input, TruffleFile mappableFile, FileChannel mappableChannel, int mapThreshold) throws IOException {
+            this(input, null, null, null, mappableFile, mappableChannel, mapThreshold);
+        }
+
         private Input(InputStream is, CallHook hook, String packageName, String functionName) throws IOException {
+            this(is, hook, packageName, functionName, null, null, 0);
+        }
+
+        private Input(InputStream is, CallHook hook, String packageName, String functionName, TruffleFile mappableFile, FileChannel mappableChannel, int mapThreshold) throws IOException {
             super(hook);
             this.packageName = packageName;
             this.functionName = functionName;
@@ -454,7 +496,7 @@ public class RSerialize {
                 case 'B':
                     throw formatError(buf[0], true);
                 case 'X':
-                    stream = new XdrInputFormat(is);
+                    stream = new XdrInputFormat(is, mappableFile, mappableChannel, mapThreshold);
                     break;
                 case '\n':
                     // special case in 'A'
@@ -852,6 +894,11 @@ public class RSerialize {
 
                 case INTSXP: {
                     int len = stream.readInt();
+                    RIntVector mapped = stream.mapIntVector(len);
+                    if (mapped != null) {
+                        result = mapped;
+                        break;
+                    }
                     int[] data = new int[len];
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
@@ -884,6 +931,11 @@ public class RSerialize {
 
                 case REALSXP: {
                     int len = stream.readInt();
+                    RDoubleVector mapped = stream.mapDoubleVector(len);
+                    if (mapped != null) {
+                        result = mapped;
+                        break;
+                    }
                     double[] data = new double[len];
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
@@ -1228,6 +1280,28 @@ public class RSerialize {
 
         abstract void readRaw(byte[] data) throws IOException;
 
+        /**
+         * Returns the next {@code len} integers as a vector backed by the input file mapped into
+         * memory, or {@code null} if the elements should be read one by one.
+         */
+        RIntVector mapIntVector(@SuppressWarnings("unused") int len) throws IOException {
+            return null;
+        }
+
+        /**
+         * See {@link #mapIntVector}.
+         */
+        RDoubleVector mapDoubleVector(@SuppressWarnings("unused") int len) throws IOException {
+            return null;
+        }
+
+        /**
+         * The position in the input file of the next element to read, only supported for inputs
+         * that can be mapped.
+         */
+        long position() throws IOException {
+            throw RInternalError.shouldNotReachHere();
+        }
     }
 
     @SuppressWarnings("unused")
@@ -1288,15 +1362,7 @@ public class RSerialize {
                     result = new String(buf, offset, len, StandardCharsets.UTF_8);
                 }
                 offset += len;
-                WeakReference<String> entry;
-                if ((entry = strings.get(result)) != null) {
-                    String string = entry.get();
-                    if (string != null) {
-                        return string;
-                    }
-                }
-                strings.put(result, new WeakReference<>(result));
-                return result;
+                return strings.intern(result, result);
             }
 
             void readRaw(byte[] data) {
@@ -1331,10 +1397,21 @@ public class RSerialize {
          */
         private final Buffer defaultBuffer;
 
-        private final WeakHashMap<String, WeakReference<String>> strings = RContext.getInstance().stringMap;
+        private final WeakInternTable<String> strings = RContext.getInstance().stringMap;
+
+        /**
+         * The file channel that {@link #is} reads from, if the vectors of at least
+         * {@link #mapThreshold} bytes should be mapped into memory, or {@code null}.
+         */
+        private final FileChannel mappableChannel;
+        private final TruffleFile mappableFile;
+        private final int mapThreshold;
 
-        XdrInputFormat(InputStream is) {
+        XdrInputFormat(InputStream is, TruffleFile mappableFile, FileChannel mappableChannel, int mapThreshold) {
             super(is);
+            this.mappableFile = mappableFile;
+            this.mappableChannel = mappableChannel;
+            this.mapThreshold = mapThreshold;
             if (is instanceof PByteArrayInputStream) {
                 // we already have the data and we have read the beginning
                 PByteArrayInputStream pbis = (PByteArrayInputStream) is;
@@ -1368,6 +1445,54 @@ public class RSerialize {
             ensureData(data.length).readRaw(data);
         }
 
+        @Override
+        RIntVector mapIntVector(int len) throws IOException {
+            long size = len * 4L;
+            if (mappableChannel == null || size < mapThreshold) {
+                return null;
+            }
+            long position = position();
+            checkAvailable(position, size);
+            RIntVector result = RDataFactory.createMappedIntVector(mappableFile, mappableChannel, position, len);
+            skip(position, size);
+            return result;
+        }
+
+        @Override
+        RDoubleVector mapDoubleVector(int len) throws IOException {
+            long size = len * 8L;
+            if (mappableChannel == null || size < mapThreshold) {
+                return null;
+            }
+            long position = position();
+            checkAvailable(position, size);
+            RDoubleVector result = RDataFactory.createMappedDoubleVector(mappableFile, mappableChannel, position, len);
+            skip(position, size);
+            return result;
+        }
+
+        @Override
+        long position() throws IOException {
+            // the data read ahead into the buffer are not consumed yet
+            return mappableChannel.position() - (defaultBuffer.size - defaultBuffer.offset);
+        }
+
+        private void checkAvailable(long position, long size) throws IOException {
+            if (position + size > mappableChannel.size()) {
+                throw new IOException("Premature EOF");
+            }
+        }
+
+        private void skip(long position, long n) throws IOException {
+            int buffered = defaultBuffer.size - defaultBuffer.offset;
+            if (n <= buffered) {
+                defaultBuffer.offset += (int) n;
+            } else {
+                mappableChannel.position(position + n);
+                defaultBuffer.offset = defaultBuffer.size = 0;
+            }
+        }
+
         private Buffer ensureData(int n) throws IOException {
             Buffer usedBuffer;
             if (n > defaultBuffer.buf.length) {
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.function.Function;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A thread-safe table of weakly referenced canonical instances of values identified by a string
+ * key, e.g., the {@link com.oracle.truffle.r.runtime.data.CharSXPWrapper CHARSXP} cache. Compared
+ * to a synchronized {@link java.util.WeakHashMap} mapping the values to weak references to
+ * themselves, the table holds a single weak reference per value and is split into independently
+ * locked segments, so that threads creating strings in parallel rarely wait for each other.
+ *
+ * The key of a value is obtained from the value itself, so that the table does not keep the keys
+ * alive. Keys are compared by identity first, which is the common case for interned strings, and
+ * only then by their hash codes and contents.
+ */
+public final class WeakInternTable<T> {
+
+    private static final int MAX_SEGMENTS = 64;
+
+    private final Function<T, String> keyFunction;
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    /**
+     * @param keyFunction returns the key of a value, must be consistent with the key the value was
+     *            added with
+     * @param expectedSize the expected number of values, only a hint
+     */
+    @SuppressWarnings("unchecked")
+    public WeakInternTable(Function<T, String> keyFunction, int expectedSize) {
+        this.keyFunction = keyFunction;
+        int count = 1;
+        while (count < Runtime.getRuntime().availableProcessors() * 4 && count < MAX_SEGMENTS) {
+            count <<= 1;
+        }
+        this.segments = new WeakInternTable.Segment[count];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(Math.max(expectedSize / count, 4));
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private Segment segmentFor(int hash) {
+        // the segment is selected by the upper bits, the bucket by the lower bits of the hash
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    /**
+     * Returns the value with the given key or {@code null} if there is none.
+     */
+    @TruffleBoundary
+    public T get(String key) {
+        int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Returns the value with the key {@code key} or adds {@code value} if there is none.
+     */
+    @TruffleBoundary
+    public T intern(String key, T value) {
+        int hash = hash(key);
+        return segmentFor(hash).intern(key, hash, value, null);
+    }
+
+    /**
+     * Returns the value with the key {@code key} or adds the value created by {@code factory} if
+     * there is none. The factory is called with the lock of a segment held and thus should be
+     * cheap.
+     */
+    @TruffleBoundary
+    public T computeIfAbsent(String key, Function<String, T> factory) {
+        int hash = hash(key);
+        return segmentFor(hash).intern(key, hash, null, factory);
+    }
+
+    private static final class Entry<T> extends WeakReference<T> {
+        private final int hash;
+        private Entry<T> next;
+
+        Entry(T referent, int hash, Entry<T> next, ReferenceQueue<T> queue) {
+            super(referent, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private final class Segment {
+        private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+        private Entry<T>[] table;
+        private int size;
+
+        Segment(int expectedSize) {
+            int capacity = 4;
+            while (capacity < expectedSize * 4 / 3 && capacity < (1 << 30)) {
+                capacity <<= 1;
+            }
+            table = newTable(capacity);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Entry<T>[] newTable(int capacity) {
+            return new Entry[capacity];
+        }
+
+        synchronized T get(String key, int hash) {
+            return find(key, hash);
+        }
+
+        private T find(String key, int hash) {
+            for (Entry<T> e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    T value = e.get();
+                    if (value != null) {
+                        String k = keyFunction.apply(value);
+                        if (k == key || k.equals(key)) {
+                            return value;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        synchronized T intern(String key, int hash, T value, Function<String, T> factory) {
+            expungeStaleEntries();
+            T existing = find(key, hash);
+            if (existing != null) {
+                return existing;
+            }
+            T newValue = factory == null ? value : factory.apply(key);
+            if (size >= table.length - (table.length >>> 2)) {
+                resize();
+            }
+            int index = hash & (table.length - 1);
+            table[index] = new Entry<>(newValue, hash, table[index], queue);
+            size++;
+            return newValue;
+        }
+
+        private void resize() {
+            Entry<T>[] oldTable = table;
+            if (oldTable.length >= (1 << 30)) {
+                return;
+            }
+            Entry<T>[] newTable = newTable(oldTable.length << 1);
+            for (int i = 0; i < oldTable.length; i++) {
+                Entry<T> e = oldTable[i];
+                while (e != null) {
+                    Entry<T> next = e.next;
+                    if (e.get() == null) {
+                        // unlinked here rather than when it is taken from the queue
+                        e.next = null;
+                        size--;
+                    } else {
+                        int index = e.hash & (newTable.length - 1);
+                        e.next = newTable[index];
+                        newTable[index] = e;
+                    }
+                    e = next;
+                }
+            }
+            table = newTable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void expungeStaleEntries() {
+            Reference<? extends T> ref;
+            while ((ref = queue.poll()) != null) {
+                Entry<T> stale = (Entry<T>) ref;
+                int index = stale.hash & (table.length - 1);
+                Entry<T> prev = null;
+                for (Entry<T> e = table[index]; e != null; e = e.next) {
+                    if (e == stale) {
+                        if (prev == null) {
+                            table[index] = e.next;
+                        } else {
+                            prev.next = e.next;
+                        }
+                        size--;
+                        break;
+                    }
+                    prev = e;
+                }
+            }
+        }
+    }
+}
@@ -836,6 +836,12 @@ public class ConnectionSupport {
             return theConnection.readBin(buffer);
         }
 
+        @Override
+        public ByteBuffer readBinMapped(int length) throws IOException {
+            checkOpen();
+            return theConnection.readBinMapped(length);
+        }
+
         @Override
         public byte[] readBinChars() throws IOException {
             checkOpen();
@@ -1148,6 +1154,14 @@ public class ConnectionSupport {
             // Use 'description' and not 'path' since this may be different, e.g., on temp files.
             return description;
         }
+
+        @Override
+        public TruffleFile getUncompressedReadFile() {
+            if (isOpen() && getConnectionClass() == ConnectionClass.File && getOpenMode().abstractOpenMode == AbstractOpenMode.ReadBinary && isSeekable()) {
+                return path;
+            }
+            return null;
+        }
     }
 
     public static ByteChannel newChannel(InputStream in) {
@@ -36,7 +36,9 @@ import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Objects;
 
@@ -140,6 +142,9 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
     @Override
     @TruffleBoundary
     public String[] readLines(int n, EnumSet<ReadLineWarning> warn, boolean skipNul) throws IOException {
+        if (readCache && cache != null) {
+            return readLinesFromCache(n, warn, skipNul);
+        }
         base.setIncomplete(false);
         ArrayList<String> lines = new ArrayList<>();
         int totalRead = 0;
@@ -216,6 +221,128 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
         return result;
     }
 
+    /**
+     * Variant of {@link #readLines(int, EnumSet, boolean)} for connections reading through the
+     * cache. Instead of going through {@link #readInternal()} byte by byte, the cached chunk is
+     * scanned for the line terminators and a line that lies within the chunk is decoded from the
+     * chunk directly. Only the lines spanning the chunks are collected in a separate buffer.
+     */
+    private String[] readLinesFromCache(int n, EnumSet<ReadLineWarning> warn, boolean skipNul) throws IOException {
+        base.setIncomplete(false);
+        Charset encoding = base.getEncoding();
+        boolean asciiCompatible = encoding == StandardCharsets.UTF_8 || encoding == StandardCharsets.ISO_8859_1 || encoding == StandardCharsets.US_ASCII;
+        ArrayList<String> lines = new ArrayList<>();
+        int nBytesConsumed = 0;
+        // the beginning of the current line if it did not fit into the previous chunks
+        byte[] buffer = new byte[64];
+        int totalRead = 0;
+        boolean nullRead = false;
+        boolean ascii = true;
+        while (n <= 0 || lines.size() < n) {
+            ensureDataAvailable(1);
+            if (!cache.hasRemaining()) {
+                if (totalRead > 0) {
+                    /*
+                     * GnuR says if non-blocking and in text mode, silently push back incomplete
+                     * lines, otherwise keep data and output warning.
+                     */
+                    final String incompleteFinalLine = new String(buffer, 0, totalRead, encoding);
+                    nBytesConsumed += totalRead;
+                    if (!base.isBlocking() && base.isTextMode()) {
+                        base.pushBack(RDataFactory.createStringVector(incompleteFinalLine), false);
+                        base.setIncomplete(true);
+                    } else {
+                        lines.add(incompleteFinalLine);
+                        if (warn.contains(ReadLineWarning.INCOMPLETE_LAST_LINE)) {
+                            RError.warning(RError.SHOW_CALLER, RError.Message.INCOMPLETE_FINAL_LINE, base.getSummaryDescription());
+                        }
+                    }
+                }
+                break;
+            }
+            byte[] chunk = cache.array();
+            int start = cache.arrayOffset() + cache.position();
+            int end = cache.arrayOffset() + cache.limit();
+            int segmentStart = start;
+            int i = start;
+            byte b = 0;
+            while (i < end) {
+                b = chunk[i];
+                if (b == '\n' || b == '\r') {
+                    break;
+                } else if (b == 0) {
+                    if (warn.contains(ReadLineWarning.EMBEDDED_NUL) && !skipNul) {
+                        RError.warning(RError.SHOW_CALLER, RError.Message.LINE_CONTAINS_EMBEDDED_NULLS, lines.size() + 1);
+                    }
+                    // the part up to the nul is kept, the nul itself is always dropped
+                    if (!nullRead) {
+                        buffer = appendBytes(buffer, totalRead, chunk, segmentStart, i - segmentStart);
+                        totalRead += i - segmentStart;
+                    }
+                    nullRead = !skipNul;
+                    segmentStart = i + 1;
+                } else if (b < 0) {
+                    ascii = false;
+                }
+                i++;
+            }
+            cache.position(Math.min(i + 1, end) - cache.arrayOffset());
+            if (i == end) {
+                // no line terminator in this chunk
+                if (!nullRead) {
+                    buffer = appendBytes(buffer, totalRead, chunk, segmentStart, end - segmentStart);
+                    totalRead += end - segmentStart;
+                }
+                continue;
+            }
+            String line;
+            if (totalRead == 0 && !nullRead) {
+                line = decode(chunk, segmentStart, i - segmentStart, encoding, ascii && asciiCompatible);
+                nBytesConsumed += i - segmentStart;
+            } else {
+                if (!nullRead) {
+                    buffer = appendBytes(buffer, totalRead, chunk, segmentStart, i - segmentStart);
+                    totalRead += i - segmentStart;
+                }
+                line = decode(buffer, 0, totalRead, encoding, ascii && asciiCompatible);
+                nBytesConsumed += totalRead;
+            }
+            lines.add(line);
+            totalRead = 0;
+            nullRead = false;
+            ascii = true;
+            if (b == '\r') {
+                // swallow the trailing lf, the next byte is only looked at, not consumed
+                ensureDataAvailable(1);
+                if (cache.hasRemaining() && cache.get(cache.position()) == '\n') {
+                    cache.get();
+                }
+            }
+        }
+        String[] result = new String[lines.size()];
+        lines.toArray(result);
+        updateReadOffset(nBytesConsumed);
+        return result;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static String decode(byte[] bytes, int offset, int length, Charset encoding, boolean ascii) {
+        if (ascii) {
+            // cheaper than decoding if all the bytes are ASCII characters
+            return new String(bytes, 0, offset, length);
+        }
+        return new String(bytes, offset, length, encoding);
+    }
+
+    private static byte[] appendBytes(byte[] buffer, int bufferLength, byte[] bytes, int offset, int length) {
+        byte[] result = buffer;
+        if (bufferLength + length > buffer.length) {
+            result = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bufferLength + length));
+        }
+        System.arraycopy(bytes, offset, result, bufferLength, length);
+        return result;
+    }
+
     /**
      * Updates the read cursor.<br>
      * <p>
@@ -22,12 +22,12 @@
  */
 package com.oracle.truffle.r.runtime.conn;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ByteChannel;
+import java.nio.channels.FileChannel;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
 import java.util.EnumSet;
@@ -49,6 +49,7 @@ import com.oracle.truffle.r.runtime.conn.ConnectionSupport.BasePathRConnection;
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport.ConnectionClass;
 import com.oracle.truffle.r.runtime.conn.DelegateRConnection.CompressedInputRConnection;
 import com.oracle.truffle.r.runtime.conn.DelegateRConnection.CompressedOutputRConnection;
+import com.oracle.truffle.r.runtime.data.MappedVectorData;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Collections;
@@ -232,14 +233,13 @@ public class FileConnections {
         switch (base.getOpenMode().abstractOpenMode) {
             case Read:
             case ReadBinary:
-                byte[] bzipUdata = RCompression.bzipUncompressFromFile(base.path);
-                return new ByteStreamCompressedInputRConnection(base, new ByteArrayInputStream(bzipUdata));
+                return new CompressedInputRConnection(base, RCompression.bzipUncompressStreamFromFile(base.path));
             case Append:
             case AppendBinary:
-                return new BZip2OutputRConnection(base, new ByteArrayOutputStream(), true);
+                return new CompressedOutputRConnection(base, RCompression.bzipCompressStreamToFile(base.path, true), false);
             case Write:
             case WriteBinary:
-                return new BZip2OutputRConnection(base, new ByteArrayOutputStream(), false);
+                return new CompressedOutputRConnection(base, RCompression.bzipCompressStreamToFile(base.path, false), false);
             default:
                 throw RError.nyi(RError.SHOW_CALLER2, "open mode: " + base.getOpenMode());
         }
@@ -267,6 +267,10 @@ public class FileConnections {
         } else {
             cTypeActual = cType;
         }
+        if (openMode != AbstractOpenMode.Read && openMode != AbstractOpenMode.ReadBinary) {
+            // vectors unserialized from the file may still be mapped into memory
+            MappedVectorData.copyMappedFile(base.path);
+        }
 
         switch (cTypeActual) {
             case NONE:
@@ -310,7 +314,18 @@ public class FileConnections {
 
     static class FileReadBinaryRConnection extends DelegateReadRConnection {
 
+        /**
+         * Reads of at least this many bytes are mapped from the file rather than copied through the
+         * read cache, smaller reads do not pay off the cost of the mapping.
+         */
+        private static final int MIN_MAPPED_LENGTH = 1 << 16;
+
         private final SeekableByteChannel channel;
+        /**
+         * The whole file mapped by the first large read, the following reads are served from it as
+         * long as the size of the file does not change.
+         */
+        private MappedByteBuffer mapping;
 
         FileReadBinaryRConnection(BasePathRConnection base) throws IOException {
             super(base);
@@ -331,6 +346,44 @@ public class FileConnections {
         public ByteChannel getChannel() {
             return channel;
         }
+
+        @Override
+        @TruffleBoundary
+        public ByteBuffer readBinMapped(int length) throws IOException {
+            if (length < MIN_MAPPED_LENGTH || !(channel instanceof FileChannel)) {
+                return null;
+            }
+            FileChannel fileChannel = (FileChannel) channel;
+            // the data in the read cache precede the position of the channel
+            long position = fileChannel.position() - bytesInCache();
+            int mappedLength = (int) Math.min(length, Math.max(0L, fileChannel.size() - position));
+            invalidateCache();
+            ByteBuffer result = mappedLength == 0 ? ByteBuffer.allocate(0) : map(fileChannel, position, mappedLength);
+            fileChannel.position(position + mappedLength);
+            return result;
+        }
+
+        private ByteBuffer map(FileChannel fileChannel, long position, int length) throws IOException {
+            long size = fileChannel.size();
+            if (size > Integer.MAX_VALUE) {
+                // a single buffer cannot map the whole file
+                return fileChannel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            }
+            if (mapping == null || mapping.capacity() != size) {
+                mapping = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer result = mapping.duplicate();
+            result.position((int) position);
+            result.limit((int) position + length);
+            return result.slice();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the mapping is released once it is no longer referenced
+            mapping = null;
+            super.close();
+        }
     }
 
     static class FileReadTextRConnection extends FileReadBinaryRConnection {
@@ -348,6 +401,11 @@ public class FileConnections {
         public byte[] readBinChars() throws IOException {
             throw RError.error(RError.SHOW_CALLER2, RError.Message.ONLY_READ_BINARY_CONNECTION);
         }
+
+        @Override
+        public ByteBuffer readBinMapped(int length) throws IOException {
+            throw RError.error(RError.SHOW_CALLER2, RError.Message.ONLY_READ_BINARY_CONNECTION);
+        }
     }
 
     private static class FileWriteTextRConnection extends FileWriteBinaryConnection {
@@ -755,29 +813,4 @@ public class FileConnections {
             writeOffset = raf.getFilePointer();
         }
     }
-
-    private static class ByteStreamCompressedInputRConnection extends CompressedInputRConnection {
-        ByteStreamCompressedInputRConnection(BasePathRConnection base, ByteArrayInputStream is) {
-            super(base, is);
-        }
-    }
-
-    private static class BZip2OutputRConnection extends CompressedOutputRConnection {
-        private final ByteArrayOutputStream bos;
-        private final boolean append;
-
-        BZip2OutputRConnection(BasePathRConnection base, ByteArrayOutputStream os, boolean append) {
-            super(base, os, false);
-            this.bos = os;
-            this.append = append;
-        }
-
-        @Override
-        public void close() throws IOException {
-            flush();
-            // Now actually do the compression using sub-process
-            byte[] data = bos.toByteArray();
-            RCompression.bzipCompressToFile(data, ((BasePathRConnection) base).path, append);
-        }
-    }
 }
@@ -30,6 +30,7 @@ import java.nio.channels.ByteChannel;
 import java.util.EnumSet;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport.BaseRConnection;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RStringVector;
@@ -236,4 +237,25 @@ public interface RConnection extends AutoCloseable {
     void truncate() throws IOException;
 
     void pushBack(RStringVector lines, boolean addNewLine);
+
+    /**
+     * Returns the file of an open, seekable, binary read connection to an uncompressed file, or
+     * {@code null} for any other connection. Allows reading large data directly from the file, the
+     * reader is then responsible for moving the position of the connection past the data read.
+     */
+    default TruffleFile getUncompressedReadFile() {
+        return null;
+    }
+
+    /**
+     * Internal connection-specific support for the {@code readBin} builtin on large data. Returns
+     * up to {@code length} bytes from the current position as a read-only buffer mapped from the
+     * underlying file and moves the position past them, so that the caller can decode the data
+     * without copying them. Returns {@code null} without reading anything if the connection does
+     * not support mapping, the caller then uses {@link #readBin(ByteBuffer)}.
+     */
+    @SuppressWarnings("unused")
+    default ByteBuffer readBinMapped(int length) throws IOException {
+        return null;
+    }
 }
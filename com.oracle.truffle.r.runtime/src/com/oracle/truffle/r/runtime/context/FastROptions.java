@@ -127,6 +127,14 @@ public class FastROptions {
     public static final OptionKey<Boolean> RestrictForceSplitting = new OptionKey<>(true);
     @Option(category = OptionCategory.INTERNAL, help = "Turn on explicit GC via the gc built-in. Otherwise calls to gc are ignored.") //
     public static final OptionKey<Boolean> EnableExplicitGC = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Minimal number of elements for which builtins such as order, scan or colSums use multiple threads, 0 disables the parallel execution") //
+    public static final OptionKey<Integer> ParallelThreshold = new OptionKey<>(100000);
+    @Option(category = OptionCategory.EXPERT, help = "Minimal size in bytes of the integer and double vectors that unserialize maps into memory when reading an uncompressed file, 0 disables the mapping") //
+    public static final OptionKey<Integer> MapUnserializeThreshold = new OptionKey<>(0);
+    @Option(category = OptionCategory.EXPERT, help = "Size in megabytes of the cache of decompressed lazy-load database entries shared by all contexts, 0 disables the cache and the parallel prefetch of the entries") //
+    public static final OptionKey<Integer> LazyLoadCacheSize = new OptionKey<>(256);
+    @Option(category = OptionCategory.EXPERT, help = "Collect call counts, cumulative times and latency histograms of all R functions, see .fastr.funstats") //
+    public static final OptionKey<Boolean> FunctionStats = new OptionKey<>(false);
 
     // Discontinued since rc12
     // only a warning is printed to use the default logger mechanism
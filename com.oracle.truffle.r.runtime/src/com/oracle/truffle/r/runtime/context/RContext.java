@@ -32,7 +32,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.CharsetDecoder;
@@ -98,6 +97,7 @@ import com.oracle.truffle.r.runtime.ReturnException;
 import com.oracle.truffle.r.runtime.SuppressFBWarnings;
 import com.oracle.truffle.r.runtime.TempPathName;
 import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.WeakInternTable;
 import com.oracle.truffle.r.runtime.builtins.RBuiltinDescriptor;
 import com.oracle.truffle.r.runtime.builtins.RBuiltinKind;
 import com.oracle.truffle.r.runtime.builtins.RBuiltinLookup;
@@ -380,7 +380,7 @@ public final class RContext {
     public final AtomicBoolean interruptResize = new AtomicBoolean(false);
     public boolean internalGraphicsInitialized = false;
 
-    public final WeakHashMap<String, WeakReference<String>> stringMap = new WeakHashMap<>();
+    public final WeakInternTable<String> stringMap = new WeakInternTable<>(s -> s, 1024);
     public final WeakHashMap<Source, REnvironment> sourceRefEnvironments = new WeakHashMap<>();
     public final WeakHashMap<TruffleFile, REnvironment> srcfileEnvironments = new WeakHashMap<>();
     public final List<String> libraryPaths = new ArrayList<>(1);
@@ -631,6 +631,26 @@ public final class RContext {
         return new RContext(language, env, instrumenter, isInitial);
     }
 
+    /**
+     * Called before the context is disposed, while R code can still be run. Stops the worker
+     * contexts that {@code mclapply} keeps alive between the calls, they would outlive this context
+     * otherwise.
+     */
+    public void finalizeContext() {
+        if (parentContext != null || !state.contains(State.INITIALIZED)) {
+            return;
+        }
+        REnvironment parallel = REnvironment.getRegisteredNamespace(this, "parallel");
+        Object stopPool = parallel == null ? null : parallel.get("mc.pool.stop");
+        if (stopPool instanceof RFunction) {
+            try {
+                engine.evalFunction((RFunction) stopPool, null, null, true, null);
+            } catch (Throwable t) {
+                RInternalError.reportError(t);
+            }
+        }
+    }
+
     /**
      * Destroy this context.
      */
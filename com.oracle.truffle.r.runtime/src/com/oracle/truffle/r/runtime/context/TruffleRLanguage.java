@@ -139,6 +139,11 @@ public final class TruffleRLanguage extends TruffleLanguage<RContext> {
         return FastROptions.getDescriptors();
     }
 
+    @Override
+    protected void finalizeContext(RContext context) {
+        context.finalizeContext();
+    }
+
     @Override
     protected void disposeContext(RContext context) {
         activeContexts--;
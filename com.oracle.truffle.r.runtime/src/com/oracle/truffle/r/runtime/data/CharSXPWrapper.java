@@ -23,9 +23,6 @@
 package com.oracle.truffle.r.runtime.data;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
-import java.lang.ref.WeakReference;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -36,6 +33,7 @@ import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.WeakInternTable;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -52,7 +50,7 @@ import java.nio.charset.StandardCharsets;
  */
 @ExportLibrary(InteropLibrary.class)
 public final class CharSXPWrapper extends RBaseObject {
-    private static final Map<CharSXPWrapper, WeakReference<CharSXPWrapper>> instances = new WeakHashMap<>(2048);
+    private static final WeakInternTable<CharSXPWrapper> instances = new WeakInternTable<>(w -> w.contents, 2048);
     private static final CharSXPWrapper NA = new CharSXPWrapper(RRuntime.STRING_NA);
     private String contents;
     private byte[] bytes;
@@ -163,22 +161,12 @@ public final class CharSXPWrapper extends RBaseObject {
         if (RRuntime.isNA(contents)) {
             return NA;
         } else {
-            CharSXPWrapper cachedWrapper;
-            CharSXPWrapper newWrapper = new CharSXPWrapper(contents);
-            synchronized (instances) {
-                WeakReference<CharSXPWrapper> wr = instances.get(newWrapper);
-                if (wr != null) {
-                    cachedWrapper = wr.get();
-                    if (cachedWrapper != null) {
-                        if (intern) {
-                            cachedWrapper.contents = contents;
-                        }
-                        return cachedWrapper;
-                    }
-                }
-                instances.put(newWrapper, new WeakReference<>(newWrapper));
+            CharSXPWrapper wrapper = instances.computeIfAbsent(contents, CharSXPWrapper::new);
+            if (intern && wrapper.contents != contents) {
+                // all the threads store the same interned instance
+                wrapper.contents = contents;
             }
-            return newWrapper;
+            return wrapper;
         }
     }
 
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+
+/**
+ * Support for vector data that stay in a file mapped into memory, see
+ * {@link RDoubleMappedVectorData} and {@link RIntMappedVectorData}. The elements are stored in the
+ * big-endian order of the XDR serialization format and are decoded on each access. A single mapping
+ * is limited to 2GB, so larger regions are split into chunks whose size is a multiple of the element
+ * size.
+ *
+ * Truncating or rewriting a mapped file would change the values of the vectors or make the
+ * accesses fault. The file connections therefore call {@link #copyMappedFile} before they open a
+ * file for writing, which replaces the mapped chunks of that file with copies in memory. Other
+ * processes writing to the file are not detected.
+ */
+public final class MappedVectorData {
+
+    static final int CHUNK_SHIFT = 30;
+    static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    /**
+     * The mapped data by the canonical path of the file, guarded by the class.
+     */
+    private static final HashMap<String, ArrayList<WeakReference<MappedVectorData>>> mappedFiles = new HashMap<>();
+
+    private volatile ByteBuffer[] chunks;
+
+    private MappedVectorData(ByteBuffer[] chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * The chunks of the data, the vector data read all the elements of one operation from the
+     * same array.
+     */
+    ByteBuffer[] getChunks() {
+        return chunks;
+    }
+
+    static MappedVectorData map(TruffleFile file, FileChannel channel, long position, long size) throws IOException {
+        int chunkCount = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            long offset = (long) i << CHUNK_SHIFT;
+            long chunkSize = Math.min(size - offset, 1L << CHUNK_SHIFT);
+            chunks[i] = channel.map(MapMode.READ_ONLY, position + offset, chunkSize).order(ByteOrder.BIG_ENDIAN);
+        }
+        MappedVectorData result = new MappedVectorData(chunks);
+        String path = file.getCanonicalFile().getPath();
+        synchronized (MappedVectorData.class) {
+            ArrayList<WeakReference<MappedVectorData>> list = mappedFiles.computeIfAbsent(path, p -> new ArrayList<>());
+            list.removeIf(ref -> ref.get() == null);
+            list.add(new WeakReference<>(result));
+        }
+        return result;
+    }
+
+    /**
+     * Copies the data of all the vectors mapped from {@code file} into memory, so that the file
+     * can be written to. Does nothing if no vector is mapped from the file.
+     */
+    @TruffleBoundary
+    public static void copyMappedFile(TruffleFile file) throws IOException {
+        ArrayList<WeakReference<MappedVectorData>> list;
+        synchronized (MappedVectorData.class) {
+            if (mappedFiles.isEmpty() || !file.exists()) {
+                return;
+            }
+            list = mappedFiles.remove(file.getCanonicalFile().getPath());
+        }
+        if (list != null) {
+            for (Iterator<WeakReference<MappedVectorData>> iter = list.iterator(); iter.hasNext();) {
+                MappedVectorData data = iter.next().get();
+                if (data != null) {
+                    data.copyChunks();
+                }
+            }
+        }
+    }
+
+    private void copyChunks() {
+        ByteBuffer[] mapped = chunks;
+        ByteBuffer[] copies = new ByteBuffer[mapped.length];
+        for (int i = 0; i < mapped.length; i++) {
+            ByteBuffer copy = ByteBuffer.allocate(mapped[i].capacity());
+            copy.put(mapped[i].duplicate());
+            copies[i] = copy.order(ByteOrder.BIG_ENDIAN);
+        }
+        chunks = copies;
+    }
+}
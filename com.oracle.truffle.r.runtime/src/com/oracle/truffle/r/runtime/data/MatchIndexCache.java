@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.DoubleTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.IntTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.StringTable;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Hash indices of the elements of the {@code table} argument of {@code match} (and of the set
+ * arguments of {@code is.element}, {@code intersect} and {@code setdiff}) kept on the data object
+ * of the vector, so that repeated lookups into the same vector do not rebuild the index.
+ *
+ * The index maps each value to the (zero based) index of its first occurrence. It is only kept for
+ * vectors backed by a Java array that are referenced from somewhere, i.e., are not temporary:
+ * temporary vectors are the only ones whose arrays are written to directly via
+ * {@link RAbstractVector#getInternalStore()}, all other writes go through the
+ * {@link VectorDataLibrary} and drop the index. Shared permanent vectors are left out as well.
+ *
+ * Other vectors can still be read concurrently, e.g., from an environment shared by child
+ * contexts. The index is therefore published through a volatile field only after it was fully
+ * built and is never modified afterwards. The races between the threads are benign: two threads
+ * may both build the index, or a thread marking the data as {@link #REQUESTED} may replace an
+ * index built by another thread, which only means the index is built again.
+ */
+public final class MatchIndexCache {
+
+    /**
+     * Tables shorter than this are cheaper to scan than to index.
+     */
+    private static final int MIN_TABLE_LENGTH = 16;
+
+    /**
+     * Marks data that was looked up once without building the index.
+     */
+    private static final Object REQUESTED = new Object();
+
+    private MatchIndexCache() {
+        // private
+    }
+
+    private static boolean isCacheable(RAbstractVector table, int length) {
+        return length >= MIN_TABLE_LENGTH && !table.isTemporary() && !table.isSharedPermanent();
+    }
+
+    /**
+     * Returns {@code true} if the index should be built now. If {@code eager} is {@code false},
+     * the index is only built on the second request for the same data, so that a single lookup of
+     * one element does not pay for indexing the whole table.
+     */
+    private static boolean shouldBuild(Object current, boolean eager) {
+        return eager || current == REQUESTED;
+    }
+
+    /**
+     * Returns the index of {@code table}, building it if necessary, or {@code null} if the index
+     * is not available for this vector.
+     */
+    @TruffleBoundary
+    public static IntTable getIntIndex(RIntVector table, boolean eager) {
+        Object data = table.getData();
+        if (!(data instanceof RIntArrayVectorData)) {
+            return null;
+        }
+        RIntArrayVectorData arrayData = (RIntArrayVectorData) data;
+        int[] values = arrayData.getReadonlyIntData();
+        if (!isCacheable(table, values.length)) {
+            return null;
+        }
+        Object current = arrayData.getLookupIndex();
+        if (current instanceof IntTable) {
+            return (IntTable) current;
+        } else if (!shouldBuild(current, eager)) {
+            arrayData.setLookupIndex(REQUESTED);
+            return null;
+        }
+        IntTable index = new IntTable(values.length);
+        for (int i = 0; i < values.length; i++) {
+            index.putIfAbsent(values[i], i);
+        }
+        arrayData.setLookupIndex(index);
+        return index;
+    }
+
+    /**
+     * Returns the index of {@code table}, building it if necessary, or {@code null} if the index
+     * is not available for this vector.
+     */
+    @TruffleBoundary
+    public static DoubleTable getDoubleIndex(RDoubleVector table, boolean eager) {
+        Object data = table.getData();
+        if (!(data instanceof RDoubleArrayVectorData)) {
+            return null;
+        }
+        RDoubleArrayVectorData arrayData = (RDoubleArrayVectorData) data;
+        double[] values = arrayData.getReadonlyDoubleData();
+        if (!isCacheable(table, values.length)) {
+            return null;
+        }
+        Object current = arrayData.getLookupIndex();
+        if (current instanceof DoubleTable) {
+            return (DoubleTable) current;
+        } else if (!shouldBuild(current, eager)) {
+            arrayData.setLookupIndex(REQUESTED);
+            return null;
+        }
+        DoubleTable index = new DoubleTable(values.length);
+        for (int i = 0; i < values.length; i++) {
+            index.putIfAbsent(values[i], i);
+        }
+        arrayData.setLookupIndex(index);
+        return index;
+    }
+
+    /**
+     * Returns the index of {@code table}, building it if necessary, or {@code null} if the index
+     * is not available for this vector.
+     */
+    @TruffleBoundary
+    public static StringTable getStringIndex(RStringVector table, boolean eager) {
+        Object data = table.getData();
+        if (!(data instanceof RStringArrayVectorData)) {
+            return null;
+        }
+        RStringArrayVectorData arrayData = (RStringArrayVectorData) data;
+        String[] values = arrayData.getReadonlyStringData();
+        if (!isCacheable(table, values.length)) {
+            return null;
+        }
+        Object current = arrayData.getLookupIndex();
+        if (current instanceof StringTable) {
+            return (StringTable) current;
+        } else if (!shouldBuild(current, eager)) {
+            arrayData.setLookupIndex(REQUESTED);
+            return null;
+        }
+        StringTable index = new StringTable(values.length);
+        for (int i = 0; i < values.length; i++) {
+            index.putIfAbsent(values[i], i);
+        }
+        arrayData.setLookupIndex(index);
+        return index;
+    }
+}
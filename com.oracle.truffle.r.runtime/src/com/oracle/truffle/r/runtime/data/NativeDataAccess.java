@@ -64,6 +64,7 @@ import java.lang.management.ManagementFactory;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
@@ -120,7 +121,8 @@ public final class NativeDataAccess {
 
     /**
      * Wraps a handle (number) reserved for a {@link NativeMirror} that escaped to native memory.
-     * Takes care of putting and removing the mapping for that handle from {@link #nativeMirrors}.
+     * Takes care of putting and removing the mapping for that handle from {@link #handleTable} or
+     * {@link #customMirrors}.
      */
     private static final class NativeHandleWrapper extends ReleasableWeakReference<RBaseObject> {
         private final long id;
@@ -133,7 +135,11 @@ public final class NativeDataAccess {
 
         @TruffleBoundary
         private void addToMirrors(long thisId) {
-            nativeMirrors.put(thisId, this);
+            if (NativeHandleTable.isHandle(thisId)) {
+                handleTable.set(thisId, this);
+            } else {
+                customMirrors.put(thisId, this);
+            }
         }
 
         public long getId() {
@@ -147,7 +153,107 @@ public final class NativeDataAccess {
                 // anyway
                 nativeMirrorInfo.remove(id);
             }
-            nativeMirrors.remove(id, this);
+            if (NativeHandleTable.isHandle(id)) {
+                handleTable.free(id, this);
+            } else {
+                customMirrors.remove(id, this);
+            }
+        }
+    }
+
+    /**
+     * The table of the handles of {@link NativeMirror}s that do not have a custom address. A handle
+     * encodes the index of its slot in the table and the generation of the slot, i.e., the number
+     * of times the slot was reused, so that resolving a handle is an array load and a comparison
+     * of the id. The generation makes it likely that a stale handle is reported rather than
+     * resolved to an unrelated object.
+     * <p>
+     * The handles always have the lowest bit set and the {@link #TAG} in the highest bits, so that
+     * they are never valid addresses. The slots are released by the {@link NativeHandleWrapper}
+     * once the wrapped object was collected.
+     */
+    private static final class NativeHandleTable {
+        private static final long TAG = 0x0de0000000000000L;
+        private static final long TAG_MASK = 0xfff0000000000001L;
+        private static final int GENERATION_SHIFT = 32;
+        private static final int GENERATION_MASK = 0xfffff;
+        private static final int INITIAL_CAPACITY = 512;
+
+        /**
+         * Written only while holding the lock of this table, the array is re-published after
+         * every store, so that the readers see the new wrappers.
+         */
+        private volatile NativeHandleWrapper[] handles = new NativeHandleWrapper[INITIAL_CAPACITY];
+        private int[] generations = new int[INITIAL_CAPACITY];
+        private int[] freeSlots = new int[INITIAL_CAPACITY];
+        private int freeCount;
+        private int used;
+        private int size;
+
+        static boolean isHandle(long id) {
+            return (id & TAG_MASK) == (TAG | 1);
+        }
+
+        private static int index(long id) {
+            return (int) id >>> 1;
+        }
+
+        NativeHandleWrapper get(long id) {
+            NativeHandleWrapper[] current = handles;
+            int index = index(id);
+            if (index < current.length) {
+                NativeHandleWrapper wrapper = current[index];
+                if (wrapper != null && wrapper.id == id) {
+                    return wrapper;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Reserves a slot and returns the corresponding handle, the wrapper is stored by
+         * {@link #set(long, NativeHandleWrapper)}.
+         */
+        synchronized long reserve() {
+            int index;
+            if (freeCount > 0) {
+                index = freeSlots[--freeCount];
+                generations[index] = (generations[index] + 1) & GENERATION_MASK;
+            } else {
+                index = used++;
+                if (index == Integer.MAX_VALUE >>> 1) {
+                    throw RInternalError.shouldNotReachHere("too many native handles");
+                }
+                if (index == generations.length) {
+                    int capacity = (int) Math.min(index * 2L, (Integer.MAX_VALUE >>> 1) + 1L);
+                    handles = Arrays.copyOf(handles, capacity);
+                    generations = Arrays.copyOf(generations, capacity);
+                    freeSlots = Arrays.copyOf(freeSlots, capacity);
+                }
+            }
+            size++;
+            return TAG | ((long) generations[index] << GENERATION_SHIFT) | ((long) index << 1) | 1;
+        }
+
+        synchronized void set(long id, NativeHandleWrapper wrapper) {
+            NativeHandleWrapper[] current = handles;
+            current[index(id)] = wrapper;
+            handles = current;
+        }
+
+        synchronized void free(long id, NativeHandleWrapper wrapper) {
+            NativeHandleWrapper[] current = handles;
+            int index = index(id);
+            if (current[index] == wrapper) {
+                current[index] = null;
+                handles = current;
+                freeSlots[freeCount++] = index;
+                size--;
+            }
+        }
+
+        synchronized int size() {
+            return size;
         }
     }
 
@@ -157,10 +263,10 @@ public final class NativeDataAccess {
      * for the purposes of making them look like actual {@code SEXP} to the native extensions run
      * either via NFI or LLVM.
      * <p>
-     * When native mirror leaks to actual native code, we create a handle for it (number) and put it
-     * into a hash map. Once a native code returns a value or calls back to Java passing some
-     * arguments, we convert the handles back to the NativeMirror object and to the corresponding
-     * {@link RBaseObject}.
+     * When native mirror leaks to actual native code, we create a handle for it (number) and
+     * register it in the handle table. Once a native code returns a value or calls back to Java
+     * passing some arguments, we convert the handles back to the NativeMirror object and to the
+     * corresponding {@link RBaseObject}.
      * <p>
      * For now, native mirror also holds reference to native memory allocated for "nativized"
      * vectors. See {@link com.oracle.truffle.r.runtime.ffi.RObjectDataPtr} for more details.
@@ -241,7 +347,7 @@ public final class NativeDataAccess {
         @TruffleBoundary
         private void initMirror() {
             assert nativeHandle == null;
-            long id = counter.addAndGet(2);
+            long id = handleTable.reserve();
             nativeHandle = new NativeHandleWrapper(id, delegate);
         }
 
@@ -396,11 +502,10 @@ public final class NativeDataAccess {
         }
     }
 
-    // The map from handles sent to the native code to the RBaseObjects they represent
-    // The counter is initialized to invalid address and incremented by 2 to always get invalid
-    // address value
-    private static final AtomicLong counter = new AtomicLong(0xdef000000000001L);
-    private static final ConcurrentHashMap<Long, NativeHandleWrapper> nativeMirrors = new ConcurrentHashMap<>(512);
+    // The handles sent to the native code and the RBaseObjects they represent
+    private static final NativeHandleTable handleTable = new NativeHandleTable();
+    // The mirrors of CustomNativeMirror objects, whose handles are the custom addresses
+    private static final ConcurrentHashMap<Long, NativeHandleWrapper> customMirrors = new ConcurrentHashMap<>();
 
     // For debugging purposes:
     private static final ConcurrentHashMap<Long, NativeMirror> dataAddressToNativeMirrors = System.getenv(FastROptions.NATIVE_DATA_INSPECTOR) != null ? new ConcurrentHashMap<>(512) : null;
@@ -486,12 +591,10 @@ public final class NativeDataAccess {
     }
 
     /**
-     * For given native mirror ID returns the Java side object (vector). TruffleBoundary because it
-     * calls into HashMap.
+     * For given native mirror ID returns the Java side object (vector).
      */
-    @TruffleBoundary
     public static Object lookup(long address) {
-        NativeHandleWrapper nativeMirror = nativeMirrors.get(address);
+        NativeHandleWrapper nativeMirror = NativeHandleTable.isHandle(address) ? handleTable.get(address) : lookupCustomMirror(address);
         RBaseObject result = nativeMirror != null ? nativeMirror.get() : null;
         if (result == null) {
             CompilerDirectives.transferToInterpreter();
@@ -500,11 +603,16 @@ public final class NativeDataAccess {
         return result;
     }
 
+    @TruffleBoundary
+    private static NativeHandleWrapper lookupCustomMirror(long address) {
+        return customMirrors.get(address);
+    }
+
     private static RuntimeException reportDataAccessError(long address) {
         if (TRACE_MIRROR_ALLOCATION_SITES) {
             printDataAccessErrorLocation(address);
         }
-        throw RInternalError.shouldNotReachHere("unknown native reference " + address + "L / 0x" + Long.toHexString(address) + " (current id count: " + Long.toHexString(counter.get()) + ")");
+        throw RInternalError.shouldNotReachHere("unknown native reference " + address + "L / 0x" + Long.toHexString(address) + " (current handle count: " + handleTable.size() + ")");
     }
 
     private static void printDataAccessErrorLocation(long address) {
@@ -1436,7 +1544,7 @@ public final class NativeDataAccess {
 
         @Override
         public int getNativeMirrorsSize() {
-            return NativeDataAccess.nativeMirrors.size();
+            return NativeDataAccess.handleTable.size() + NativeDataAccess.customMirrors.size();
         }
 
         @Override
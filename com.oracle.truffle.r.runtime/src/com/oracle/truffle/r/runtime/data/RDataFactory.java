@@ -28,6 +28,7 @@ import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.instrumentation.AllocationReporter;
@@ -55,6 +56,8 @@ import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.ffi.DLL.SymbolHandle;
 import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.concurrent.ConcurrentLinkedDeque;
@@ -1036,6 +1039,26 @@ public final class RDataFactory {
         return traceDataCreated(RDoubleVector.createSequence(start, stride, length));
     }
 
+    /**
+     * Creates a vector of the {@code length} XDR encoded integers stored in {@code file} at
+     * {@code position}, {@code channel} is open for reading the file. The file is mapped into
+     * memory and the mapping stays valid after the channel is closed. The data are copied into
+     * memory when the file is opened for writing, see {@link MappedVectorData#copyMappedFile}.
+     */
+    @TruffleBoundary
+    public static RIntVector createMappedIntVector(TruffleFile file, FileChannel channel, long position, int length) throws IOException {
+        return traceDataCreated(RIntVector.createMapped(MappedVectorData.map(file, channel, position, (long) length << 2), length));
+    }
+
+    /**
+     * Creates a vector of the {@code length} XDR encoded doubles stored in {@code file} at
+     * {@code position}, see {@link #createMappedIntVector}.
+     */
+    @TruffleBoundary
+    public static RDoubleVector createMappedDoubleVector(TruffleFile file, FileChannel channel, long position, int length) throws IOException {
+        return traceDataCreated(RDoubleVector.createMapped(MappedVectorData.map(file, channel, position, (long) length << 3), length));
+    }
+
     public static RIntVector createEmptyIntVector() {
         return createIntVector(new int[0], true);
     }
@@ -1108,6 +1131,32 @@ public final class RDataFactory {
         return createRawVector(new byte[]{value});
     }
 
+    /**
+     * Creates a vector without attributes that is backed by the same Java array as {@code vector},
+     * or returns {@code null} if the data of {@code vector} are not held in a Java array. The array
+     * is not copied, so the caller must make sure that neither of the two vectors is modified in
+     * place afterwards, e.g., by making both of them shared permanent.
+     */
+    @TruffleBoundary
+    public static RAbstractVector createVectorSharingData(RAbstractVector vector) {
+        Object data = vector.getData();
+        boolean complete = vector.isComplete();
+        if (data instanceof RDoubleArrayVectorData) {
+            return createDoubleVector(((RDoubleArrayVectorData) data).getReadonlyDoubleData(), complete);
+        } else if (data instanceof RIntArrayVectorData) {
+            return createIntVector(((RIntArrayVectorData) data).getReadonlyIntData(), complete);
+        } else if (data instanceof RLogicalArrayVectorData) {
+            return createLogicalVector(((RLogicalArrayVectorData) data).getReadonlyLogicalData(), complete);
+        } else if (data instanceof RComplexArrayVectorData) {
+            return createComplexVector(((RComplexArrayVectorData) data).getReadonlyComplexData(), complete);
+        } else if (data instanceof RRawArrayVectorData) {
+            return createRawVector(((RRawArrayVectorData) data).getReadonlyRawData());
+        } else if (data instanceof RStringArrayVectorData) {
+            return createStringVector(((RStringArrayVectorData) data).getReadonlyStringData(), complete);
+        }
+        return null;
+    }
+
     /*
      * Shared scalar conversion functions: these need to be replaced with
      * createXyzVectorFromScalar(...).makeSharedPermanent() if scalar types are removed.
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.nio.ByteBuffer;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.ops.na.NACheck;
+
+/**
+ * Double vector data read directly from a file mapped into memory, see {@link MappedVectorData}. The
+ * data are read-only, writing to the vector materializes it into a Java array.
+ */
+@ExportLibrary(VectorDataLibrary.class)
+class RDoubleMappedVectorData implements TruffleObject {
+    private final MappedVectorData data;
+    private final int length;
+
+    RDoubleMappedVectorData(MappedVectorData data, int length) {
+        this.data = data;
+        this.length = length;
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public NACheck getNACheck() {
+        return NACheck.getEnabled();
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public final RType getType() {
+        return RType.Double;
+    }
+
+    @ExportMessage
+    public int getLength() {
+        return length;
+    }
+
+    @ExportMessage
+    public RDoubleArrayVectorData materialize() {
+        return new RDoubleArrayVectorData(getDoubleDataCopy(), RDataFactory.INCOMPLETE_VECTOR);
+    }
+
+    @ExportMessage
+    public RDoubleMappedVectorData copy(@SuppressWarnings("unused") boolean deep) {
+        return new RDoubleMappedVectorData(data, length);
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public boolean isComplete() {
+        return false;
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public double[] getDoubleDataCopy() {
+        ByteBuffer[] chunks = data.getChunks();
+        double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = get(chunks, i);
+        }
+        return result;
+    }
+
+    // Read access to the elements:
+
+    @ExportMessage
+    public SeqIterator iterator(@Shared("naCheck") @Cached() NACheck naCheck,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        SeqIterator it = new SeqIterator(data.getChunks(), length);
+        naCheck.enable(true);
+        it.initLoopConditionProfile(loopProfile);
+        return it;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public boolean nextImpl(SeqIterator it, boolean loopCondition,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        return it.next(loopCondition, loopProfile);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void nextWithWrap(SeqIterator it,
+                    @Cached("createBinaryProfile()") ConditionProfile wrapProfile) {
+        it.nextWithWrap(wrapProfile);
+    }
+
+    @ExportMessage
+    public RandomAccessIterator randomAccessIterator(@Shared("naCheck") @Cached() NACheck naCheck) {
+        naCheck.enable(true);
+        return new RandomAccessIterator(data.getChunks());
+    }
+
+    @ExportMessage
+    public double getDoubleAt(int index, @Shared("naCheck") @Cached() NACheck naCheck) {
+        assert index < length;
+        double value = get(data.getChunks(), index);
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public double getNextDouble(SeqIterator it, @Shared("naCheck") @Cached() NACheck naCheck) {
+        double value = get((ByteBuffer[]) it.getStore(), it.getIndex());
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public double getDouble(RandomAccessIterator it, int index, @Shared("naCheck") @Cached() NACheck naCheck) {
+        double value = get((ByteBuffer[]) it.getStore(), index);
+        naCheck.check(value);
+        return value;
+    }
+
+    private static double get(ByteBuffer[] chunks, int index) {
+        long position = (long) index << 3;
+        return chunks[(int) (position >>> MappedVectorData.CHUNK_SHIFT)].getDouble((int) (position & MappedVectorData.CHUNK_MASK));
+    }
+}
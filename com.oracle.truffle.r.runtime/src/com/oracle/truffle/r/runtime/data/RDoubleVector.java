@@ -94,6 +94,10 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         return new RDoubleVector(new RDoubleSeqVectorData(start, stride, length), length);
     }
 
+    static RDoubleVector createMapped(MappedVectorData data, int length) {
+        return new RDoubleVector(new RDoubleMappedVectorData(data, length), length);
+    }
+
     public static RDoubleVector createClosure(RAbstractVector delegate, boolean keepAttrs) {
         RDoubleVector result = new RDoubleVector(VectorDataClosure.fromVector(delegate, RType.Double), delegate.getLength());
         if (keepAttrs) {
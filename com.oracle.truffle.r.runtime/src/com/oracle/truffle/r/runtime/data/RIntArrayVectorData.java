@@ -50,6 +50,14 @@ public class RIntArrayVectorData implements TruffleObject, VectorDataWithOwner {
     private RIntVector owner;
     private boolean complete;
 
+    /**
+     * Hash index of the elements lazily built by {@code match} and reused by subsequent lookups
+     * into the same data. Any write access to the data drops it. The vector may be read by other
+     * threads, e.g., from an environment shared with child contexts, so the index must be safely
+     * published.
+     */
+    private volatile Object lookupIndex;
+
     public RIntArrayVectorData(int[] data, boolean complete) {
         this.data = data;
         this.complete = complete && ENABLE_COMPLETE;
@@ -61,6 +69,14 @@ public class RIntArrayVectorData implements TruffleObject, VectorDataWithOwner {
         owner.setComplete(complete);
     }
 
+    Object getLookupIndex() {
+        return lookupIndex;
+    }
+
+    void setLookupIndex(Object index) {
+        lookupIndex = index;
+    }
+
     @SuppressWarnings("static-method")
     @ExportMessage
     public NACheck getNACheck(@Shared("naCheck") @Cached() NACheck na, @Shared("nullOwner") @Cached BranchProfile ownerIsNull) {
@@ -175,11 +191,13 @@ public class RIntArrayVectorData implements TruffleObject, VectorDataWithOwner {
 
     @ExportMessage
     public SeqWriteIterator writeIterator() {
+        lookupIndex = null;
         return new SeqWriteIterator(data, data.length);
     }
 
     @ExportMessage
     public RandomAccessWriteIterator randomAccessWriteIterator() {
+        lookupIndex = null;
         return new RandomAccessWriteIterator(data);
     }
 
@@ -207,6 +225,7 @@ public class RIntArrayVectorData implements TruffleObject, VectorDataWithOwner {
 
     @ExportMessage
     public void setIntAt(int index, int value, @Shared("setCompleteProfile") @Cached BranchProfile setCompleteProfile) {
+        lookupIndex = null;
         data[index] = value;
         if (RRuntime.isNA(value)) {
             setCompleteProfile.enter();
@@ -100,6 +100,10 @@ public final class RIntVector extends RAbstractNumericVector {
         return new RIntVector(new RIntSeqVectorData(start, stride, length), length);
     }
 
+    static RIntVector createMapped(MappedVectorData data, int length) {
+        return new RIntVector(new RIntMappedVectorData(data, length), length);
+    }
+
     @TruffleBoundary
     public static RIntVector createAltInt(AltIntegerClassDescriptor descriptor, RAltRepData altrepData) {
         RAltIntVectorData altIntVectorData = new RAltIntVectorData(descriptor, altrepData);
@@ -45,7 +45,7 @@ import com.oracle.truffle.r.runtime.ops.na.NACheck;
 import java.util.Arrays;
 
 @ExportLibrary(VectorDataLibrary.class)
-class RLogicalArrayVectorData implements TruffleObject, VectorDataWithOwner {
+public class RLogicalArrayVectorData implements TruffleObject, VectorDataWithOwner {
     private final byte[] data;
     private boolean complete;
     private RLogicalVector owner;
@@ -50,6 +50,14 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
     private RStringVector owner;
     private boolean complete;
 
+    /**
+     * Hash index of the elements lazily built by {@code match} and reused by subsequent lookups
+     * into the same data. Any write access to the data drops it. The vector may be read by other
+     * threads, e.g., from an environment shared with child contexts, so the index must be safely
+     * published.
+     */
+    private volatile Object lookupIndex;
+
     RStringArrayVectorData(String[] data, boolean complete) {
         this.data = data;
         this.complete = complete && ENABLE_COMPLETE;
@@ -69,6 +77,14 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
         owner.setComplete(complete);
     }
 
+    Object getLookupIndex() {
+        return lookupIndex;
+    }
+
+    void setLookupIndex(Object index) {
+        lookupIndex = index;
+    }
+
     @SuppressWarnings("static-method")
     @ExportMessage
     public NACheck getNACheck(@Shared("naCheck") @Cached() NACheck na, @Shared("nullOwner") @Cached BranchProfile ownerIsNull) {
@@ -183,11 +199,13 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
 
     @ExportMessage
     public SeqWriteIterator writeIterator() {
+        lookupIndex = null;
         return new SeqWriteIterator(data, data.length);
     }
 
     @ExportMessage
     public RandomAccessWriteIterator randomAccessWriteIterator() {
+        lookupIndex = null;
         return new RandomAccessWriteIterator(data);
     }
 
@@ -215,6 +233,7 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
 
     @ExportMessage
     public void setStringAt(int index, String value, @Shared("setCompleteProfile") @Cached BranchProfile setCompleteProfile) {
+        lookupIndex = null;
         data[index] = value;
         if (RRuntime.isNA(value)) {
             setCompleteProfile.enter();
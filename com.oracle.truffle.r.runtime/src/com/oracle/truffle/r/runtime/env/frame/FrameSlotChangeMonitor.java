@@ -24,14 +24,17 @@ package com.oracle.truffle.r.runtime.env.frame;
 
 import static com.oracle.truffle.r.runtime.context.FastROptions.SearchPathForcePromises;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -71,6 +74,13 @@ import com.oracle.truffle.r.runtime.data.RUnboundValue;
  * This class maintains information about the current hierarchy of environments in the system. This
  * information is described as assumptions that will be invalidated if the layout changes, and thus
  * make sure that code is properly deoptimized.
+ *
+ * The information can be used by multiple threads, e.g., of the child contexts. Cached lookups are
+ * answered without any locking. Lookups that have to walk the environment hierarchy hold the read
+ * lock of {@link #structureLock}, so that they can run concurrently, while any change of the
+ * hierarchy or of the set of frame slots of a frame descriptor holds the write lock. This ensures
+ * that a lookup result is either registered before the invalidation that concerns it or computed
+ * after the change.
  */
 public final class FrameSlotChangeMonitor {
 
@@ -188,6 +198,9 @@ public final class FrameSlotChangeMonitor {
     private static final class FrameDescriptorMetaData {
         private final String name; // name for debug purposes
         private final WeakReference<MaterializedFrame> singletonFrame;
+        /**
+         * Only accessed while holding the write lock of {@link #structureLock}.
+         */
         private final Set<FrameDescriptor> subDescriptors = Collections.newSetFromMap(new WeakHashMap<>(2));
 
         /**
@@ -195,14 +208,14 @@ public final class FrameSlotChangeMonitor {
          * a binding with one of these names is modified, then the lookups in this frame descriptor
          * and all child frame descriptors need to be checked.
          */
-        private final Set<Object> previousLookups = new HashSet<>();
+        private final Set<Object> previousLookups = ConcurrentHashMap.newKeySet(2);
         /**
          * A set of all lookups that started in this frame descriptor.
          */
-        private final WeakHashMap<Object, WeakReference<LookupResult>> lookupResults = new WeakHashMap<>(2);
+        private final ConcurrentHashMap<Object, WeakReference<LookupResult>> lookupResults = new ConcurrentHashMap<>(2);
 
-        private WeakReference<FrameDescriptor> enclosingFrameDescriptor = new WeakReference<>(null);
-        private Assumption enclosingFrameDescriptorAssumption = Truffle.getRuntime().createAssumption("enclosing frame descriptor");
+        private volatile WeakReference<FrameDescriptor> enclosingFrameDescriptor = new WeakReference<>(null);
+        private volatile Assumption enclosingFrameDescriptorAssumption = Truffle.getRuntime().createAssumption("enclosing frame descriptor");
         private final Assumption containsNoActiveBindingAssumption = Truffle.getRuntime().createAssumption("contains no active binding");
 
         private FrameDescriptorMetaData(String name, MaterializedFrame singletonFrame) {
@@ -234,19 +247,92 @@ public final class FrameSlotChangeMonitor {
         }
     }
 
-    private static final WeakHashMap<FrameDescriptor, FrameDescriptorMetaData> frameDescriptors = new WeakHashMap<>();
+    /**
+     * Weak reference to a frame descriptor that is used as the key of {@link #frameDescriptors}.
+     * The descriptors are compared by identity.
+     */
+    private static final class DescriptorKey extends WeakReference<FrameDescriptor> {
+        private final int hash;
+
+        DescriptorKey(FrameDescriptor descriptor, ReferenceQueue<FrameDescriptor> queue) {
+            super(descriptor, queue);
+            this.hash = System.identityHashCode(descriptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof DescriptorKey)) {
+                return false;
+            }
+            FrameDescriptor descriptor = get();
+            return descriptor != null && descriptor == ((DescriptorKey) obj).get();
+        }
+    }
+
+    private static final ConcurrentHashMap<DescriptorKey, FrameDescriptorMetaData> frameDescriptors = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<FrameDescriptor> collectedDescriptors = new ReferenceQueue<>();
+
+    private static final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
 
     /**
      * This function tries to fulfill the lookup for the given name in the given frame based only on
      * the static knowledge about the frame descriptor hierarchy and stable bindings. Returns
      * {@code null} in case this was not possible.
      */
-    public static synchronized LookupResult lookup(Frame frame, Object identifier) {
+    public static LookupResult lookup(Frame frame, Object identifier) {
         CompilerAsserts.neverPartOfCompilation();
         FrameDescriptorMetaData metaData = getMetaData(frame);
+        LookupResult result = getLookupResult(metaData, identifier);
+        if (result != null) {
+            return result;
+        }
+        structureLock.readLock().lock();
+        try {
+            return lookupSlowPath(frame, identifier, metaData);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    private static LookupResult getLookupResult(FrameDescriptorMetaData metaData, Object identifier) {
         WeakReference<LookupResult> weakResult = metaData.lookupResults.get(identifier);
         LookupResult result = weakResult == null ? null : weakResult.get();
-        if (result != null && result.isValid()) {
+        return result != null && result.isValid() ? result : null;
+    }
+
+    /**
+     * Registers a new lookup result, unless another thread has already registered a valid one, which
+     * is returned instead. The result that is handed out has to be the registered one, otherwise
+     * it would not be invalidated.
+     */
+    private static LookupResult putLookupResult(FrameDescriptorMetaData metaData, Object identifier, LookupResult lookupResult) {
+        WeakReference<LookupResult> newResult = new WeakReference<>(lookupResult);
+        while (true) {
+            WeakReference<LookupResult> existing = metaData.lookupResults.putIfAbsent(identifier, newResult);
+            if (existing == null) {
+                return lookupResult;
+            }
+            LookupResult existingResult = existing.get();
+            if (existingResult != null && existingResult.isValid()) {
+                return existingResult;
+            }
+            if (metaData.lookupResults.replace(identifier, existing, newResult)) {
+                return lookupResult;
+            }
+        }
+    }
+
+    private static LookupResult lookupSlowPath(Frame frame, Object identifier, FrameDescriptorMetaData metaData) {
+        LookupResult result = getLookupResult(metaData, identifier);
+        if (result != null) {
             return result;
         }
         Frame current = frame;
@@ -272,8 +358,7 @@ public final class FrameSlotChangeMonitor {
                         }
                     }
                     addPreviousLookups(frame, current, identifier);
-                    metaData.lookupResults.put(identifier, new WeakReference<>(lookupResult));
-                    return lookupResult;
+                    return putLookupResult(metaData, identifier, lookupResult);
                 }
             }
             Frame next = RArguments.getEnclosingFrame(current);
@@ -302,8 +387,7 @@ public final class FrameSlotChangeMonitor {
         // not frame slot found: missing value
         addPreviousLookups(frame, current, identifier);
         LookupResult lookupResult = new MissingLookupResult(identifier.toString());
-        metaData.lookupResults.put(identifier, new WeakReference<>(lookupResult));
-        return lookupResult;
+        return putLookupResult(metaData, identifier, lookupResult);
     }
 
     private static void addPreviousLookups(Frame from, Frame to, Object identifier) {
@@ -325,7 +409,8 @@ public final class FrameSlotChangeMonitor {
         return metaData.getEnclosingFrameDescriptor() == nextDesc;
     }
 
-    private static synchronized void invalidateNames(FrameDescriptorMetaData metaData, Collection<Object> identifiers) {
+    private static void invalidateNames(FrameDescriptorMetaData metaData, Collection<Object> identifiers) {
+        assert structureLock.isWriteLockedByCurrentThread();
         if (metaData.previousLookups.removeAll(identifiers)) {
             for (Object identifier : identifiers) {
                 WeakReference<LookupResult> result = metaData.lookupResults.remove(identifier);
@@ -350,13 +435,21 @@ public final class FrameSlotChangeMonitor {
         return frame == null ? null : frame instanceof NSBaseMaterializedFrame ? ((NSBaseMaterializedFrame) frame).getMarkerFrameDescriptor() : frame.getFrameDescriptor();
     }
 
-    private static synchronized FrameDescriptorMetaData getMetaData(FrameDescriptor descriptor) {
+    private static FrameDescriptorMetaData getMetaData(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        FrameDescriptorMetaData result = frameDescriptors.get(descriptor);
+        FrameDescriptorMetaData result = frameDescriptors.get(new DescriptorKey(descriptor, null));
         assert result != null : "null metadata for " + descriptor;
         return result;
     }
 
+    private static void putMetaData(FrameDescriptor descriptor, FrameDescriptorMetaData metaData) {
+        Reference<? extends FrameDescriptor> collected;
+        while ((collected = collectedDescriptors.poll()) != null) {
+            frameDescriptors.remove(collected);
+        }
+        frameDescriptors.put(new DescriptorKey(descriptor, collectedDescriptors), metaData);
+    }
+
     private static FrameDescriptorMetaData getMetaData(Frame frame) {
         return getMetaData(handleBaseNamespaceEnv(frame));
     }
@@ -368,64 +461,74 @@ public final class FrameSlotChangeMonitor {
         return target;
     }
 
-    public static synchronized boolean isEnclosingFrameDescriptor(FrameDescriptor descriptor, Frame newEnclosingFrame) {
+    public static boolean isEnclosingFrameDescriptor(FrameDescriptor descriptor, Frame newEnclosingFrame) {
         CompilerAsserts.neverPartOfCompilation();
         FrameDescriptorMetaData target = getDescriptorMetaData(descriptor);
         FrameDescriptor newEnclosingDescriptor = handleBaseNamespaceEnv(newEnclosingFrame);
         return target.getEnclosingFrameDescriptor() == newEnclosingDescriptor;
     }
 
-    public static synchronized void initializeEnclosingFrame(FrameDescriptor descriptor, Frame newEnclosingFrame) {
+    public static void initializeEnclosingFrame(FrameDescriptor descriptor, Frame newEnclosingFrame) {
         CompilerAsserts.neverPartOfCompilation();
-        FrameDescriptorMetaData target = getDescriptorMetaData(descriptor);
+        structureLock.writeLock().lock();
+        try {
+            FrameDescriptorMetaData target = getDescriptorMetaData(descriptor);
 
-        FrameDescriptor newEnclosingDescriptor = handleBaseNamespaceEnv(newEnclosingFrame);
+            FrameDescriptor newEnclosingDescriptor = handleBaseNamespaceEnv(newEnclosingFrame);
 
-        // this function can be called multiple times with the same enclosing descriptor
-        if (target.getEnclosingFrameDescriptor() != newEnclosingDescriptor) {
-            assert target.getEnclosingFrameDescriptor() == null : "existing enclosing descriptor while initializing " + target.name;
-            assert target.lookupResults.isEmpty() : "existing lookup results while initializing " + target.name;
+            // this function can be called multiple times with the same enclosing descriptor
+            if (target.getEnclosingFrameDescriptor() != newEnclosingDescriptor) {
+                assert target.getEnclosingFrameDescriptor() == null : "existing enclosing descriptor while initializing " + target.name;
+                assert target.lookupResults.isEmpty() : "existing lookup results while initializing " + target.name;
 
-            target.updateEnclosingFrameDescriptor(newEnclosingDescriptor);
-            if (newEnclosingDescriptor != null) {
-                FrameDescriptorMetaData newEnclosing = getMetaData(newEnclosingDescriptor);
-                newEnclosing.subDescriptors.add(descriptor);
+                target.updateEnclosingFrameDescriptor(newEnclosingDescriptor);
+                if (newEnclosingDescriptor != null) {
+                    FrameDescriptorMetaData newEnclosing = getMetaData(newEnclosingDescriptor);
+                    newEnclosing.subDescriptors.add(descriptor);
+                }
             }
+        } finally {
+            structureLock.writeLock().unlock();
         }
     }
 
-    public static synchronized void initializeEnclosingFrame(Frame frame, Frame newEnclosingFrame) {
+    public static void initializeEnclosingFrame(Frame frame, Frame newEnclosingFrame) {
         initializeEnclosingFrame(handleBaseNamespaceEnv(frame), newEnclosingFrame);
     }
 
-    private static synchronized void setEnclosingFrame(FrameDescriptor descriptor, MaterializedFrame newEnclosingFrame, MaterializedFrame oldEnclosingFrame) {
+    private static void setEnclosingFrame(FrameDescriptor descriptor, MaterializedFrame newEnclosingFrame, MaterializedFrame oldEnclosingFrame) {
         CompilerAsserts.neverPartOfCompilation();
-        FrameDescriptorMetaData target = getMetaData(descriptor);
-        assert target != null : "frame descriptor wasn't registered properly for " + descriptor;
-
-        // invalidate existing lookups
-        invalidateAllNames(target);
-
-        FrameDescriptor oldEnclosingDescriptor = target.getEnclosingFrameDescriptor();
-        FrameDescriptor newEnclosingDescriptor = handleBaseNamespaceEnv(newEnclosingFrame);
-        assert newEnclosingDescriptor == oldEnclosingDescriptor || (oldEnclosingDescriptor == null) == (oldEnclosingFrame == null) : "mismatch " + oldEnclosingDescriptor + " / " + oldEnclosingFrame;
-
-        if (oldEnclosingDescriptor != null) {
-            assert newEnclosingDescriptor == oldEnclosingDescriptor || oldEnclosingDescriptor == oldEnclosingFrame.getFrameDescriptor() : "mismatch " + oldEnclosingDescriptor + " / " +
-                            oldEnclosingFrame.getFrameDescriptor();
-            FrameDescriptorMetaData oldEnclosing = getMetaData(oldEnclosingDescriptor);
-            oldEnclosing.subDescriptors.remove(descriptor);
-        }
-        target.updateEnclosingFrameDescriptor(newEnclosingDescriptor);
+        structureLock.writeLock().lock();
+        try {
+            FrameDescriptorMetaData target = getMetaData(descriptor);
+            assert target != null : "frame descriptor wasn't registered properly for " + descriptor;
+
+            // invalidate existing lookups
+            invalidateAllNames(target);
+
+            FrameDescriptor oldEnclosingDescriptor = target.getEnclosingFrameDescriptor();
+            FrameDescriptor newEnclosingDescriptor = handleBaseNamespaceEnv(newEnclosingFrame);
+            assert newEnclosingDescriptor == oldEnclosingDescriptor || (oldEnclosingDescriptor == null) == (oldEnclosingFrame == null) : "mismatch " + oldEnclosingDescriptor + " / " + oldEnclosingFrame;
+
+            if (oldEnclosingDescriptor != null) {
+                assert newEnclosingDescriptor == oldEnclosingDescriptor || oldEnclosingDescriptor == oldEnclosingFrame.getFrameDescriptor() : "mismatch " + oldEnclosingDescriptor + " / " +
+                                oldEnclosingFrame.getFrameDescriptor();
+                FrameDescriptorMetaData oldEnclosing = getMetaData(oldEnclosingDescriptor);
+                oldEnclosing.subDescriptors.remove(descriptor);
+            }
+            target.updateEnclosingFrameDescriptor(newEnclosingDescriptor);
 
-        if (newEnclosingDescriptor != null) {
-            FrameDescriptorMetaData newEnclosing = getMetaData(newEnclosingDescriptor);
-            assert !newEnclosing.name.equals("global") || !target.name.equals("base");
-            newEnclosing.subDescriptors.add(descriptor);
+            if (newEnclosingDescriptor != null) {
+                FrameDescriptorMetaData newEnclosing = getMetaData(newEnclosingDescriptor);
+                assert !newEnclosing.name.equals("global") || !target.name.equals("base");
+                newEnclosing.subDescriptors.add(descriptor);
+            }
+        } finally {
+            structureLock.writeLock().unlock();
         }
     }
 
-    public static synchronized void setEnclosingFrame(Frame frame, MaterializedFrame newEnclosingFrame, MaterializedFrame oldEnclosingFrame) {
+    public static void setEnclosingFrame(Frame frame, MaterializedFrame newEnclosingFrame, MaterializedFrame oldEnclosingFrame) {
         setEnclosingFrame(handleBaseNamespaceEnv(frame), newEnclosingFrame, oldEnclosingFrame);
     }
 
@@ -445,43 +548,53 @@ public final class FrameSlotChangeMonitor {
         }
     }
 
-    public static synchronized void detach(Frame frame) {
+    public static void detach(Frame frame) {
         CompilerAsserts.neverPartOfCompilation();
-        FrameDescriptorMetaData position = getMetaData(frame);
-        FrameDescriptor oldEnclosingDescriptor = position.getEnclosingFrameDescriptor();
-        FrameDescriptorMetaData oldEnclosing = getMetaData(oldEnclosingDescriptor);
-        FrameDescriptor newEnclosingDescriptor = oldEnclosing.getEnclosingFrameDescriptor();
-        FrameDescriptorMetaData newEnclosing = getMetaData(newEnclosingDescriptor);
-
-        invalidateNames(oldEnclosing, oldEnclosingDescriptor.getIdentifiers());
-
-        position.updateEnclosingFrameDescriptor(newEnclosingDescriptor);
-        oldEnclosing.updateEnclosingFrameDescriptor(null);
-        oldEnclosing.subDescriptors.remove(frame.getFrameDescriptor());
-        newEnclosing.subDescriptors.remove(oldEnclosingDescriptor);
-        newEnclosing.subDescriptors.add(frame.getFrameDescriptor());
+        structureLock.writeLock().lock();
+        try {
+            FrameDescriptorMetaData position = getMetaData(frame);
+            FrameDescriptor oldEnclosingDescriptor = position.getEnclosingFrameDescriptor();
+            FrameDescriptorMetaData oldEnclosing = getMetaData(oldEnclosingDescriptor);
+            FrameDescriptor newEnclosingDescriptor = oldEnclosing.getEnclosingFrameDescriptor();
+            FrameDescriptorMetaData newEnclosing = getMetaData(newEnclosingDescriptor);
+
+            invalidateNames(oldEnclosing, oldEnclosingDescriptor.getIdentifiers());
+
+            position.updateEnclosingFrameDescriptor(newEnclosingDescriptor);
+            oldEnclosing.updateEnclosingFrameDescriptor(null);
+            oldEnclosing.subDescriptors.remove(frame.getFrameDescriptor());
+            newEnclosing.subDescriptors.remove(oldEnclosingDescriptor);
+            newEnclosing.subDescriptors.add(frame.getFrameDescriptor());
+        } finally {
+            structureLock.writeLock().unlock();
+        }
     }
 
-    public static synchronized void attach(Frame frame, Frame newEnclosingFrame) {
+    public static void attach(Frame frame, Frame newEnclosingFrame) {
         CompilerAsserts.neverPartOfCompilation();
-        FrameDescriptorMetaData position = getMetaData(frame);
-        FrameDescriptorMetaData newEnclosing = getMetaData(newEnclosingFrame);
-        FrameDescriptor oldEnclosingDescriptor = position.getEnclosingFrameDescriptor();
-        FrameDescriptorMetaData oldEnclosing = getMetaData(oldEnclosingDescriptor);
-
-        invalidateAllNames(newEnclosing);
-        invalidateNames(position, newEnclosingFrame.getFrameDescriptor().getIdentifiers());
-
-        newEnclosing.previousLookups.clear();
-        newEnclosing.previousLookups.addAll(oldEnclosing.previousLookups);
-
-        position.updateEnclosingFrameDescriptor(newEnclosingFrame.getFrameDescriptor());
-        newEnclosing.updateEnclosingFrameDescriptor(oldEnclosingDescriptor);
-        assert frame.getFrameDescriptor() == handleBaseNamespaceEnv(frame);
-        assert !newEnclosing.name.equals("global") || !position.name.equals("base");
-        newEnclosing.subDescriptors.add(frame.getFrameDescriptor());
-        oldEnclosing.subDescriptors.remove(frame.getFrameDescriptor());
-        oldEnclosing.subDescriptors.add(newEnclosingFrame.getFrameDescriptor());
+        structureLock.writeLock().lock();
+        try {
+            FrameDescriptorMetaData position = getMetaData(frame);
+            FrameDescriptorMetaData newEnclosing = getMetaData(newEnclosingFrame);
+            FrameDescriptor oldEnclosingDescriptor = position.getEnclosingFrameDescriptor();
+            FrameDescriptorMetaData oldEnclosing = getMetaData(oldEnclosingDescriptor);
+
+            invalidateAllNames(newEnclosing);
+            invalidateNames(position, newEnclosingFrame.getFrameDescriptor().getIdentifiers());
+
+            newEnclosing.previousLookups.clear();
+            newEnclosing.previousLookups.addAll(oldEnclosing.previousLookups);
+
+            position.updateEnclosingFrameDescriptor(newEnclosingFrame.getFrameDescriptor());
+            newEnclosing.updateEnclosingFrameDescriptor(oldEnclosingDescriptor);
+            assert frame.getFrameDescriptor() == handleBaseNamespaceEnv(frame);
+            assert !newEnclosing.name.equals("global") || !position.name.equals("base");
+            newEnclosing.subDescriptors.add(frame.getFrameDescriptor());
+            oldEnclosing.subDescriptors.remove(frame.getFrameDescriptor());
+            oldEnclosing.subDescriptors.add(newEnclosingFrame.getFrameDescriptor());
+        } finally {
+            structureLock.writeLock().unlock();
+        }
     }
 
     private static final int MAX_INVALIDATION_COUNT = 2;
@@ -800,17 +913,38 @@ public final class FrameSlotChangeMonitor {
         return findOrAddFrameSlot(fd, (Object) identifier, initialKind);
     }
 
-    private static synchronized FrameSlot findOrAddFrameSlot(FrameDescriptor fd, Object identifier, FrameSlotKind initialKind) {
+    private static FrameSlot findOrAddFrameSlot(FrameDescriptor fd, Object identifier, FrameSlotKind initialKind) {
         CompilerAsserts.neverPartOfCompilation();
-        assert identifier instanceof String || identifier instanceof RFrameSlot;
-        FrameSlot frameSlot = fd.findFrameSlot(identifier);
-        if (frameSlot != null) {
-            return frameSlot;
-        } else {
-            FrameDescriptorMetaData metaData = getMetaData(fd);
-            invalidateNames(metaData, Arrays.asList(identifier));
-            return fd.addFrameSlot(identifier, new FrameSlotInfoImpl(metaData.singletonFrame != null, "global".equals(metaData.name), identifier, metaData.name.startsWith("<new-env-")),
-                            initialKind);
+        structureLock.writeLock().lock();
+        try {
+            assert identifier instanceof String || identifier instanceof RFrameSlot;
+            FrameSlot frameSlot = fd.findFrameSlot(identifier);
+            if (frameSlot != null) {
+                return frameSlot;
+            } else {
+                FrameDescriptorMetaData metaData = getMetaData(fd);
+                invalidateNames(metaData, Arrays.asList(identifier));
+                return fd.addFrameSlot(identifier, new FrameSlotInfoImpl(metaData.singletonFrame != null, "global".equals(metaData.name), identifier, metaData.name.startsWith("<new-env-")),
+                                initialKind);
+            }
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds or adds a slot that only holds a transient value of a function invocation, e.g., an
+     * argument whose reference count is to be decremented on return. Such slots are not visible as
+     * bindings and carry no slot info, but adding them changes the set of frame slots of the frame
+     * descriptor, which is guarded by the write lock of {@link #structureLock}.
+     */
+    public static FrameSlot findOrAddTransientFrameSlot(FrameDescriptor fd, Object identifier, FrameSlotKind initialKind) {
+        CompilerAsserts.neverPartOfCompilation();
+        structureLock.writeLock().lock();
+        try {
+            return fd.findOrAddFrameSlot(identifier, initialKind);
+        } finally {
+            structureLock.writeLock().unlock();
         }
     }
 
@@ -973,28 +1107,28 @@ public final class FrameSlotChangeMonitor {
      * Initializes the internal data structures for a newly created frame descriptor that is
      * intended to be used for a non-function frame (and thus will only ever be used for one frame).
      */
-    public static synchronized void initializeNonFunctionFrameDescriptor(String name, MaterializedFrame frame) {
+    public static void initializeNonFunctionFrameDescriptor(String name, MaterializedFrame frame) {
         CompilerAsserts.neverPartOfCompilation();
-        frameDescriptors.put(handleBaseNamespaceEnv(frame), new FrameDescriptorMetaData(name, frame));
+        putMetaData(handleBaseNamespaceEnv(frame), new FrameDescriptorMetaData(name, frame));
     }
 
-    public static synchronized FrameDescriptor initializeFunctionFrameDescriptor(String name, FrameDescriptor frameDescriptor) {
+    public static FrameDescriptor initializeFunctionFrameDescriptor(String name, FrameDescriptor frameDescriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        frameDescriptors.put(frameDescriptor, new FrameDescriptorMetaData(name, null));
+        putMetaData(frameDescriptor, new FrameDescriptorMetaData(name, null));
         return frameDescriptor;
     }
 
-    public static synchronized Assumption getEnclosingFrameDescriptorAssumption(FrameDescriptor descriptor) {
+    public static Assumption getEnclosingFrameDescriptorAssumption(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        return frameDescriptors.get(descriptor).getEnclosingFrameDescriptorAssumption();
+        return getMetaData(descriptor).getEnclosingFrameDescriptorAssumption();
     }
 
-    public static synchronized Assumption getContainsNoActiveBindingAssumption(FrameDescriptor descriptor) {
+    public static Assumption getContainsNoActiveBindingAssumption(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        return frameDescriptors.get(descriptor).getContainsNoActiveBindingAssumption();
+        return getMetaData(descriptor).getContainsNoActiveBindingAssumption();
     }
 
-    public static synchronized StableValue<Object> getStableValueAssumption(FrameDescriptor descriptor, FrameSlot frameSlot, Object value) {
+    public static StableValue<Object> getStableValueAssumption(FrameDescriptor descriptor, FrameSlot frameSlot, Object value) {
         CompilerAsserts.neverPartOfCompilation();
         StableValue<Object> stableValue = getFrameSlotInfo(frameSlot).getStableValue();
         if (stableValue != null) {
@@ -1005,7 +1139,7 @@ public final class FrameSlotChangeMonitor {
         return stableValue;
     }
 
-    public static synchronized MaterializedFrame getSingletonFrame(FrameDescriptor descriptor) {
+    public static MaterializedFrame getSingletonFrame(FrameDescriptor descriptor) {
         WeakReference<MaterializedFrame> singleton = getMetaData(descriptor).singletonFrame;
         return singleton == null ? null : singleton.get();
     }
@@ -1017,12 +1151,17 @@ public final class FrameSlotChangeMonitor {
     /*
      * This method should be called for frames of all environments on the search path.
      */
-    public static synchronized void handleAllMultiSlots(Frame frame, int[] indices, boolean replicate) {
-        // make a copy avoid potential updates to the array iterated over
-        FrameSlot[] slots = new FrameSlot[frame.getFrameDescriptor().getSlots().size()];
-        slots = frame.getFrameDescriptor().getSlots().toArray(slots);
-        for (int i = 0; i < slots.length; i++) {
-            FrameSlotInfoImpl.handleSearchPathMultiSlot(frame, slots[i], indices, replicate);
+    public static void handleAllMultiSlots(Frame frame, int[] indices, boolean replicate) {
+        structureLock.writeLock().lock();
+        try {
+            // make a copy avoid potential updates to the array iterated over
+            FrameSlot[] slots = new FrameSlot[frame.getFrameDescriptor().getSlots().size()];
+            slots = frame.getFrameDescriptor().getSlots().toArray(slots);
+            for (int i = 0; i < slots.length; i++) {
+                FrameSlotInfoImpl.handleSearchPathMultiSlot(frame, slots[i], indices, replicate);
+            }
+        } finally {
+            structureLock.writeLock().unlock();
         }
     }
 
@@ -1087,27 +1226,32 @@ public final class FrameSlotChangeMonitor {
      * Nullifies a set of slots in a {@link MultiSlotData} to avoid memory leaks. When providing
      * {@code null} as indices, all subslots except the first one are nullified.
      */
-    public static synchronized void cleanMultiSlots(Frame frame, int[] indices) {
+    public static void cleanMultiSlots(Frame frame, int[] indices) {
         CompilerAsserts.neverPartOfCompilation();
-        // make a copy avoid potential updates to the array iterated over
-        FrameSlot[] slots = frame.getFrameDescriptor().getSlots().toArray(new FrameSlot[0]);
-
-        for (int i = 0; i < slots.length; i++) {
-            Object value = frame.getValue(slots[i]);
-            if (value instanceof MultiSlotData) {
-                MultiSlotData msd = (MultiSlotData) value;
-                if (indices != null) {
-                    for (int j = 0; j < indices.length; j++) {
-                        assert indices[j] != 0;
-                        msd.set(indices[j], null);
+        structureLock.writeLock().lock();
+        try {
+            // make a copy avoid potential updates to the array iterated over
+            FrameSlot[] slots = frame.getFrameDescriptor().getSlots().toArray(new FrameSlot[0]);
+
+            for (int i = 0; i < slots.length; i++) {
+                Object value = frame.getValue(slots[i]);
+                if (value instanceof MultiSlotData) {
+                    MultiSlotData msd = (MultiSlotData) value;
+                    if (indices != null) {
+                        for (int j = 0; j < indices.length; j++) {
+                            assert indices[j] != 0;
+                            msd.set(indices[j], null);
+                        }
+                    } else {
+                        // only safe value of primordial context
+                        Object initialValue = msd.get(0);
+                        msd.setAll(null);
+                        msd.set(0, initialValue);
                     }
-                } else {
-                    // only safe value of primordial context
-                    Object initialValue = msd.get(0);
-                    msd.setAll(null);
-                    msd.set(0, initialValue);
                 }
             }
+        } finally {
+            structureLock.writeLock().unlock();
         }
     }
 }
@@ -26,20 +26,26 @@ import com.oracle.truffle.api.profiles.ConditionProfile;
 
 public final class AfterDownCallProfiles {
     private final ConditionProfile nativeReferencesNotEmptyProfile;
+    private final ConditionProfile protectStackImbalanceProfile;
 
-    private AfterDownCallProfiles(ConditionProfile nativeReferencesNotEmptyProfile) {
+    private AfterDownCallProfiles(ConditionProfile nativeReferencesNotEmptyProfile, ConditionProfile protectStackImbalanceProfile) {
         this.nativeReferencesNotEmptyProfile = nativeReferencesNotEmptyProfile;
+        this.protectStackImbalanceProfile = protectStackImbalanceProfile;
     }
 
     public static AfterDownCallProfiles create() {
-        return new AfterDownCallProfiles(ConditionProfile.createCountingProfile());
+        return new AfterDownCallProfiles(ConditionProfile.createCountingProfile(), ConditionProfile.createBinaryProfile());
     }
 
     public static AfterDownCallProfiles getUncached() {
-        return new AfterDownCallProfiles(ConditionProfile.getUncached());
+        return new AfterDownCallProfiles(ConditionProfile.getUncached(), ConditionProfile.getUncached());
     }
 
     public ConditionProfile getNativeReferencesNotEmptyProfile() {
         return nativeReferencesNotEmptyProfile;
     }
+
+    public ConditionProfile getProtectStackImbalanceProfile() {
+        return protectStackImbalanceProfile;
+    }
 }
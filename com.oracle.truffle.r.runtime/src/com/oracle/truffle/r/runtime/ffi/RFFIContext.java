@@ -27,6 +27,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.Frame;
@@ -88,9 +89,10 @@ public abstract class RFFIContext extends RFFI {
 
         /**
          * FastR equivalent of GNUR's special dedicated global list that is GC root and so any
-         * vectors added to it will be guaranteed to be preserved.
+         * vectors added to it will be guaranteed to be preserved. Like in GNUR, the objects are
+         * compared by identity.
          */
-        public final EconomicMap<RBaseObject, AtomicInteger> preserveList = EconomicMap.create();
+        public final EconomicMap<RBaseObject, AtomicInteger> preserveList = EconomicMap.create(Equivalence.IDENTITY);
 
         public final WeakHashMap<RScalar, RAbstractVector> protectedMaterializedScalarVectors = new WeakHashMap<>();
 
@@ -108,6 +110,34 @@ public abstract class RFFIContext extends RFFI {
          */
         public final Collections.ArrayListObj<RBaseObject> protectStack = new Collections.ArrayListObj<>(1000);
 
+        /**
+         * The size of the {@link #protectStack} when the outermost down-call started. Objects
+         * that are still protected above this mark when the outermost down-call returns were not
+         * unprotected by the native code, they are released all at once.
+         */
+        private int protectStackMark;
+
+        /**
+         * The number of objects released because of a PROTECT/UNPROTECT imbalance.
+         */
+        private long unbalancedProtects;
+
+        public int getProtectedCount() {
+            return protectStack.size();
+        }
+
+        public int getPreservedCount() {
+            return preserveList.size();
+        }
+
+        public int getNativeReferencesCount() {
+            return protectedNativeReferences.size();
+        }
+
+        public long getUnbalancedProtects() {
+            return unbalancedProtects;
+        }
+
         public MaterializedFrame currentDowncallFrame = null;
 
         public boolean primFunBeingDispatched;
@@ -186,7 +216,9 @@ public abstract class RFFIContext extends RFFI {
      * @param rffiType the type of the RFFI backend
      */
     public Object beforeDowncall(MaterializedFrame frame, @SuppressWarnings("unused") RFFIFactory.Type rffiType) {
-        rffiContextState.callDepth++;
+        if (rffiContextState.callDepth++ == 0) {
+            rffiContextState.protectStackMark = rffiContextState.protectStack.size();
+        }
         MaterializedFrame savedDowncallFrame = rffiContextState.currentDowncallFrame;
         rffiContextState.currentDowncallFrame = frame == null || !RArguments.isRFrame(frame) ? null : frame;
         return savedDowncallFrame;
@@ -201,10 +233,26 @@ public abstract class RFFIContext extends RFFI {
         rffiContextState.currentDowncallFrame = (MaterializedFrame) before;
         rffiContextState.callDepth--;
         if (rffiContextState.callDepth == 0) {
+            releaseUnbalancedProtects(profiles);
             cooperativeGc(profiles);
         }
     }
 
+    /**
+     * Like the top-level loop of GNUR resets the PROTECT stack, the objects that the native code
+     * left on the stack are dropped when the outermost down-call returns, so that a missing
+     * UNPROTECT does not keep them alive forever.
+     */
+    private void releaseUnbalancedProtects(AfterDownCallProfiles profiles) {
+        RFFIContextState state = rffiContextState;
+        int mark = state.protectStackMark;
+        int size = state.protectStack.size();
+        if (profiles.getProtectStackImbalanceProfile().profile(size > mark)) {
+            state.unbalancedProtects += size - mark;
+            state.protectStack.truncate(mark);
+        }
+    }
+
     public final int getCallDepth() {
         return rffiContextState.callDepth;
     }
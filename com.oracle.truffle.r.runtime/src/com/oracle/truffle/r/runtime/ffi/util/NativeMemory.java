@@ -134,6 +134,14 @@ public abstract class NativeMemory {
         copyMemory(source, type.offset, type.bytes, destination, elementsCount);
     }
 
+    /**
+     * Copies {@code elementsCount} elements starting at {@code sourceIndex} of the Java array
+     * {@code source} to the native memory at {@code destination}.
+     */
+    public static void copyMemory(Object source, int sourceIndex, long destination, ElementType type, long elementsCount) {
+        UNSAFE.copyMemory(source, type.offset + (long) sourceIndex * type.bytes, null, destination, type.bytes * elementsCount);
+    }
+
     private static void copyMemory(Object source, int elementBase, long elementSize, long destination, long elementsCount) {
         // this takes relevant args as longs to make sure any calculations do not overflow
         UNSAFE.copyMemory(source, elementBase, null, destination, elementSize * elementsCount);
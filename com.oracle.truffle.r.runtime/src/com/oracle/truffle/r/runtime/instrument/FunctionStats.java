@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.instrument;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.runtime.RSource;
+
+/**
+ * Per-function call counts, cumulative times and latency histograms of R closures, collected when
+ * the {@code FunctionStats} option is enabled. The counters are {@link LongAdder}s, which are
+ * striped across threads, so that concurrent calls of the same function do not contend.
+ *
+ * The statistics can be read with the {@code .fastr.funstats} builtin or via the
+ * {@code FastR:type=JMX,name=FunctionStats} bean.
+ */
+public final class FunctionStats {
+
+    /**
+     * The bucket {@code i > 0} of the histogram counts the calls that took {@code [2^(i+8),
+     * 2^(i+9))} nanoseconds, the first bucket the calls under {@code 512ns} and the last bucket all
+     * longer calls.
+     */
+    public static final int HISTOGRAM_BUCKETS = 32;
+    private static final int HISTOGRAM_SHIFT = 9;
+
+    private static final Set<Entry> entries = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static boolean beanRegistered;
+
+    /**
+     * The recursion depths of the activations of the functions whose {@link Entry#owner} is
+     * another thread, by the entries of those functions.
+     */
+    private static final ThreadLocal<IdentityHashMap<Entry, int[]>> sharedDepths = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private FunctionStats() {
+        // private
+    }
+
+    /**
+     * The statistics of one function. The time and the histogram are collected only for the
+     * outermost activation of the function on each thread, so that the inclusive time of a
+     * recursive function is not counted once per level of the recursion, while every call is
+     * counted in {@code calls}.
+     *
+     * The first thread that enters the function becomes its owner until it leaves the outermost
+     * activation, the recursion depth of the owner is a plain field. Only the threads that enter
+     * the function while another thread owns it keep their depth in {@link #sharedDepths}.
+     */
+    public static final class Entry {
+        /**
+         * Returned by {@link #enter} for an activation nested in another one of the same function.
+         */
+        public static final long NESTED = Long.MIN_VALUE;
+
+        private volatile String name;
+        private final SourceSection source;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKETS];
+        private final AtomicReference<Thread> owner = new AtomicReference<>();
+        /**
+         * The recursion depth of the {@link #owner}, only accessed by the owner.
+         */
+        private int ownerDepth;
+        /**
+         * The number of activations tracked in {@link #sharedDepths}. A thread with such an
+         * activation must not become the owner, its nested calls would be timed again.
+         */
+        private final AtomicInteger sharedActivations = new AtomicInteger();
+
+        private Entry(String name, SourceSection source) {
+            this.name = name;
+            this.source = source;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Called when the function is entered, returns the start time of the call to be passed to
+         * {@link #exit} or {@link #NESTED} if the function is already active on this thread.
+         */
+        public long enter() {
+            Thread current = Thread.currentThread();
+            if (owner.get() == current) {
+                ownerDepth++;
+                return NESTED;
+            }
+            if (sharedActivations.get() == 0 && owner.compareAndSet(null, current)) {
+                ownerDepth = 1;
+                return System.nanoTime();
+            }
+            return enterShared() ? System.nanoTime() : NESTED;
+        }
+
+        public void exit(long start) {
+            long elapsedNanos = start == NESTED ? -1 : System.nanoTime() - start;
+            boolean shared = owner.get() != Thread.currentThread();
+            if (!shared && --ownerDepth == 0) {
+                owner.set(null);
+            }
+            record(elapsedNanos, shared);
+        }
+
+        @TruffleBoundary
+        private boolean enterShared() {
+            sharedActivations.incrementAndGet();
+            int[] depth = sharedDepths.get().computeIfAbsent(this, e -> new int[1]);
+            return depth[0]++ == 0;
+        }
+
+        @TruffleBoundary
+        private void record(long elapsedNanos, boolean shared) {
+            if (shared) {
+                IdentityHashMap<Entry, int[]> depths = sharedDepths.get();
+                if (--depths.get(this)[0] == 0) {
+                    depths.remove(this);
+                }
+                sharedActivations.decrementAndGet();
+            }
+            calls.increment();
+            if (elapsedNanos >= 0) {
+                nanos.add(elapsedNanos);
+                histogram[bucket(elapsedNanos)].increment();
+            }
+        }
+
+        private void reset() {
+            calls.reset();
+            nanos.reset();
+            for (LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+        }
+
+        private Snapshot snapshot() {
+            long[] counts = new long[HISTOGRAM_BUCKETS];
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                counts[i] = histogram[i].sum();
+            }
+            return new Snapshot(name, getLocation(source), calls.sum(), nanos.sum(), counts);
+        }
+    }
+
+    /**
+     * The state of the statistics of one function at the time of the call to {@link #snapshot}.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final String location;
+        private final long calls;
+        private final long totalNanos;
+        private final long[] histogram;
+
+        private Snapshot(String name, String location, long calls, long totalNanos, long[] histogram) {
+            this.name = name;
+            this.location = location;
+            this.calls = calls;
+            this.totalNanos = totalNanos;
+            this.histogram = histogram;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        private Snapshot add(Snapshot other) {
+            long[] sum = histogram.clone();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += other.histogram[i];
+            }
+            return new Snapshot(name, location, calls + other.calls, totalNanos + other.totalNanos, sum);
+        }
+    }
+
+    public interface FunctionStatsMXBean {
+        List<Snapshot> getFunctionStats();
+
+        void reset();
+    }
+
+    private static final class FunctionStatsBean implements FunctionStatsMXBean {
+        @Override
+        public List<Snapshot> getFunctionStats() {
+            return snapshot();
+        }
+
+        @Override
+        public void reset() {
+            FunctionStats.reset();
+        }
+    }
+
+    static int bucket(long elapsedNanos) {
+        int bits = 64 - Long.numberOfLeadingZeros(elapsedNanos >>> HISTOGRAM_SHIFT);
+        return Math.min(bits, HISTOGRAM_BUCKETS - 1);
+    }
+
+    /**
+     * Returns the upper bound in nanoseconds of the histogram bucket {@code i}, the last bucket is
+     * unbounded.
+     */
+    public static long getBucketLimit(int i) {
+        return i == HISTOGRAM_BUCKETS - 1 ? Long.MAX_VALUE : 1L << (i + HISTOGRAM_SHIFT);
+    }
+
+    private static String getLocation(SourceSection source) {
+        if (source == null || !source.isAvailable()) {
+            return "";
+        }
+        String path = RSource.getPath(source.getSource());
+        return (path == null ? source.getSource().getName() : path) + "#" + source.getStartLine();
+    }
+
+    /**
+     * Creates the statistics of a function, which are kept until the entry is no longer
+     * referenced.
+     */
+    @TruffleBoundary
+    public static Entry create(String name, SourceSection source) {
+        Entry entry = new Entry(name, source);
+        entries.add(entry);
+        registerBean();
+        return entry;
+    }
+
+    /**
+     * Returns the statistics of all functions that were called, the most time consuming first. The
+     * statistics of the copies of the same function, e.g., created for different frame
+     * descriptors, are merged.
+     */
+    @TruffleBoundary
+    public static List<Snapshot> snapshot() {
+        Entry[] current;
+        synchronized (entries) {
+            current = entries.toArray(new Entry[entries.size()]);
+        }
+        LinkedHashMap<List<String>, Snapshot> merged = new LinkedHashMap<>();
+        for (Entry entry : current) {
+            Snapshot snapshot = entry.snapshot();
+            if (snapshot.calls > 0) {
+                merged.merge(Arrays.asList(snapshot.name, snapshot.location), snapshot, Snapshot::add);
+            }
+        }
+        ArrayList<Snapshot> result = new ArrayList<>(merged.values());
+        result.sort((a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+        return result;
+    }
+
+    @TruffleBoundary
+    public static void reset() {
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                entry.reset();
+            }
+        }
+    }
+
+    private static synchronized void registerBean() {
+        if (!beanRegistered) {
+            beanRegistered = true;
+            try {
+                ObjectName name = new ObjectName("FastR:type=JMX,name=FunctionStats");
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new FunctionStatsBean(), name);
+            } catch (Throwable t) {
+                // the management API may be missing, e.g., in a native image, the statistics are
+                // still available via the builtin
+            }
+        }
+    }
+}
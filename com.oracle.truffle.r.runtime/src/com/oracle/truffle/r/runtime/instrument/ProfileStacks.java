@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.instrument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.runtime.RSource;
+
+/**
+ * Aggregated call stacks with one or more values per stack, e.g., the number of CPU samples or the
+ * allocated bytes, that can be exported in the collapsed stack format used by flame graph tools and
+ * in the (gzipped) protobuf format of {@code pprof}.
+ *
+ * Each frame of a stack is identified by the name of the function and the source section that was
+ * being executed in that function, if known. The stacks are kept outermost frame first.
+ */
+public final class ProfileStacks {
+
+    public static final class Frame {
+        private final String name;
+        private final SourceSection section;
+
+        public Frame(String name, SourceSection section) {
+            this.name = name;
+            this.section = section != null && section.isAvailable() ? section : null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        String getFileName() {
+            if (section == null) {
+                return "";
+            }
+            String path = RSource.getPath(section.getSource());
+            return path == null ? section.getSource().getName() : path;
+        }
+
+        int getLine() {
+            return section == null ? 0 : section.getStartLine();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Frame)) {
+                return false;
+            }
+            Frame other = (Frame) obj;
+            return name.equals(other.name) && (section == null ? other.section == null : section.equals(other.section));
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + (section == null ? 0 : section.hashCode());
+        }
+    }
+
+    private final String[][] sampleTypes;
+    private final String[] periodType;
+    private final long period;
+    private final long startNanos = System.currentTimeMillis() * 1000000L;
+    private final LinkedHashMap<List<Frame>, long[]> stacks = new LinkedHashMap<>();
+
+    /**
+     * @param sampleTypes the type and unit of each value, e.g. {@code {"samples", "count"}}
+     * @param periodType the type and unit of the sampling period or {@code null} if the values are
+     *            not sampled
+     * @param period the sampling period in the units of {@code periodType}
+     */
+    public ProfileStacks(String[][] sampleTypes, String[] periodType, long period) {
+        this.sampleTypes = sampleTypes;
+        this.periodType = periodType;
+        this.period = period;
+    }
+
+    /**
+     * Adds {@code values} to the values of {@code stack}.
+     */
+    public synchronized void add(Frame[] stack, long... values) {
+        assert values.length == sampleTypes.length;
+        long[] current = stacks.get(Arrays.asList(stack));
+        if (current == null) {
+            stacks.put(Arrays.asList(stack.clone()), values.clone());
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                current[i] += values[i];
+            }
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return stacks.isEmpty();
+    }
+
+    /**
+     * Writes one line per stack in the form {@code outer;...;inner value}, where each frame is
+     * written as {@code name (file:line)} if its location is known and the value is the one with
+     * index {@code valueIndex}.
+     */
+    public synchronized void writeCollapsed(OutputStream out, int valueIndex) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<List<Frame>, long[]> entry : stacks.entrySet()) {
+            long value = entry.getValue()[valueIndex];
+            if (value == 0) {
+                continue;
+            }
+            sb.setLength(0);
+            for (Frame frame : entry.getKey()) {
+                if (sb.length() > 0) {
+                    sb.append(';');
+                }
+                // ';' separates the frames and the last ' ' separates the value
+                sb.append(frame.name.replace(';', ':').replace(' ', '_'));
+                if (frame.section != null) {
+                    sb.append(" (").append(frame.getFileName().replace(';', ':')).append(':').append(frame.getLine()).append(')');
+                }
+            }
+            sb.append(' ').append(value).append('\n');
+            writer.write(sb.toString());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the stacks as a gzipped {@code perftools.profiles.Profile} protobuf message.
+     */
+    public synchronized void writePprof(OutputStream out) throws IOException {
+        PprofBuilder builder = new PprofBuilder();
+        ProtoWriter profile = new ProtoWriter();
+        for (String[] type : sampleTypes) {
+            profile.writeMessage(1, builder.valueType(type));
+        }
+        for (Map.Entry<List<Frame>, long[]> entry : stacks.entrySet()) {
+            List<Frame> stack = entry.getKey();
+            long[] locationIds = new long[stack.size()];
+            // pprof lists the locations innermost first
+            for (int i = 0; i < locationIds.length; i++) {
+                locationIds[i] = builder.locationId(stack.get(stack.size() - 1 - i));
+            }
+            ProtoWriter sample = new ProtoWriter();
+            sample.writePacked(1, locationIds);
+            sample.writePacked(2, entry.getValue());
+            profile.writeMessage(2, sample);
+        }
+        for (ProtoWriter location : builder.locations) {
+            profile.writeMessage(4, location);
+        }
+        for (ProtoWriter function : builder.functions) {
+            profile.writeMessage(5, function);
+        }
+        // the string table has to be complete before it is written
+        ProtoWriter periodValueType = periodType == null ? null : builder.valueType(periodType);
+        for (String s : builder.strings) {
+            profile.writeBytes(6, s.getBytes(StandardCharsets.UTF_8));
+        }
+        profile.writeVarint(9, startNanos);
+        profile.writeVarint(10, System.currentTimeMillis() * 1000000L - startNanos);
+        if (periodValueType != null) {
+            profile.writeMessage(11, periodValueType);
+            profile.writeVarint(12, period);
+        }
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        profile.writeTo(gzip);
+        gzip.finish();
+        gzip.flush();
+    }
+
+    private static final class PprofBuilder {
+        private final List<String> strings = new ArrayList<>();
+        private final HashMap<String, Integer> stringIds = new HashMap<>();
+        private final List<ProtoWriter> functions = new ArrayList<>();
+        private final HashMap<List<String>, Integer> functionIds = new HashMap<>();
+        private final List<ProtoWriter> locations = new ArrayList<>();
+        private final HashMap<Frame, Integer> locationIds = new HashMap<>();
+
+        PprofBuilder() {
+            // the first string must be empty
+            stringId("");
+        }
+
+        int stringId(String s) {
+            Integer id = stringIds.get(s);
+            if (id == null) {
+                id = strings.size();
+                strings.add(s);
+                stringIds.put(s, id);
+            }
+            return id;
+        }
+
+        ProtoWriter valueType(String[] type) {
+            ProtoWriter valueType = new ProtoWriter();
+            valueType.writeVarint(1, stringId(type[0]));
+            valueType.writeVarint(2, stringId(type[1]));
+            return valueType;
+        }
+
+        private int functionId(Frame frame) {
+            String fileName = frame.getFileName();
+            List<String> key = Arrays.asList(frame.name, fileName);
+            Integer id = functionIds.get(key);
+            if (id == null) {
+                id = functions.size() + 1;
+                ProtoWriter function = new ProtoWriter();
+                function.writeVarint(1, id);
+                function.writeVarint(2, stringId(frame.name));
+                function.writeVarint(3, stringId(frame.name));
+                function.writeVarint(4, stringId(fileName));
+                functions.add(function);
+                functionIds.put(key, id);
+            }
+            return id;
+        }
+
+        int locationId(Frame frame) {
+            Integer id = locationIds.get(frame);
+            if (id == null) {
+                id = locations.size() + 1;
+                ProtoWriter line = new ProtoWriter();
+                line.writeVarint(1, functionId(frame));
+                line.writeVarint(2, frame.getLine());
+                ProtoWriter location = new ProtoWriter();
+                location.writeVarint(1, id);
+                location.writeMessage(4, line);
+                locations.add(location);
+                locationIds.put(frame, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Minimal protobuf encoder for the field types used by the {@code pprof} format.
+     */
+    private static final class ProtoWriter {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private void writeRawVarint(long v) {
+            long value = v;
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+
+        private void writeTag(int field, int wireType) {
+            writeRawVarint((field << 3) | wireType);
+        }
+
+        void writeVarint(int field, long value) {
+            if (value != 0) {
+                writeTag(field, 0);
+                writeRawVarint(value);
+            }
+        }
+
+        void writeBytes(int field, byte[] value) {
+            writeTag(field, 2);
+            writeRawVarint(value.length);
+            bytes.write(value, 0, value.length);
+        }
+
+        void writeMessage(int field, ProtoWriter message) {
+            writeBytes(field, message.bytes.toByteArray());
+        }
+
+        void writePacked(int field, long[] values) {
+            ProtoWriter packed = new ProtoWriter();
+            for (long value : values) {
+                packed.writeRawVarint(value);
+            }
+            writeMessage(field, packed);
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+    }
+}
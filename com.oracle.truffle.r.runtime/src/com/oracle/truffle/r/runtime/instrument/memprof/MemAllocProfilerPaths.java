@@ -28,6 +28,7 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
@@ -41,6 +42,7 @@ import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.instrument.ProfileStacks;
 
 public final class MemAllocProfilerPaths {
     private final AtomicLong version = new AtomicLong();
@@ -155,6 +157,32 @@ public final class MemAllocProfilerPaths {
         }
     }
 
+    /**
+     * Converts the allocations hierarchy into stacks for the export in the flame graph or
+     * {@code pprof} format. The synthetic entries of the threads are kept as the outermost frames.
+     */
+    public ProfileStacks toProfileStacks() {
+        ProfileStacks result = new ProfileStacks(new String[][]{{"alloc_objects", "count"}, {"alloc_space", "bytes"}}, null, 0);
+        traverse(null, stack -> {
+            Entry entry = stack.peek();
+            if (entry.stats.count == 0) {
+                return;
+            }
+            // the stack of the traversal has the innermost entry on top
+            ProfileStacks.Frame[] frames = new ProfileStacks.Frame[stack.size() - 1];
+            int i = 0;
+            Iterator<Entry> iter = stack.descendingIterator();
+            while (iter.hasNext()) {
+                Entry e = iter.next();
+                if (e != root) {
+                    frames[i++] = new ProfileStacks.Frame(e.name, e.sourceSection);
+                }
+            }
+            result.add(frames, entry.stats.count, entry.stats.allocated);
+        }, null, Integer.MAX_VALUE, false);
+        return result;
+    }
+
     /**
      * Traverse the allocations hierarchy. This method is usually used by profiling tools for
      * displaying the allocations.
@@ -23,7 +23,16 @@ package com.oracle.truffle.r.runtime.nodes;
 import java.util.HashSet;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.ComplexTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.DoubleTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.IntTable;
+import com.oracle.truffle.r.runtime.PrimitiveHashTables.StringTable;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RComplexVector;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RLogicalVector;
+import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
 import com.oracle.truffle.r.runtime.data.model.RAbstractListBaseVector;
@@ -32,16 +41,20 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractListBaseVector;
  * Code sharing vehicle for the slight differences in behavior between {@code duplicated} and
  * {@code anyDuplicated} (both internal and native versions) and whether {@code fromLast} is
  * {@code TRUE/FALSE}.
+ *
+ * Atomic vectors are analyzed using the unboxed tables from {@code PrimitiveHashTables}, other
+ * containers (lists) are compared element-wise via {@link DupEntry}.
  */
 public class DuplicationHelper {
     private final RAbstractContainer x;
-    private final HashSet<DupEntry> vectorContents = new HashSet<>();
+    private final HashSet<DupEntry> vectorContents;
     private final HashSet<DupEntry> incompContents;
     private final byte[] dupVec;
     private int index;
 
     public DuplicationHelper(RAbstractContainer x, RAbstractContainer incomparables, boolean justIndex, boolean fromLast) {
         this.x = x;
+        vectorContents = new HashSet<>();
         vectorContents.add(new DupEntry(x.getDataAtAsObject(fromLast ? x.getLength() - 1 : 0)));
 
         if (incomparables != null) {
@@ -55,6 +68,13 @@ public class DuplicationHelper {
         dupVec = justIndex ? null : new byte[x.getLength()];
     }
 
+    private DuplicationHelper(byte[] dupVec) {
+        this.x = null;
+        this.vectorContents = null;
+        this.incompContents = null;
+        this.dupVec = dupVec;
+    }
+
     public boolean doIt(int i) {
         DupEntry entry = new DupEntry(x.getDataAtAsObject(i));
         if (incompContents == null || !incompContents.contains(entry)) {
@@ -84,6 +104,10 @@ public class DuplicationHelper {
 
     @TruffleBoundary
     public static DuplicationHelper analyze(RAbstractContainer x, RAbstractContainer incomparables, boolean justIndex, boolean fromLast) {
+        AtomicElements elements = AtomicElements.create(x, incomparables);
+        if (elements != null) {
+            return analyzeAtomic(elements, x.getLength(), justIndex, fromLast);
+        }
         DuplicationHelper ds = new DuplicationHelper(x, incomparables, justIndex, fromLast);
         if (fromLast) {
             for (int i = x.getLength() - 2; i >= 0; i--) {
@@ -101,6 +125,203 @@ public class DuplicationHelper {
         return ds;
     }
 
+    private static DuplicationHelper analyzeAtomic(AtomicElements elements, int length, boolean justIndex, boolean fromLast) {
+        DuplicationHelper ds = new DuplicationHelper(justIndex ? null : new byte[length]);
+        int step = fromLast ? -1 : 1;
+        for (int i = fromLast ? length - 1 : 0; i >= 0 && i < length; i += step) {
+            if (!elements.isIncomparable(i) && elements.isDuplicate(i)) {
+                if (justIndex) {
+                    ds.index = i + 1;
+                    break;
+                }
+                ds.dupVec[i] = RRuntime.LOGICAL_TRUE;
+            }
+        }
+        return ds;
+    }
+
+    /**
+     * The elements of an atomic vector together with the table of the elements seen so far and the
+     * (optional) table of the incomparable values.
+     */
+    private abstract static class AtomicElements {
+
+        abstract boolean isIncomparable(int i);
+
+        /**
+         * Adds the element to the table of seen elements, returns {@code true} if it was already
+         * there.
+         */
+        abstract boolean isDuplicate(int i);
+
+        static AtomicElements create(RAbstractContainer x, RAbstractContainer incomparables) {
+            if (incomparables != null && incomparables.getRType() != x.getRType()) {
+                return null;
+            }
+            int length = x.getLength();
+            if (x instanceof RIntVector) {
+                return new IntElements(((RIntVector) x).getReadonlyData(), incomparables == null ? null : ((RIntVector) incomparables).getReadonlyData(), length);
+            } else if (x instanceof RLogicalVector) {
+                return new LogicalElements(((RLogicalVector) x).getReadonlyData(), incomparables == null ? null : ((RLogicalVector) incomparables).getReadonlyData(), length);
+            } else if (x instanceof RDoubleVector) {
+                return new DoubleElements(((RDoubleVector) x).getReadonlyData(), incomparables == null ? null : ((RDoubleVector) incomparables).getReadonlyData(), length);
+            } else if (x instanceof RStringVector) {
+                return new StringElements(((RStringVector) x).getReadonlyStringData(), incomparables == null ? null : ((RStringVector) incomparables).getReadonlyStringData(), length);
+            } else if (x instanceof RComplexVector) {
+                return new ComplexElements(((RComplexVector) x).getReadonlyData(), incomparables == null ? null : ((RComplexVector) incomparables).getReadonlyData(), length);
+            }
+            return null;
+        }
+    }
+
+    private static final class IntElements extends AtomicElements {
+        private final int[] data;
+        private final IntTable seen;
+        private final IntTable incomparables;
+
+        IntElements(int[] data, int[] incomparableData, int length) {
+            this.data = data;
+            this.seen = new IntTable(length);
+            if (incomparableData != null) {
+                incomparables = new IntTable(incomparableData.length);
+                for (int i = 0; i < incomparableData.length; i++) {
+                    incomparables.putIfAbsent(incomparableData[i], i);
+                }
+            } else {
+                incomparables = null;
+            }
+        }
+
+        @Override
+        boolean isIncomparable(int i) {
+            return incomparables != null && incomparables.contains(data[i]);
+        }
+
+        @Override
+        boolean isDuplicate(int i) {
+            return seen.putIfAbsent(data[i], i) >= 0;
+        }
+    }
+
+    private static final class LogicalElements extends AtomicElements {
+        private final byte[] data;
+        private final IntTable seen;
+        private final IntTable incomparables;
+
+        LogicalElements(byte[] data, byte[] incomparableData, int length) {
+            this.data = data;
+            this.seen = new IntTable(Math.min(length, 3));
+            if (incomparableData != null) {
+                incomparables = new IntTable(incomparableData.length);
+                for (int i = 0; i < incomparableData.length; i++) {
+                    incomparables.putIfAbsent(incomparableData[i], i);
+                }
+            } else {
+                incomparables = null;
+            }
+        }
+
+        @Override
+        boolean isIncomparable(int i) {
+            return incomparables != null && incomparables.contains(data[i]);
+        }
+
+        @Override
+        boolean isDuplicate(int i) {
+            return seen.putIfAbsent(data[i], i) >= 0;
+        }
+    }
+
+    private static final class DoubleElements extends AtomicElements {
+        private final double[] data;
+        private final DoubleTable seen;
+        private final DoubleTable incomparables;
+
+        DoubleElements(double[] data, double[] incomparableData, int length) {
+            this.data = data;
+            this.seen = new DoubleTable(length);
+            if (incomparableData != null) {
+                incomparables = new DoubleTable(incomparableData.length);
+                for (int i = 0; i < incomparableData.length; i++) {
+                    incomparables.putIfAbsent(incomparableData[i], i);
+                }
+            } else {
+                incomparables = null;
+            }
+        }
+
+        @Override
+        boolean isIncomparable(int i) {
+            return incomparables != null && incomparables.contains(data[i]);
+        }
+
+        @Override
+        boolean isDuplicate(int i) {
+            return seen.putIfAbsent(data[i], i) >= 0;
+        }
+    }
+
+    private static final class StringElements extends AtomicElements {
+        private final String[] data;
+        private final StringTable seen;
+        private final StringTable incomparables;
+
+        StringElements(String[] data, String[] incomparableData, int length) {
+            this.data = data;
+            this.seen = new StringTable(length);
+            if (incomparableData != null) {
+                incomparables = new StringTable(incomparableData.length);
+                for (int i = 0; i < incomparableData.length; i++) {
+                    incomparables.putIfAbsent(incomparableData[i], i);
+                }
+            } else {
+                incomparables = null;
+            }
+        }
+
+        @Override
+        boolean isIncomparable(int i) {
+            return incomparables != null && incomparables.contains(data[i]);
+        }
+
+        @Override
+        boolean isDuplicate(int i) {
+            return seen.putIfAbsent(data[i], i) >= 0;
+        }
+    }
+
+    private static final class ComplexElements extends AtomicElements {
+        /**
+         * Real and imaginary parts, interleaved.
+         */
+        private final double[] data;
+        private final ComplexTable seen;
+        private final ComplexTable incomparables;
+
+        ComplexElements(double[] data, double[] incomparableData, int length) {
+            this.data = data;
+            this.seen = new ComplexTable(length);
+            if (incomparableData != null) {
+                incomparables = new ComplexTable(incomparableData.length >> 1);
+                for (int i = 0; i < incomparableData.length >> 1; i++) {
+                    incomparables.putIfAbsent(incomparableData[i << 1], incomparableData[(i << 1) + 1], i);
+                }
+            } else {
+                incomparables = null;
+            }
+        }
+
+        @Override
+        boolean isIncomparable(int i) {
+            return incomparables != null && incomparables.get(data[i << 1], data[(i << 1) + 1]) >= 0;
+        }
+
+        @Override
+        boolean isDuplicate(int i) {
+            return seen.putIfAbsent(data[i << 1], data[(i << 1) + 1], i) >= 0;
+        }
+    }
+
     private static final class DupEntry {
 
         private final Object element;
@@ -124,6 +124,9 @@ static const R_CallMethodDef CallEntries[] = {
         CALLDEF(rapi_dotCall, 2),
         CALLDEF(testMissingArgWithATTRIB, 0),
         CALLDEF(testPRIMFUN, 2),
+        CALLDEF(testElementWrites, 1),
+        CALLDEF(testGetRegion, 4),
+        CALLDEF(testUnbalancedProtect, 1),
         #include "init_api.h"
         {NULL, NULL, 0}
 };
@@ -1174,3 +1174,68 @@ SEXP testdiv(SEXP n) {
     UNPROTECT(1);
     return resVec;
 }
+
+SEXP testElementWrites(SEXP n) {
+    int len = INTEGER_VALUE(n);
+    SEXP a = PROTECT(mkChar("a"));
+    SEXP b = PROTECT(mkChar("b"));
+    SEXP aString = PROTECT(ScalarString(a));
+    SEXP strings = PROTECT(allocVector(STRSXP, len));
+    SEXP list = PROTECT(allocVector(VECSXP, len));
+    for (int i = 0; i < len; i++) {
+        SET_STRING_ELT(strings, i, a);
+    }
+    // the preceding writes must be visible to the reads
+    if (len > 0 && strcmp(CHAR(STRING_ELT(strings, len - 1)), "a") != 0) {
+        error("unexpected value of the last element");
+    }
+    for (int i = 0; i < len; i += 2) {
+        SET_STRING_ELT(strings, i, b);
+    }
+    for (int i = 0; i < len; i++) {
+        SET_VECTOR_ELT(list, i, i % 2 == 0 ? aString : R_NilValue);
+    }
+    SEXP result = PROTECT(allocVector(VECSXP, 2));
+    SET_VECTOR_ELT(result, 0, strings);
+    SET_VECTOR_ELT(result, 1, list);
+    UNPROTECT(6);
+    return result;
+}
+
+SEXP testGetRegion(SEXP intVec, SEXP realVec, SEXP logicalVec, SEXP from) {
+    R_xlen_t fromIdx = INTEGER_VALUE(from);
+    int intBuf[8];
+    double realBuf[8];
+    int logicalBuf[8];
+    // the regions go past the end of the vectors, only the remaining elements are copied
+    R_xlen_t intCount = INTEGER_GET_REGION(intVec, fromIdx, 8, intBuf);
+    R_xlen_t realCount = REAL_GET_REGION(realVec, fromIdx, 8, realBuf);
+    R_xlen_t logicalCount = LOGICAL_GET_REGION(logicalVec, fromIdx, 8, logicalBuf);
+    SEXP result = PROTECT(allocVector(VECSXP, 3));
+    SEXP ints = allocVector(INTSXP, intCount);
+    SET_VECTOR_ELT(result, 0, ints);
+    for (R_xlen_t i = 0; i < intCount; i++) {
+        SET_INTEGER_ELT(ints, i, intBuf[i]);
+    }
+    SEXP reals = allocVector(REALSXP, realCount);
+    SET_VECTOR_ELT(result, 1, reals);
+    for (R_xlen_t i = 0; i < realCount; i++) {
+        SET_REAL_ELT(reals, i, realBuf[i]);
+    }
+    SEXP logicals = allocVector(LGLSXP, logicalCount);
+    SET_VECTOR_ELT(result, 2, logicals);
+    for (R_xlen_t i = 0; i < logicalCount; i++) {
+        SET_LOGICAL_ELT(logicals, i, logicalBuf[i]);
+    }
+    UNPROTECT(1);
+    return result;
+}
+
+SEXP testUnbalancedProtect(SEXP n) {
+    int count = INTEGER_VALUE(n);
+    for (int i = 0; i < count; i++) {
+        PROTECT(allocVector(INTSXP, 1));
+    }
+    // intentionally no UNPROTECT
+    return ScalarInteger(count);
+}
@@ -176,3 +176,9 @@ extern SEXP testPRIMFUN(SEXP fun, SEXP args);
 extern SEXP testTrace();
 
 extern SEXP testdiv(SEXP n);
+
+extern SEXP testElementWrites(SEXP n);
+
+extern SEXP testGetRegion(SEXP intVec, SEXP realVec, SEXP logicalVec, SEXP from);
+
+extern SEXP testUnbalancedProtect(SEXP n);
@@ -104,4 +104,15 @@ public class TestBuiltin_colSums extends TestBase {
         // colSums on array have correct values
         assertEval("{ a = colSums(array(1:24,c(2,3,4))); c(a[1,1],a[2,2],a[3,3],a[3,4]) }");
     }
+
+    @Test
+    public void testLargeMatrix() {
+        // large matrices are summed using multiple threads, the results must be the same as from
+        // the sequential loops of apply
+        String m = "m <- matrix(seq(0.1, by=0.7, length.out=300000), 3000); m[5, 7] <- NA; m[2000, 3] <- NaN; m[17, ] <- NA; ";
+        assertEval(m + "identical(colSums(m), apply(m, 2, sum)); identical(colSums(m, na.rm=TRUE), apply(m, 2, sum, na.rm=TRUE))");
+        assertEval(m + "identical(rowSums(m), apply(m, 1, sum)); identical(rowSums(m, na.rm=TRUE), apply(m, 1, sum, na.rm=TRUE))");
+        assertEval(m + "all.equal(colMeans(m), apply(m, 2, mean)); all.equal(colMeans(m, na.rm=TRUE), apply(m, 2, mean, na.rm=TRUE))");
+        assertEval(m + "all.equal(rowMeans(m), apply(m, 1, mean)); all.equal(rowMeans(m, na.rm=TRUE), apply(m, 1, mean, na.rm=TRUE))");
+    }
 }
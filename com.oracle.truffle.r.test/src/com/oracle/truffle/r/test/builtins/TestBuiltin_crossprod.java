@@ -121,4 +121,13 @@ public class TestBuiltin_crossprod extends TestBase {
     public void testCrossprodDimnames() {
         assertEval("{ crossprod(structure(1:9, .Dim=c(3L,3L), .Dimnames=list(c('a', 'b', 'c'), c('A', 'B', 'C'))), structure(1:9, .Dim=c(3L,3L), .Dimnames=list(c('d', 'e', 'f'), c('D', 'E', 'F')))) }");
     }
+
+    @Test
+    public void testCrossprodLarge() {
+        // large products are computed using multiple threads
+        String m = "x <- matrix(sin(1:60000), 300); y <- matrix(cos(1:40000), 200); x[7, 3] <- NA; y[5, 150] <- NaN; ";
+        assertEval(m + "r <- x %*% y; c(dim(r), sum(is.na(r)), sum(is.nan(r)), round(r[c(1, 500, 30000, 60000)], 8))");
+        assertEval(m + "r <- crossprod(y); c(dim(r), isSymmetric(r), sum(is.nan(r)), round(r[c(1, 500, 30000, 40000)], 8))");
+        assertEval(m + "r <- tcrossprod(x, t(y)); identical(dim(r), dim(x %*% y)); all.equal(r, x %*% y)");
+    }
 }
@@ -148,4 +148,17 @@ public class TestBuiltin_duplicated extends TestBase {
         assertEval("{ duplicated(list(list(1,\"aaa\"),list(1,\"aaa\"))) }");
 
     }
+
+    @Test
+    public void testDuplicatedSpecialValues() {
+        assertEval("{ duplicated(c(NA, NaN, NA, NaN, 0, -0)) }");
+        assertEval("{ duplicated(c(NA, NaN, 0, -0), fromLast = TRUE) }");
+        assertEval("{ anyDuplicated(c(1, NaN, NA, 2, -0, 0)) }");
+        assertEval("{ duplicated(c(\"NA\", NA, NA, \"NA\")) }");
+        assertEval("{ duplicated(c(NA_complex_, complex(real = 1, imaginary = NA), complex(real = NA, imaginary = 2), 1+2i)) }");
+        assertEval("{ duplicated(c(1L, NA, 1L, NA, 2L), incomparables = NA) }");
+        assertEval("{ x <- rep(1:1000, 3); sum(duplicated(x)); anyDuplicated(x) }");
+        assertEval("{ unique(c(NA, NaN, NA, NaN, 0, -0)) }");
+        assertEval("{ match(c(NaN, NA, -0), c(0, NA, NaN)) }");
+    }
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.builtins;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestBuiltin_lazyLoadDBfetch extends TestBase {
+
+    @Test
+    public void testLazyLoad() {
+        // the first fetch starts the decompression of all the entries of the database, the others
+        // wait for the decompressed entries
+        assertEval(template("f <- tempfile(); e <- new.env(); for (i in 1:50) assign(paste0('v', i), list(i, seq_len(i * 100), letters[1:(i %% 26 + 1)]), envir=e); tools:::makeLazyLoadDB(e, f, compress=%0); " +
+                        "l <- new.env(); lazyLoad(f, envir=l); r <- all(vapply(1:50, function(i) identical(get(paste0('v', i), envir=l), get(paste0('v', i), envir=e)), TRUE)); unlink(paste0(f, c('.rdb', '.rdx'))); r",
+                        new String[]{"TRUE", "3"}));
+        assertEval("f <- tempfile(); e <- new.env(); e$x <- structure(1:10, foo='bar'); e$y <- function(a) a + 1; tools:::makeLazyLoadDB(e, f); " +
+                        "l <- new.env(); lazyLoad(f, envir=l); r <- list(l$x, l$y(1), l$x); unlink(paste0(f, c('.rdb', '.rdx'))); r");
+    }
+}
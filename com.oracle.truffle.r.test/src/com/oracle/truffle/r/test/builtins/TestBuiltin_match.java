@@ -459,6 +459,16 @@ public class TestBuiltin_match extends TestBase {
         assertEval("match(1:3, numeric(0))");
     }
 
+    @Test
+    public void testMatchRepeatedTable() {
+        // the second and later lookups into the same table use a cached index
+        assertEval("{ t <- c(20:1, 5L, NA); r <- lapply(1:3, function(i) match(c(5L, 21L, NA), t)); t[[20]] <- 21L; list(r, match(c(5L, 21L, NA), t), match(21L, t)) }");
+        assertEval("{ t <- c(as.double(20:1), NaN, NA, -0); r <- sapply(c(5, NaN, NA, 0, 0.5), function(v) match(v, t)); t[[1]] <- 0.5; list(r, match(c(0.5, 0), t), match(0.5, t)) }");
+        assertEval("{ t <- c(letters, 'NA', NA); r <- sapply(c('e', 'NA', NA, 'z'), function(v) match(v, t)); t[3] <- 'zz'; list(r, match(c('zz', 'c'), t), match('c', t), 'zz' %in% t) }");
+        assertEval("{ t <- as.double(1:20); r <- sapply(c(3, 21, NA), function(v) is.element(v, t)); t[1] <- NA; list(r, is.element(NA_real_, t), is.element(NA_real_, t)) }");
+        assertEval("{ y <- c(30:1, 3L); x <- c(5L, 1L, 40L, 5L); r <- list(intersect(x, y), intersect(x, y)); y[30] <- 40L; list(r, intersect(x, y)) }");
+    }
+
     private void testMatchStringSequence(String preffix, String suffix) {
         String x = String.format("c('%1$s-2%2$s', '%1$s-1%2$s', '%1$s0%2$s', '%1$s1%2$s', '%1$s10%2$s', '%1$s11%2$s')", preffix, suffix);
         String table = String.format("paste('%1$s', -1:10, '%2$s', sep='')", preffix, suffix);
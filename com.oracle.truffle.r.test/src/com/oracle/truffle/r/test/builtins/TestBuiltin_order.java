@@ -180,4 +180,15 @@ public class TestBuiltin_order extends TestBase {
         assertEval("order(NULL)");
         assertEval("order(c(NULL, c(1,2,0)))");
     }
+
+    @Test
+    public void testOrderLarge() {
+        // long enough to be sorted by multiple threads
+        assertEval("{ x <- rep(c(3L, NA, 1L, 2L, 1L), 40000); o <- order(x); c(head(o, 5), tail(o, 5)) }");
+        assertEval("{ x <- rep(c(3L, NA, 1L, 2L, 1L), 40000); o <- order(x, decreasing=TRUE, na.last=FALSE); c(head(o, 5), tail(o, 5)) }");
+        assertEval("{ x <- rep(c(0.5, NaN, -0.0, 0, NA, -2), 40000); o <- order(x, na.last=NA); c(length(o), head(o, 5), tail(o, 5)) }");
+        assertEval("{ x <- rep(c('b', NA, 'a', 'c'), 50000); o <- order(x); c(head(o, 5), tail(o, 5)) }");
+        assertEval("{ x <- rep(c(2, 1, 2), 50000); y <- rep(c('b', 'a'), 75000); o <- order(x, y, decreasing=TRUE); c(head(o, 5), tail(o, 5)) }");
+        assertEval("{ x <- rep(c(1+1i, 1-1i, NA, 0+2i), 50000); o <- order(x); c(head(o, 5), tail(o, 5)) }");
+    }
 }
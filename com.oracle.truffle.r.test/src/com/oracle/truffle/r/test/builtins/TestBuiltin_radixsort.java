@@ -64,4 +64,30 @@ public class TestBuiltin_radixsort extends TestBase {
         // at InternalNode$InternalCallWrapNode.prepareArgs(InternalNode.java:309)
         assertEval(Ignored.ImplementationError, "argv <- list(structure(integer(0), .Label = character(0), class = 'factor'), TRUE, FALSE); .Internal(radixsort(argv[[1]], argv[[2]], argv[[3]]))");
     }
+
+    @Test
+    public void testRadixSortOrder() {
+        assertEval("{ x <- c(3L, 1L, NA, 2L, 1L); order(x, method='radix') }");
+        assertEval("{ x <- c(3L, 1L, NA, 2L, 1L); order(x, method='radix', na.last=FALSE) }");
+        assertEval("{ x <- c(3L, 1L, NA, 2L, 1L); order(x, method='radix', na.last=NA) }");
+        assertEval("{ x <- c(3L, 1L, NA, 2L, 1L); order(x, method='radix', decreasing=TRUE) }");
+        assertEval("{ x <- c(0.5, -0.0, NaN, -Inf, 0, NA, 1e300, -2.5); order(x, method='radix') }");
+        assertEval("{ x <- c(0.5, -0.0, NaN, -Inf, 0, NA, 1e300, -2.5); order(x, method='radix', decreasing=TRUE, na.last=FALSE) }");
+        assertEval("{ x <- c('b', 'B', NA, 'a', 'ab', 'b'); order(x, method='radix') }");
+        assertEval("{ x <- c(TRUE, NA, FALSE, TRUE); order(x, method='radix', decreasing=TRUE) }");
+        assertEval("{ sort(c(10L, -3L, 7L, 2147483647L, -2147483647L), method='radix') }");
+        assertEval("{ sort(c('zz', 'a', 'Z', 'b'), method='radix', decreasing=TRUE) }");
+        assertEval("{ order(c(2, 1, 2, 1), c('b', 'a', 'a', 'b'), method='radix', decreasing=c(TRUE, FALSE)) }");
+        assertEval("{ order(c(1L, 1L, 2L, 2L), c(NA, 3, 2, NA), method='radix', na.last=NA) }");
+        assertEval("{ order(1:3, 1:2, method='radix') }");
+    }
+
+    @Test
+    public void testRadixSortGroups() {
+        assertEval(".Internal(radixsort(TRUE, FALSE, TRUE, TRUE, c(3L, 1L, 3L, 2L, 1L, 3L)))");
+        assertEval(".Internal(radixsort(TRUE, c(FALSE, TRUE), TRUE, TRUE, c(1, 1, 2, 2, 1), c('a', 'b', 'a', 'a', 'a')))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, TRUE, FALSE, c('x', 'b', 'x', NA, 'b')))");
+        assertEval(".Internal(radixsort(NA, FALSE, TRUE, TRUE, c(2L, NA, 2L, 1L)))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, TRUE, TRUE, integer(0)))");
+    }
 }
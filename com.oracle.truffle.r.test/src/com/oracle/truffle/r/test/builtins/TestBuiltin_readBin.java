@@ -49,4 +49,17 @@ public class TestBuiltin_readBin extends TestBase {
 
         assertEval("readBin(as.raw(as.raw(c(1, 2, 3))), 'tralala', 5)");
     }
+
+    @Test
+    public void testReadBinFile() {
+        // reads of 64K and more are decoded from the mapped file
+        assertEval(template("f <- tempfile(); x <- c(1:20000, NA, -5L); writeBin(x, f, endian='%0'); r <- readBin(f, 'integer', 30000, endian='%0'); unlink(f); identical(r, x)", new String[]{"little", "big"}));
+        assertEval(template("f <- tempfile(); x <- c(seq(0.5, 10000, by=0.5), NA, NaN, -Inf); writeBin(x, f, endian='%0'); r <- readBin(f, 'double', 30000, endian='%0'); unlink(f); identical(r, x)",
+                        new String[]{"little", "big"}));
+        // small reads fill the read cache, which must precede the mapped data
+        assertEval("f <- tempfile(); x <- 1:40000; writeBin(x, f); con <- file(f, 'rb'); a <- readBin(con, 'integer', 3); b <- readBin(con, 'integer', 20000); invisible(seek(con, 400)); c <- readBin(con, 'integer', 30000); " +
+                        "d <- readBin(con, 'integer', 30000); close(con); unlink(f); list(a, identical(b, 4:20003), identical(c, 101:30100), identical(d, 30101:40000))");
+        // the partial last element is not returned
+        assertEval("f <- tempfile(); con <- file(f, 'wb'); writeBin(1:20000, con); writeBin(as.raw(1:3), con); close(con); con <- file(f, 'rb'); r <- readBin(con, 'integer', 30000); r2 <- readBin(con, 'integer', 10); close(con); unlink(f); list(identical(r, 1:20000), r2)");
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.builtins;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+
+public class TestBuiltin_readLines extends TestBase {
+
+    /*
+     * The file connections read through a cache of 16K, the first lines are as long as that, so
+     * that the interesting bytes are at the end of the first chunk or at the beginning of the next
+     * one.
+     */
+
+    @Test
+    public void testReadLinesChunkBoundary() {
+        // CRLF split across the chunks
+        assertEval(template("f <- tempfile(); res <- lapply(16381:16385, function(k) { con <- %0(f, 'wb'); writeBin(charToRaw(paste0(strrep('a', k), '\\r\\nb\\r\\nc\\n')), con); close(con); r <- readLines(f); c(nchar(r[1]), r[-1]) }); unlink(f); res",
+                        new String[]{"file", "gzfile"}));
+        // the byte after the CR ending the last line read must be read by the next readLines
+        assertEval("f <- tempfile(); res <- lapply(16381:16385, function(k) { writeBin(charToRaw(paste0(strrep('a', k), '\\rb\\rc\\n')), f); con <- file(f, 'r'); a <- readLines(con, n=1); b <- readLines(con); close(con); list(nchar(a), b) }); unlink(f); res");
+        assertEval("f <- tempfile(); res <- lapply(16381:16385, function(k) { writeBin(charToRaw(paste0(strrep('a', k), '\\r\\nb\\r\\nc\\n')), f); con <- file(f, 'r'); a <- readLines(con, n=1); b <- readLines(con, n=1); c <- readLines(con); close(con); list(nchar(a), b, c) }); unlink(f); res");
+    }
+
+    @Test
+    public void testReadLinesEmbeddedNul() {
+        // with skipNul=FALSE the line is truncated at the nul and a warning is given for each such
+        // line, including a line that starts with a nul right after a CR
+        assertEval(template("f <- tempfile(); res <- lapply(16381:16384, function(k) { writeBin(c(charToRaw(strrep('a', k)), as.raw(0), charToRaw('cd\\ne'), as.raw(0), charToRaw('f\\r'), as.raw(0), charToRaw('g\\nh\\n')), f); " +
+                        "ws <- character(); r <- withCallingHandlers(readLines(f, skipNul=%0), warning=function(w) { ws <<- c(ws, conditionMessage(w)); invokeRestart('muffleWarning') }); list(nchar(r[1]), r[-1], ws) }); unlink(f); res",
+                        new String[]{"FALSE", "TRUE"}));
+    }
+
+    @Test
+    public void testReadLinesMultiByte() {
+        // a UTF-8 character split across the chunks
+        assertEval("f <- tempfile(); res <- lapply(16380:16384, function(k) { writeBin(c(charToRaw(strrep('a', k)), as.raw(c(0xc3, 0xa9, 0xe2, 0x82, 0xac, 0xc3, 0xbc)), charToRaw('\\nx\\n')), f); r <- readLines(f, encoding='UTF-8'); " +
+                        "list(nchar(r[1]), identical(substring(r[1], k + 1), '\\u00e9\\u20ac\\u00fc'), r[2]) }); unlink(f); res");
+    }
+
+    @Test
+    public void testReadLinesIncompleteLastLine() {
+        // the file name is random, so only the presence of the warning is checked
+        assertEval(template("f <- tempfile(); res <- lapply(c(16383, 16384, 40000), function(k) { writeBin(charToRaw(paste0(strrep('a', k), '\\nlast')), f); ws <- character(); " +
+                        "r <- withCallingHandlers(readLines(f, warn=%0), warning=function(w) { ws <<- c(ws, conditionMessage(w)); invokeRestart('muffleWarning') }); list(nchar(r[1]), r[-1], grepl('incomplete final line', ws)) }); unlink(f); res",
+                        new String[]{"TRUE", "FALSE"}));
+    }
+}
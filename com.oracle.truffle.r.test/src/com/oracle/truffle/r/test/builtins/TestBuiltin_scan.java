@@ -91,6 +91,19 @@ public class TestBuiltin_scan extends TestBase {
         assertEval("fileConn<-file('" + TEST_CVS_FILE + "'); writeLines(c('" + testData + "'), fileConn); m <- read.csv('" + TEST_CVS_FILE + "'); m");
     }
 
+    @Test
+    public void testScanFile() {
+        // the file connection is scanned in chunks, the result must be the same as from a text
+        // connection; 40000 lines of 3 items are above the default ParallelThreshold and every
+        // chunk boundary is next to a quoted item with an embedded separator
+        String lines = "c(paste(1:40000, 1:40000 / 2, paste0('\\'s', 1:40000, ',', 1:40000 %% 7, '\\''), sep=','), '', '1,2')";
+        assertEvalFastR("l <- " + lines + "; writeLines(l, '" + TEST_CVS_FILE + "'); w <- list(a=0L, b=0, c=''); " +
+                        "identical(scan('" + TEST_CVS_FILE + "', w, sep=',', quote=\"'\", fill=TRUE, quiet=TRUE), scan(textConnection(l), w, sep=',', quote=\"'\", fill=TRUE, quiet=TRUE))", "TRUE");
+        assertEvalFastR("l <- c(" + lines + ", 'x,y,z'); writeLines(l, '" + TEST_CVS_FILE + "'); w <- list(a=0L, b=0, c=''); " +
+                        "identical(tryCatch(scan('" + TEST_CVS_FILE + "', w, sep=',', quote=\"'\"), error=conditionMessage), tryCatch(scan(textConnection(l), w, sep=',', quote=\"'\"), error=conditionMessage))",
+                        "TRUE");
+    }
+
     @Test
     public void testArgsCasts() {
         // Empty 2nd 'what' parameter
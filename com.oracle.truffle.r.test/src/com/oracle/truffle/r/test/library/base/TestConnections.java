@@ -277,6 +277,14 @@ public class TestConnections extends TestRBase {
         assertEval("f1 <- file(open='w+b', encoding='UTF-8'); writeBin(charToRaw(\"abcd\"), f1); seek(f1); seek(f1,0); seek(f1)");
     }
 
+    @Test
+    public void testBzfile() {
+        // the data are streamed through the bzip2 process in both directions
+        assertEval("f <- tempfile(); x <- list(a=1:10000, b=c(0.5, NA, NaN), c=c('x', NA)); saveRDS(x, f, compress='bzip2'); r <- readRDS(f); unlink(f); identical(r, x)");
+        assertEval("f <- tempfile(); con <- bzfile(f, 'w'); writeLines(paste('line', 1:1000), con); close(con); con <- bzfile(f, 'a'); writeLines(c('appended', 'twice'), con); close(con); " +
+                        "con <- bzfile(f, 'r'); l <- readLines(con); close(con); unlink(f); c(length(l), l[c(1, 1000, 1001, 1002)])");
+    }
+
     private static final String[] LVAL = arr("T", "F");
 
     private static String[] arr(String... args) {
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
+import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRContext;
+import com.oracle.truffle.r.test.generate.FastRSession;
+
+/**
+ * Checks the files written by {@code .fastr.profile.export} for a profile of a recursive function
+ * against the samples in the output of {@code Rprof}.
+ */
+public class TestProfileExport extends TestBase {
+
+    private static FastRContext context;
+    private static int samples;
+
+    @BeforeClass
+    public static void setupClass() {
+        FastRSession session = FastRSession.create();
+        context = session.createContext(ContextKind.SHARE_PARENT_RW);
+        String code = "f <- tempfile(); spin <- function(t) { end <- Sys.time() + t; while (Sys.time() < end) {}; 0 }; rec <- function(n) if (n == 0) spin(0.3) else rec(n - 1); " +
+                        "Rprof(f, interval=0.01); invisible(rec(3)); Rprof(NULL); samples <- length(readLines(f)) - 1L; unlink(f); " +
+                        "collapsedFile <- tempfile(); .fastr.profile.export(collapsedFile, 'collapsed'); pprofFile <- tempfile(); .fastr.profile.export(pprofFile, 'pprof'); samples";
+        samples = context.eval("R", code).asInt();
+    }
+
+    @AfterClass
+    public static void finishClass() {
+        context.eval("R", "unlink(c(collapsedFile, pprofFile))");
+        context.close();
+    }
+
+    @Test
+    public void testCollapsed() throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(context.eval("R", "collapsedFile").asString()), StandardCharsets.UTF_8);
+        long total = 0;
+        boolean recursion = false;
+        for (String line : lines) {
+            int valueStart = line.lastIndexOf(' ');
+            Assert.assertTrue(line, valueStart >= 0);
+            total += Long.parseLong(line.substring(valueStart + 1));
+            // the frames are "name (file:line)" or just "name", outermost first
+            StringBuilder names = new StringBuilder();
+            for (String frame : line.substring(0, valueStart).split(";")) {
+                int locationStart = frame.indexOf(" (");
+                names.append(locationStart < 0 ? frame : frame.substring(0, locationStart)).append(';');
+            }
+            recursion |= names.toString().contains("rec;rec;rec;rec;spin;");
+        }
+        Assert.assertEquals(samples, total);
+        Assert.assertTrue(recursion);
+    }
+
+    @Test
+    public void testPprof() throws IOException {
+        byte[] profile;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(Paths.get(context.eval("R", "pprofFile").asString())))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            profile = out.toByteArray();
+        }
+        List<String> strings = new ArrayList<>();
+        List<long[][]> sampleList = new ArrayList<>();
+        List<String[]> sampleTypes = new ArrayList<>();
+        Map<Long, Long> locationFunctions = new HashMap<>();
+        Map<Long, Long> functionNames = new HashMap<>();
+        List<long[]> valueTypes = new ArrayList<>();
+        for (Field field : decode(profile)) {
+            switch (field.number) {
+                case 1:
+                    valueTypes.add(toValueType(field.bytes));
+                    break;
+                case 2:
+                    long[][] sample = new long[2][];
+                    for (Field f : decode(field.bytes)) {
+                        sample[f.number - 1] = decodePacked(f.bytes);
+                    }
+                    sampleList.add(sample);
+                    break;
+                case 4:
+                    long locationId = 0;
+                    long functionId = 0;
+                    for (Field f : decode(field.bytes)) {
+                        if (f.number == 1) {
+                            locationId = f.value;
+                        } else if (f.number == 4) {
+                            functionId = decode(f.bytes).get(0).value;
+                        }
+                    }
+                    locationFunctions.put(locationId, functionId);
+                    break;
+                case 5:
+                    long id = 0;
+                    long name = 0;
+                    for (Field f : decode(field.bytes)) {
+                        if (f.number == 1) {
+                            id = f.value;
+                        } else if (f.number == 2) {
+                            name = f.value;
+                        }
+                    }
+                    functionNames.put(id, name);
+                    break;
+                case 6:
+                    strings.add(new String(field.bytes, StandardCharsets.UTF_8));
+                    break;
+                default:
+                    // the times and the period are not checked
+                    break;
+            }
+        }
+        Assert.assertEquals("", strings.get(0));
+        for (long[] valueType : valueTypes) {
+            sampleTypes.add(new String[]{strings.get((int) valueType[0]), strings.get((int) valueType[1])});
+        }
+        Assert.assertArrayEquals(new String[]{"samples", "count"}, sampleTypes.get(0));
+        Assert.assertArrayEquals(new String[]{"cpu", "nanoseconds"}, sampleTypes.get(1));
+        long total = 0;
+        boolean recursion = false;
+        for (long[][] sample : sampleList) {
+            total += sample[1][0];
+            // the locations are listed innermost first
+            StringBuilder names = new StringBuilder();
+            for (int i = sample[0].length - 1; i >= 0; i--) {
+                long functionId = locationFunctions.get(sample[0][i]);
+                names.append(strings.get(functionNames.get(functionId).intValue())).append(';');
+            }
+            recursion |= names.toString().contains("rec;rec;rec;rec;spin;");
+        }
+        Assert.assertEquals(samples, total);
+        Assert.assertTrue(recursion);
+    }
+
+    private static long[] toValueType(byte[] bytes) {
+        long[] result = new long[2];
+        for (Field f : decode(bytes)) {
+            result[f.number - 1] = f.value;
+        }
+        return result;
+    }
+
+    private static final class Field {
+        private final int number;
+        private final long value;
+        private final byte[] bytes;
+
+        Field(int number, long value, byte[] bytes) {
+            this.number = number;
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Decodes the fields of a protobuf message, only the varint and length-delimited wire types
+     * are used by the {@code pprof} format.
+     */
+    private static List<Field> decode(byte[] message) {
+        List<Field> fields = new ArrayList<>();
+        int[] pos = new int[1];
+        while (pos[0] < message.length) {
+            long tag = readVarint(message, pos);
+            int number = (int) (tag >>> 3);
+            int wireType = (int) (tag & 7);
+            if (wireType == 0) {
+                fields.add(new Field(number, readVarint(message, pos), null));
+            } else {
+                Assert.assertEquals(2, wireType);
+                int length = (int) readVarint(message, pos);
+                byte[] bytes = new byte[length];
+                System.arraycopy(message, pos[0], bytes, 0, length);
+                pos[0] += length;
+                fields.add(new Field(number, 0, bytes));
+            }
+        }
+        return fields;
+    }
+
+    private static long[] decodePacked(byte[] bytes) {
+        List<Long> values = new ArrayList<>();
+        int[] pos = new int[1];
+        while (pos[0] < bytes.length) {
+            values.add(readVarint(bytes, pos));
+        }
+        long[] result = new long[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private static long readVarint(byte[] bytes, int[] pos) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[pos[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+}
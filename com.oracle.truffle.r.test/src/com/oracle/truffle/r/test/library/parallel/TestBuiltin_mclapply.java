@@ -46,6 +46,15 @@ public class TestBuiltin_mclapply extends TestBase {
         assertEval(Ignored.ImplementationError, "f <- function() { res <- parallel:::mclapply(1:3, function(i) i)}; f() ; f()");
     }
 
+    @Test
+    public void testMCLapplyPool() {
+        // the pooled workers are replaced by a larger pool and stopped before a new shared cluster
+        // is created
+        assertEval("library(parallel); r1 <- mclapply(1:4, function(i) i * 2, mc.cores=2); r2 <- mclapply(1:6, function(i) i * 3, mc.cores=3); " +
+                        "cl <- makeCluster(2, ifelse(exists('engine', where=R.version), 'SHARED', 'PSOCK')); r3 <- parLapply(cl, 1:4, function(i) i + 1); stopCluster(cl); " +
+                        "r4 <- mclapply(1:2, function(i) -i, mc.cores=2); c(unlist(r1), unlist(r2), unlist(r3), unlist(r4))");
+    }
+
     @Test
     public void testMCLapplyNested() {
         // race-conditions, easilly reproducible with LLVM
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.stats;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestExternal_Cdist extends TestBase {
+    private static final String[] METHODS = new String[]{"'euclidean'", "'maximum'", "'manhattan'", "'canberra'", "'binary'", "'minkowski', p=3"};
+
+    @Test
+    public void testCdist() {
+        assertEval(template("{ x <- matrix(c(1, 2, NA, 4, 0, 6, 7, NaN, 9, 10, 0, 12), 4); dist(x, %0) }", METHODS));
+        assertEval("{ dist(matrix(c(1, Inf, 3, 0, 5, 6), 3), 'binary') }");
+    }
+
+    @Test
+    public void testCdistLarge() {
+        // large inputs are computed using multiple threads
+        assertEval(template("{ x <- matrix(round(sin(1:6000) * 10), 600); x[5, 3] <- NA; x[7, ] <- NA; d <- dist(x, %0); c(length(d), sum(is.na(d)), round(sum(d, na.rm=TRUE), 4), round(d[c(1, 599, 1000, 179700)], 6)) }",
+                        METHODS));
+    }
+}
@@ -51,4 +51,13 @@ public class TestExternal_covcor extends TestBase {
         assertEval(template("cov(mtcars[,1:4], use='%0', method='%1')", useCov, methods));
         assertEval(template("cov(1:4, c(1,7,1,-4), use='%0', method='%1')", useCov, methods));
     }
+
+    @Test
+    public void testLarge() {
+        // large inputs are computed using multiple threads, the sizes are chosen so that every use=
+        // variant is above the default ParallelThreshold (1000 x 120 x 80 operations and more)
+        String x = "x <- matrix(sin(1:120000) + cos(1:120000 / 7), 1000); x[3, 5] <- NA; x[10:12, 40] <- NaN; y <- x[, 1:80] * 2 + 1; ";
+        assertEval(template(x + "r <- cor(x, use='%0'); c(dim(r), sum(is.na(r)), round(r[c(1, 2, 505, 1000, 14399)], 8))", new String[]{"e", "c", "n", "p"}));
+        assertEval(template(x + "r <- cov(x, y, use='%0'); c(dim(r), sum(is.na(r)), round(r[c(1, 2, 505, 1000, 9599)], 8))", new String[]{"e", "c", "n", "p"}));
+    }
 }
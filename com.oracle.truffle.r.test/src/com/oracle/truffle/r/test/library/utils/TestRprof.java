@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.utils;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestRprof extends TestBase {
+
+    private static final String PROFILE_REC = "f <- tempfile(); spin <- function(t) { end <- Sys.time() + t; while (Sys.time() < end) {}; 0 }; rec <- function(n) if (n == 0) spin(0.5) else rec(n - 1); " +
+                    "Rprof(f, interval=0.01); invisible(rec(5)); Rprof(NULL); ";
+
+    @Test
+    public void testRecursiveStacks() {
+        // every sample taken in spin shows all the activations of rec below it
+        assertEval(PROFILE_REC + "l <- readLines(f); unlink(f); s <- l[grepl('\"spin\"', l)]; " +
+                        "c(grepl('^sample.interval=', l[[1]]), length(s) > 0, all(grepl('\"spin\" \"rec\" \"rec\" \"rec\" \"rec\" \"rec\" \"rec\"', s)), all(lengths(regmatches(s, gregexpr('\"rec\"', s))) == 6))");
+        assertEval(PROFILE_REC + "s <- summaryRprof(f); unlink(f); c(c('\"rec\"', '\"spin\"') %in% rownames(s$by.total), s$by.total['\"rec\"', 'total.pct'] >= s$by.total['\"spin\"', 'total.pct'])");
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime;
+
+import static com.oracle.truffle.r.test.generate.FastRSession.GET_CONTEXT;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
+import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRContext;
+import com.oracle.truffle.r.test.generate.FastRSession;
+
+public class TestFunctionStats extends TestBase {
+
+    private static FastRContext context;
+    private static RContext rContext;
+
+    @BeforeClass
+    public static void setupClass() {
+        FastRSession session = FastRSession.create();
+        context = session.createContext(ContextKind.SHARE_PARENT_RW);
+        rContext = context.eval(GET_CONTEXT).asHostObject();
+        FastRSession.execInContext(context, () -> {
+            rContext.setOption(FastROptions.FunctionStats, true);
+            return null;
+        });
+    }
+
+    @AfterClass
+    public static void finishClass() {
+        context.close();
+    }
+
+    @Test
+    public void testRecursiveFunction() {
+        // every call of fib is counted, but only the time of its outermost activation, which is
+        // included in the time of outer
+        String code = "fib <- function(n) if (n < 2) n else fib(n - 1) + fib(n - 2); outer <- function() fib(15); invisible(.fastr.funstats(reset=TRUE)); outer(); " +
+                        "s <- .fastr.funstats(reset=TRUE); i <- match(c('fib', 'outer'), s$name); " +
+                        "paste(s$calls[i], rowSums(s$histogram)[i], s$time[i[1]] <= s$time[i[2]], collapse=' ')";
+        Assert.assertEquals("1973 1 TRUE 1 1 TRUE", context.eval("R", code).asString());
+    }
+
+    @Test
+    public void testReset() {
+        String code = "f <- function(x) x + 1; invisible(.fastr.funstats(reset=TRUE)); for (i in 1:10) f(i); s1 <- .fastr.funstats(reset=TRUE); s2 <- .fastr.funstats(); " +
+                        "paste(s1$calls[s1$name == 'f'], sum(s1$histogram[s1$name == 'f', ]), ncol(s1$histogram), 'f' %in% s2$name)";
+        Assert.assertEquals("10 10 32 FALSE", context.eval("R", code).asString());
+    }
+}
@@ -32,6 +32,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import com.oracle.truffle.r.runtime.RSerialize;
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
@@ -151,4 +152,45 @@ public class TestRSerialize extends TestBase {
             return null;
         });
     }
+
+    @Test
+    public void testReadRDSMapped() {
+        // the large vectors of an uncompressed file are backed by the mapped file, but they must
+        // behave as ordinary vectors, i.e., changing them changes neither the file nor the vectors
+        // read by another readRDS
+        String code = "f <- tempfile(); x <- structure(c(1:1000, NA), dim=c(7L, 143L), foo='bar'); y <- c(0.5, NA, NaN, -Inf, seq(1, 2000)); z <- c(TRUE, NA, FALSE); " +
+                        "saveRDS(list(x, y, z), f, compress=FALSE); b <- readBin(f, 'raw', file.size(f)); r1 <- readRDS(f); ok1 <- identical(r1, list(x, y, z)); " +
+                        "r1[[1]][1] <- -1L; r1[[2]][2] <- 42; v <- r1[[2]]; v[1] <- 0; r2 <- readRDS(f); " +
+                        "ok2 <- identical(r2, list(x, y, z)) && identical(attributes(r2[[1]]), list(dim=c(7L, 143L), foo='bar')) && is.na(r2[[1]][1001]) && is.na(r2[[2]][2]) && !is.nan(r2[[2]][2]) && is.nan(r2[[2]][3]); " +
+                        "ok3 <- r1[[1]][1] == -1L && r1[[2]][2] == 42 && r1[[2]][1] == 0.5 && v[1] == 0 && identical(b, readBin(f, 'raw', file.size(f))); unlink(f); paste(ok1, ok2, ok3)";
+        Assert.assertEquals("TRUE TRUE TRUE", evalWithMapThreshold(code));
+    }
+
+    @Test
+    public void testReadRDSMappedRewrite() {
+        // writing to the file of mapped vectors, including truncating it, must not change the
+        // vectors read from it before
+        String code = "f <- tempfile(); x <- c(1:1000, NA); y <- c(0.5, NA, seq(1, 2000)); saveRDS(list(x, y), f, compress=FALSE); " +
+                        "r <- readRDS(f); saveRDS(r, f, compress=FALSE); ok1 <- identical(r, list(x, y)) && identical(readRDS(f), list(x, y)); " +
+                        "r <- readRDS(f); saveRDS(r, f); ok2 <- identical(r, list(x, y)) && identical(readRDS(f), list(x, y)); " +
+                        "saveRDS(list(x, y), f, compress=FALSE); r <- readRDS(f); cat('', file=f); ok3 <- file.size(f) == 0 && identical(r, list(x, y)) && sum(r[[1]], na.rm=TRUE) == 500500L; " +
+                        "unlink(f); paste(ok1, ok2, ok3)";
+        Assert.assertEquals("TRUE TRUE TRUE", evalWithMapThreshold(code));
+    }
+
+    private static String evalWithMapThreshold(String code) {
+        int origThreshold = FastRSession.execInContext(context, () -> {
+            int threshold = rContext.getNonNegativeIntOption(FastROptions.MapUnserializeThreshold);
+            rContext.setOption(FastROptions.MapUnserializeThreshold, 64);
+            return threshold;
+        }).asInt();
+        try {
+            return context.eval("R", code).asString();
+        } finally {
+            FastRSession.execInContext(context, () -> {
+                rContext.setOption(FastROptions.MapUnserializeThreshold, origThreshold);
+                return null;
+            });
+        }
+    }
 }